@@ -0,0 +1,101 @@
+package Benchmarks;
+
+import Models.BarnesHutField;
+import Models.FieldEngine;
+import Models.PointCharges;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Compara {@link BarnesHutField} con la suma directa de {@link FieldEngine}
+ * sobre las mismas cargas y puntos: para cada ángulo de apertura muestra el
+ * tiempo del lote, la aceleración, el error relativo real (mediana y máximo)
+ * y la cota de error informada por el árbol. Al final mide el coste de una
+ * actualización incremental frente a reconstruir el árbol.
+ *
+ * Las cargas son positivas (como las que admite el formulario) y se agrupan en
+ * cúmulos, que es donde el árbol aporta más.
+ *
+ * Uso: {@code ant bench-barneshut -Dbench.args="[cargas] [puntos]"}
+ */
+public class BarnesHutBenchmark {
+
+    private static final double[] THETAS = {0.2, 0.35, 0.5, 0.7, 0.9};
+    private static final int CLUSTERS = 32;
+    private static final int UPDATES = 10_000;
+    private static final int REPETITIONS = 5;
+
+    public static void main(String[] args) {
+        int chargeCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int pointCount = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        SplittableRandom random = new SplittableRandom(42);
+        double[] cx = new double[chargeCount];
+        double[] cy = new double[chargeCount];
+        double[] cq = new double[chargeCount];
+        double[][] centers = new double[CLUSTERS][];
+        for (int c = 0; c < CLUSTERS; c++) {
+            centers[c] = new double[]{random.nextDouble(-100, 100), random.nextDouble(-100, 100), random.nextDouble(1, 10)};
+        }
+        for (int i = 0; i < chargeCount; i++) {
+            double[] center = centers[random.nextInt(CLUSTERS)];
+            cx[i] = center[0] + random.nextDouble(-1, 1) * center[2];
+            cy[i] = center[1] + random.nextDouble(-1, 1) * center[2];
+            cq[i] = random.nextDouble(1e-9, 1e-6);
+        }
+        double[] px = random.doubles(pointCount, -120, 120).toArray();
+        double[] py = random.doubles(pointCount, -120, 120).toArray();
+        PointCharges charges = PointCharges.of(cx, cy, cq);
+
+        double[] exactX = new double[pointCount];
+        double[] exactY = new double[pointCount];
+        FieldEngine direct = new FieldEngine(charges);
+        double directMillis = bestOf(() -> direct.evaluate(px, py, exactX, exactY));
+        System.out.printf("%d cargas, %d puntos; suma directa: %.1f ms%n", chargeCount, pointCount, directMillis);
+
+        long begin = System.nanoTime();
+        BarnesHutField tree = BarnesHutField.of(charges, THETAS[0]);
+        double buildMillis = (System.nanoTime() - begin) / 1e6;
+        System.out.printf("construcción del árbol: %.1f ms%n", buildMillis);
+        System.out.printf("%6s %10s %9s %14s %14s %14s%n", "theta", "ms", "acel.", "err. mediana", "err. máximo", "cota máxima");
+        double[] ex = new double[pointCount];
+        double[] ey = new double[pointCount];
+        double[] bound = new double[pointCount];
+        double[] relative = new double[pointCount];
+        for (double theta : THETAS) {
+            tree.setTheta(theta);
+            double millis = bestOf(() -> tree.evaluate(px, py, ex, ey, bound));
+            double maxBound = 0;
+            for (int p = 0; p < pointCount; p++) {
+                double magnitude = Math.hypot(exactX[p], exactY[p]);
+                relative[p] = Math.hypot(ex[p] - exactX[p], ey[p] - exactY[p]) / magnitude;
+                maxBound = Math.max(maxBound, bound[p] / magnitude);
+            }
+            Arrays.sort(relative);
+            System.out.printf("%6.2f %10.1f %8.1fx %14.2e %14.2e %14.2e%n", theta, millis, directMillis / millis,
+                    relative[pointCount / 2], relative[pointCount - 1], maxBound);
+        }
+
+        // Mover una carga = quitarla e insertarla en otra posición
+        begin = System.nanoTime();
+        for (int u = 0; u < UPDATES; u++) {
+            int i = random.nextInt(chargeCount);
+            tree.remove(i, cx[i], cy[i]);
+            cx[i] += random.nextDouble(-0.5, 0.5);
+            cy[i] += random.nextDouble(-0.5, 0.5);
+            tree.insert(i, cx[i], cy[i], cq[i]);
+        }
+        double updateMicros = (System.nanoTime() - begin) / 1e3 / UPDATES;
+        System.out.printf("actualización incremental: %.2f µs por carga (reconstruir: %.1f ms)%n", updateMicros, buildMillis);
+    }
+
+    // Mejor tiempo de varias repeticiones, en ms; la primera sirve de calentamiento
+    private static double bestOf(Runnable batch) {
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < REPETITIONS; i++) {
+            long begin = System.nanoTime();
+            batch.run();
+            best = Math.min(best, (System.nanoTime() - begin) / 1e6);
+        }
+        return best;
+    }
+}
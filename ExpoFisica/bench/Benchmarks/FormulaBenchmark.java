@@ -0,0 +1,99 @@
+package Benchmarks;
+
+import Models.ElectricConsume;
+import Models.FieldE;
+import Models.ForceE;
+import Models.PotencialE;
+import Models.Torque;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coste por llamada de las fórmulas físicas y del cálculo de consumo. Las
+ * entradas se toman de arreglos precalculados para que el compilador no pueda
+ * plegar el resultado a una constante.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FormulaBenchmark {
+
+    private static final int SIZE = 1024; // Potencia de dos: el índice rota con una máscara
+
+    private double[] campoE;
+    private double[] cargaQ;
+    private double[] distancia;
+    private double[] angulo;
+    private double[] potencia;
+    private double[] tiempo;
+    private double[] tarifa;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        campoE = random.doubles(SIZE, 1, 1e6).toArray();
+        cargaQ = random.doubles(SIZE, 1e-9, 1e-3).toArray();
+        distancia = random.doubles(SIZE, 1e-3, 10).toArray();
+        angulo = random.doubles(SIZE, 0, 360).toArray();
+        potencia = random.doubles(SIZE, 1, 5000).toArray();
+        tiempo = random.doubles(SIZE, 0, 24).toArray();
+        tarifa = random.doubles(SIZE, 100, 1000).toArray();
+    }
+
+    private int index() {
+        return next = (next + 1) & (SIZE - 1);
+    }
+
+    // TorqueController.calculateTorque
+    @Benchmark
+    public double torque() {
+        int i = index();
+        return Torque.calcularTorque(campoE[i], cargaQ[i], distancia[i], angulo[i]);
+    }
+
+    // FieldEController.calcularCampoResultante
+    @Benchmark
+    public double campo() {
+        int i = index();
+        return FieldE.calcularCampo(cargaQ[i], distancia[i]);
+    }
+
+    @Benchmark
+    public double fuerza() {
+        int i = index();
+        return ForceE.calcularFuerza(campoE[i], cargaQ[i]);
+    }
+
+    @Benchmark
+    public double potencial() {
+        int i = index();
+        return PotencialE.calcularPotencial(campoE[i], distancia[i]);
+    }
+
+    @Benchmark
+    public double consumo() {
+        int i = index();
+        return ElectricConsume.calculateResult(potencia[i], tiempo[i], tarifa[i]);
+    }
+
+    // Incluye el encajonado en Double y la construcción del registro, como en el alta real
+    @Benchmark
+    public Double consumoRegistro() {
+        int i = index();
+        return new ElectricConsume(i, "Nevera", potencia[i], tiempo[i], tarifa[i], "user").getResult();
+    }
+}
@@ -0,0 +1,146 @@
+package Benchmarks;
+
+import Models.ElectricConsumeActions;
+import Models.FieldEActions;
+import Models.ForceActions;
+import Models.PotencialEActions;
+import Models.TorqueActions;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Banco de pruebas de contención de los almacenes *Actions. Cada hilo ejecuta
+ * una mezcla de lecturas (vista + búsqueda por ID) y escrituras (alta, baja y
+ * modificación) repartida entre los almacenes, y se mide el rendimiento total
+ * para 1, 2, 4... hasta el número de núcleos disponibles.
+ *
+ * Uso: {@code ant bench-contention -Dbench.args="[segundos] [% escrituras]"}
+ */
+public class StoreContentionBenchmark {
+
+    private static final int STORES = 5;
+    private static final int LIVE_IDS = 4096; // Tamaño aproximado de cada almacén durante la prueba
+
+    public static void main(String[] args) throws InterruptedException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int writePercent = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int cores = Runtime.getRuntime().availableProcessors();
+        preload();
+        System.out.printf("%d núcleos, %d%% escrituras, %d s por medida%n", cores, writePercent, seconds);
+        System.out.printf("%8s %16s %10s%n", "hilos", "ops/s", "escala");
+        run(1, 1, writePercent); // Calentamiento del JIT
+        double base = 0;
+        for (int threads = 1; threads <= cores; threads = threads < cores && threads * 2 > cores ? cores : threads * 2) {
+            double throughput = run(threads, seconds, writePercent);
+            if (threads == 1) {
+                base = throughput;
+            }
+            System.out.printf("%8d %16.0f %9.2fx%n", threads, throughput, throughput / base);
+            if (threads == cores) {
+                break;
+            }
+        }
+    }
+
+    private static void preload() {
+        for (int i = 0; i < LIVE_IDS; i++) {
+            TorqueActions.getInstance().addTorque(1, 2, 3, 4, 5);
+            FieldEActions.getInstance().addFieldE(1, 2, 3, "Norte", 4);
+            ForceActions.getInstance().addForceE(1, 2, 3);
+            PotencialEActions.getInstance().addPotencialE(1, 2, 3);
+            ElectricConsumeActions.getInstance().addElectricConsume("Nevera", 1.0, 2.0, 3.0, "user");
+        }
+    }
+
+    // Devuelve el rendimiento en operaciones por segundo
+    private static double run(int threads, int seconds, int writePercent) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    long count = 0;
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (running.get()) {
+                        operate(random.nextInt(STORES), random.nextInt(100) < writePercent, random);
+                        count++;
+                    }
+                    operations.add(count);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "bench-" + t);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        done.await();
+        return operations.sum() / ((System.nanoTime() - begin) / 1e9);
+    }
+
+    private static void operate(int store, boolean write, ThreadLocalRandom random) {
+        int id = random.nextInt(LIVE_IDS * 4);
+        switch (store) {
+            case 0 -> {
+                TorqueActions actions = TorqueActions.getInstance();
+                if (!write) {
+                    actions.listTorques().get(id);
+                } else if (random.nextBoolean()) {
+                    actions.modifyTorque(id, 1, 2, 3, 4, 5);
+                } else if (actions.deleteTorque(id)) {
+                    actions.addTorque(1, 2, 3, 4, 5); // Mantiene estable el tamaño del almacén
+                }
+            }
+            case 1 -> {
+                FieldEActions actions = FieldEActions.getInstance();
+                if (!write) {
+                    actions.listFieldsE().get(id);
+                } else if (random.nextBoolean()) {
+                    actions.modifyFieldE(id, 1, 2, 3, "Sur", 4);
+                } else if (actions.deleteFieldE(id)) {
+                    actions.addFieldE(1, 2, 3, "Norte", 4);
+                }
+            }
+            case 2 -> {
+                ForceActions actions = ForceActions.getInstance();
+                if (!write) {
+                    actions.listForceE().get(id);
+                } else if (random.nextBoolean()) {
+                    actions.modifyForceE(id, 1, 2, 3);
+                } else if (actions.deleteForceE(id)) {
+                    actions.addForceE(1, 2, 3);
+                }
+            }
+            case 3 -> {
+                PotencialEActions actions = PotencialEActions.getInstance();
+                if (!write) {
+                    actions.listPotenciales().get(id);
+                } else if (random.nextBoolean()) {
+                    actions.modifyPotencialE(id, 1, 2, 3);
+                } else if (actions.deletePotencialE(id)) {
+                    actions.addPotencialE(1, 2, 3);
+                }
+            }
+            default -> {
+                ElectricConsumeActions actions = ElectricConsumeActions.getInstance();
+                if (!write) {
+                    actions.listElectricConsume(null).get(id);
+                } else if (random.nextBoolean()) {
+                    actions.modifyElectricConsume(id, "Nevera", 1.0, 2.0, 3.0, "user");
+                } else if (actions.deleteElectricConsume(id)) {
+                    actions.addElectricConsume("Nevera", 1.0, 2.0, 3.0, "user");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package Benchmarks;
+
+import Models.ElectricConsumeActions;
+import Models.FieldEActions;
+import Models.ForceActions;
+import Models.PotencialEActions;
+import Models.TorqueActions;
+import Models.UsersActions;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Operaciones CRUD de un solo hilo sobre cada almacén *Actions, con
+ * {@code size} registros precargados:
+ *
+ * <ul>
+ * <li>{@code *Create}: alta de un registro y baja del más antiguo, de modo
+ * que el tamaño del almacén no cambia durante la medida.</li>
+ * <li>{@code *Read}: publicación de la vista y búsqueda por ID.</li>
+ * <li>{@code *Update}: modificación de un registro existente.</li>
+ * </ul>
+ *
+ * Los almacenes son singletons, así que cada benchmark se ejecuta en su propia
+ * JVM ({@code @Fork}) con el estado recién creado. La persistencia no se abre,
+ * por lo que no se mide el log.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StoreCrudBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    // Los IDs son consecutivos desde 0: [oldest, newest) son los registros vivos
+    private int oldest;
+    private int newest;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < size; i++) {
+            TorqueActions.getInstance().addTorque(1, 2, 3, 4, 5);
+            FieldEActions.getInstance().addFieldE(1, 2, 3, "Norte", 4);
+            ForceActions.getInstance().addForceE(1, 2, 3);
+            PotencialEActions.getInstance().addPotencialE(1, 2, 3);
+            ElectricConsumeActions.getInstance().addElectricConsume("Nevera", 1.0, 2.0, 3.0, "user" + (i % 100));
+            UsersActions.getInstance().addEmployee("user" + i, "secret", "Name", "Address", "user" + i + "@mail.com", "Admin");
+        }
+        newest = size;
+    }
+
+    // ID vivo que va rotando por todo el almacén
+    private int liveId() {
+        if (++cursor >= newest) {
+            cursor = oldest;
+        }
+        return Math.max(cursor, oldest);
+    }
+
+    @Benchmark
+    public boolean torqueCreate() {
+        TorqueActions.getInstance().addTorque(1, 2, 3, 4, 5);
+        newest++;
+        return TorqueActions.getInstance().deleteTorque(oldest++);
+    }
+
+    @Benchmark
+    public Object torqueRead() {
+        return TorqueActions.getInstance().listTorques().get(liveId());
+    }
+
+    @Benchmark
+    public void torqueUpdate() {
+        TorqueActions.getInstance().modifyTorque(liveId(), 2, 3, 4, 5, 6);
+    }
+
+    @Benchmark
+    public boolean fieldCreate() {
+        FieldEActions.getInstance().addFieldE(1, 2, 3, "Norte", 4);
+        newest++;
+        return FieldEActions.getInstance().deleteFieldE(oldest++);
+    }
+
+    @Benchmark
+    public Object fieldRead() {
+        return FieldEActions.getInstance().listFieldsE().get(liveId());
+    }
+
+    @Benchmark
+    public void fieldUpdate() {
+        FieldEActions.getInstance().modifyFieldE(liveId(), 2, 3, 4, "Sur", 5);
+    }
+
+    @Benchmark
+    public boolean forceCreate() {
+        ForceActions.getInstance().addForceE(1, 2, 3);
+        newest++;
+        return ForceActions.getInstance().deleteForceE(oldest++);
+    }
+
+    @Benchmark
+    public Object forceRead() {
+        return ForceActions.getInstance().listForceE().get(liveId());
+    }
+
+    @Benchmark
+    public void forceUpdate() {
+        ForceActions.getInstance().modifyForceE(liveId(), 2, 3, 4);
+    }
+
+    @Benchmark
+    public boolean potencialCreate() {
+        PotencialEActions.getInstance().addPotencialE(1, 2, 3);
+        newest++;
+        return PotencialEActions.getInstance().deletePotencialE(oldest++);
+    }
+
+    @Benchmark
+    public Object potencialRead() {
+        return PotencialEActions.getInstance().listPotenciales().get(liveId());
+    }
+
+    @Benchmark
+    public boolean potencialUpdate() {
+        return PotencialEActions.getInstance().modifyPotencialE(liveId(), 2, 3, 4);
+    }
+
+    @Benchmark
+    public boolean consumeCreate() {
+        ElectricConsumeActions.getInstance().addElectricConsume("Nevera", 1.0, 2.0, 3.0, "user" + (newest % 100));
+        newest++;
+        return ElectricConsumeActions.getInstance().deleteElectricConsume(oldest++);
+    }
+
+    @Benchmark
+    public Object consumeRead() {
+        return ElectricConsumeActions.getInstance().listElectricConsume("user" + (liveId() % 100), "").size();
+    }
+
+    @Benchmark
+    public boolean consumeUpdate() {
+        return ElectricConsumeActions.getInstance().modifyElectricConsume(liveId(), "Horno", 1.0, 2.0, 3.0, "user7");
+    }
+
+    @Benchmark
+    public boolean userCreate() {
+        int id = newest++;
+        UsersActions.getInstance().addEmployee("user" + id, "secret", "Name", "Address", "user" + id + "@mail.com", "Admin");
+        return UsersActions.getInstance().deleteEmployee(oldest++);
+    }
+
+    @Benchmark
+    public boolean userRead() {
+        return UsersActions.getInstance().employeeLogin("user" + liveId(), "secret");
+    }
+
+    @Benchmark
+    public boolean userUpdate() {
+        int id = liveId();
+        return UsersActions.getInstance().modifyPersonalData(id, "Other", "user" + id + "@mail.com", "Street");
+    }
+}
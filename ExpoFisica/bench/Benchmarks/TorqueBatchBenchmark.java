@@ -0,0 +1,61 @@
+package Benchmarks;
+
+import Models.TorqueKernel;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lote de torques con {@link TorqueKernel}: la versión escalar frente a la
+ * que elija el kernel (vectorial si la JVM tiene el módulo
+ * {@code jdk.incubator.vector}, que {@code ant bench} añade con run.jvmargs).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TorqueBatchBenchmark {
+
+    @Param({"1024", "1048576"})
+    public int rows;
+
+    private double[] campoE;
+    private double[] cargaQ;
+    private double[] distancia;
+    private double[] angulo;
+    private double[] resultado;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        campoE = random.doubles(rows, 1, 1e6).toArray();
+        cargaQ = random.doubles(rows, 1e-9, 1e-3).toArray();
+        distancia = random.doubles(rows, 1e-3, 10).toArray();
+        angulo = random.doubles(rows, 0, 360).toArray();
+        resultado = new double[rows];
+    }
+
+    @Benchmark
+    public double[] scalar() {
+        TorqueKernel.computeScalar(campoE, cargaQ, distancia, angulo, resultado, 0, rows);
+        return resultado;
+    }
+
+    @Benchmark
+    public double[] kernel() {
+        TorqueKernel.compute(campoE, cargaQ, distancia, angulo, resultado, 0, rows);
+        return resultado;
+    }
+}
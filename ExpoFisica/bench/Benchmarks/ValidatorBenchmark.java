@@ -0,0 +1,59 @@
+package Benchmarks;
+
+import Models.ElectricConsumeActions;
+import Models.FieldEActions;
+import Models.ForceActions;
+import Models.PotencialEActions;
+import Models.TorqueActions;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coste del validador isDoubleString de cada *Actions con una entrada
+ * válida, una inválida y una larga.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidatorBenchmark {
+
+    @Param({"12.5", "1e5", "123456789012.123456789012"})
+    public String input;
+
+    @Benchmark
+    public boolean torque() {
+        return TorqueActions.getInstance().isDoubleString(input);
+    }
+
+    @Benchmark
+    public boolean campo() {
+        return FieldEActions.getInstance().isDoubleString(input);
+    }
+
+    @Benchmark
+    public boolean fuerza() {
+        return ForceActions.getInstance().isDoubleString(input);
+    }
+
+    @Benchmark
+    public boolean potencial() {
+        return PotencialEActions.getInstance().isDoubleString(input);
+    }
+
+    @Benchmark
+    public boolean consumo() {
+        return ElectricConsumeActions.getInstance().isDoubleString(input);
+    }
+}
@@ -148,10 +148,15 @@ public class AdministrationConfigurations implements MouseListener, ActionListen
     private void handleChangePersonalData() {
         // Update the current employee's personal data
         Users employee = employeeActions.getCurrentEmployee();
-        employee.setEmployeeName(administration.txtEmployeeNameConfigurations.getText().trim()); // Set name
-        employee.setEmployeeEmail(administration.txtEmployeeEmailConfigurations.getText().trim().toLowerCase()); // Set email
-        employee.setEmployeeAddress(administration.txtEmployeeAddressConfigurations.getText().trim()); // Set address
-        JOptionPane.showMessageDialog(null, "Successful changes"); // Success message
+        if (employeeActions.modifyPersonalData(employee.getEmployeeID(),
+                administration.txtEmployeeNameConfigurations.getText().trim(), // Name
+                administration.txtEmployeeEmailConfigurations.getText().trim().toLowerCase(), // Email
+                administration.txtEmployeeAddressConfigurations.getText().trim())) { // Address
+            JOptionPane.showMessageDialog(null, "Successful changes"); // Success message
+        } else {
+            // The email index rejects an address that belongs to another employee
+            JOptionPane.showMessageDialog(null, "Email already in use.");
+        }
     }
 
     private void cleanFields() {
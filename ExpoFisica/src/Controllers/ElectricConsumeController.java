@@ -1,7 +1,9 @@
 package Controllers;
 
+import Models.ConsumeCsvImporter;
 import Models.ElectricConsume;
 import Models.ElectricConsumeActions;
+import Models.IntStoreSnapshot;
 import Models.Users;
 import Models.UsersActions;
 import Views.Administration;
@@ -11,9 +13,17 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.util.Map;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.ProgressMonitor;
+import javax.swing.SwingWorker;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
 /**
  * Controlador para la gestión de consumos eléctricos. Maneja las interacciones
@@ -26,11 +36,12 @@ public class ElectricConsumeController implements ActionListener, MouseListener,
     private static final String SUCCESS_REGISTER = "Consumo eléctrico registrado con éxito.";
     private static final String SUCCESS_MODIFY = "Consumo modificado con éxito.";
     private static final String SUCCESS_DELETE = "Consumo eliminado con éxito.";
+    private static final String SUCCESS_IMPORT = "Consumos importados: %d. Filas rechazadas: %d%s";
+    private static final String ERROR_IMPORT = "No se pudo importar el archivo: %s";
 
     private final Administration administration;
     private final ElectricConsumeActions electricConsumeActions;
     private final UsersActions employeeActions;
-    private DefaultTableModel model;
 
     public ElectricConsumeController(Administration administration, ElectricConsumeActions electricConsumeActions, UsersActions employeeActions) {
         this.administration = administration;
@@ -52,6 +63,7 @@ public class ElectricConsumeController implements ActionListener, MouseListener,
         administration.btnConsumeModify.addActionListener(this);
         administration.btnConsumeDelete.addActionListener(this);
         administration.btnConsumeCancel.addActionListener(this);
+        administration.consumeSummaryPanel.btnConsumeImport.addActionListener(this);
     }
 
     private void addMouseListeners() {
@@ -72,8 +84,7 @@ public class ElectricConsumeController implements ActionListener, MouseListener,
     }
 
     private void cleanTable() {
-        model = (DefaultTableModel) administration.ConsumeTable.getModel();
-        model.setRowCount(0); // Limpiar la tabla
+        administration.consumeTableModel.clear(); // Limpiar la tabla
     }
 
     private void cleanFields() {
@@ -169,24 +180,14 @@ public class ElectricConsumeController implements ActionListener, MouseListener,
     }
 
     public void loadConsume() {
-        Map<Integer, ElectricConsume> electricConsumes = electricConsumeActions.listElectricConsume(
+        // Solo los consumos del empleado actual, leídos del índice por usuario
+        IntStoreSnapshot<ElectricConsume> electricConsumes = electricConsumeActions.listElectricConsume(
+                employeeActions.getCurrentEmployee().getEmployeeUser(),
                 electricConsumeActions.nameAdditionalValidation(administration.txtSearchDevice.getText().trim())
         );
 
-        model = (DefaultTableModel) administration.ConsumeTable.getModel();
-        for (ElectricConsume consume : electricConsumes.values()) {
-            if (consume.getUser().equals(employeeActions.getCurrentEmployee().getEmployeeUser())) {
-                Object[] row = {
-                    consume.getId(),
-                    consume.getElectricAppliance(),
-                    consume.getElectricPower(),
-                    consume.getDeviceTime(),
-                    consume.getElectricityTariff(),
-                    consume.getResult()
-                };
-                model.addRow(row);
-            }
-        }
+        administration.consumeTableModel.setConsumes(electricConsumes); // Sin copiar filas: la tabla lee la vista
+        administration.consumeSummaryPanel.refresh(); // Los totales se mantienen en el almacén; no se recorren los consumos
     }
 
     @Override
@@ -205,7 +206,61 @@ public class ElectricConsumeController implements ActionListener, MouseListener,
         } else if (source == administration.btnConsumeCancel) {
             refreshConsumeData();
             administration.btnConsumeRegister.setEnabled(true); // Activar botón de registro
+        } else if (source == administration.consumeSummaryPanel.btnConsumeImport) {
+            importConsumes();
+        }
+    }
+
+    /**
+     * Importa consumos desde un archivo CSV elegido por el usuario. La
+     * importación corre fuera del hilo de eventos con un monitor de progreso;
+     * las filas rechazadas se copian junto al archivo, en
+     * {@code <nombre>.rechazados.csv}. Los consumos se importan a nombre del
+     * usuario de la sesión.
+     */
+    private void importConsumes() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("Archivos CSV", "csv"));
+        if (chooser.showOpenDialog(administration) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
+        Path csv = chooser.getSelectedFile().toPath();
+        String name = csv.getFileName().toString();
+        Path rejectedRows = csv.resolveSibling((name.toLowerCase().endsWith(".csv")
+                ? name.substring(0, name.length() - 4) : name) + ".rechazados.csv");
+        ProgressMonitor monitor = new ProgressMonitor(administration, "Importando " + name, "", 0, 1000);
+        administration.consumeSummaryPanel.btnConsumeImport.setEnabled(false);
+        String user = employeeActions.getCurrentEmployee().getEmployeeUser();
+        ConsumeCsvImporter importer = new ConsumeCsvImporter(electricConsumeActions, user); // Solo a nombre de la sesión
+        new SwingWorker<ConsumeCsvImporter.Result, long[]>() {
+            @Override
+            protected ConsumeCsvImporter.Result doInBackground() throws IOException {
+                return importer.importFile(csv, rejectedRows,
+                        (bytesRead, totalBytes, imported, rejected) -> publish(new long[]{bytesRead, totalBytes, imported, rejected}));
+            }
+
+            @Override
+            protected void process(List<long[]> chunks) {
+                long[] last = chunks.get(chunks.size() - 1);
+                monitor.setProgress(last[1] == 0 ? 1000 : (int) (last[0] * 1000 / last[1]));
+                monitor.setNote(String.format("%d importados, %d rechazados", last[2], last[3]));
+            }
+
+            @Override
+            protected void done() {
+                monitor.close();
+                administration.consumeSummaryPanel.btnConsumeImport.setEnabled(true);
+                try {
+                    ConsumeCsvImporter.Result result = get();
+                    refreshConsumeData(); // La tabla lee la vista del almacén; no se añade una fila por consumo
+                    JOptionPane.showMessageDialog(null, String.format(SUCCESS_IMPORT, result.getImported(), result.getRejected(),
+                            result.getRejected() == 0 ? "." : " (ver " + rejectedRows.getFileName() + ")."));
+                } catch (InterruptedException | ExecutionException ex) {
+                    Logger.getLogger(ElectricConsumeController.class.getName()).log(Level.SEVERE, null, ex);
+                    JOptionPane.showMessageDialog(null, String.format(ERROR_IMPORT, ex.getCause() == null ? ex : ex.getCause().getMessage()));
+                }
+            }
+        }.execute();
     }
 
     private void handleModifyAction() {
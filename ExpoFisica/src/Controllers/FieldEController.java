@@ -2,6 +2,7 @@ package Controllers;
 
 import Models.FieldE;
 import Models.FieldEActions;
+import Models.IntStoreSnapshot;
 import Models.UsersActions;
 import Views.Administration;
 import java.awt.event.ActionEvent;
@@ -11,7 +12,6 @@ import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.text.DecimalFormat;
-import java.util.Map;
 import javax.swing.JOptionPane;
 import javax.swing.table.DefaultTableModel;
 
@@ -193,10 +193,10 @@ public class FieldEController implements ActionListener, MouseListener, KeyListe
      * Carga los campos eléctricos en la tabla y los combobox.
      */
     public void loadFieldsE() {
-        Map<Integer, FieldE> fieldsE = fieldEActions.listFieldsE();
+        IntStoreSnapshot<FieldE> fieldsE = fieldEActions.listFieldsE();
         model = (DefaultTableModel) administration.CamposTable.getModel();
         Object[] row = new Object[6];
-        for (FieldE field : fieldsE.values()) {
+        for (FieldE field : fieldsE) {
             row[0] = field.getId();
             row[1] = field.getCargaQ();
             row[2] = field.getDireccion();
@@ -303,17 +303,9 @@ public class FieldEController implements ActionListener, MouseListener, KeyListe
     }
 
     private double calcularCampoResultante() {
-        double k = 8.99e9; // Constante de Coulomb
         double cargaQ = Double.parseDouble(administration.txtFieldECharge.getText().trim());
         double distanciaR = Double.parseDouble(administration.txtFieldEDistance.getText().trim());
-        double anguloA = Double.parseDouble(administration.txtFieldAngulo.getText().trim());
-
-        // Convertir ángulo a radianes y calcular componentes del campo eléctrico
-        double anguloRadianes = Math.toRadians(anguloA);
-        double magnitud = (k * Math.abs(cargaQ)) / (distanciaR * distanciaR);
-        double Ex = magnitud * Math.cos(anguloRadianes);
-        double Ey = magnitud * Math.sin(anguloRadianes);
-        double campoElectricoResultante = Math.sqrt(Ex * Ex + Ey * Ey);
-        return campoElectricoResultante;
+        // La magnitud no depende del ángulo: las componentes Ex, Ey recomponen el mismo valor
+        return FieldE.calcularCampo(cargaQ, distanciaR);
     }
 }
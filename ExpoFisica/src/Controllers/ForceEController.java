@@ -2,6 +2,7 @@ package Controllers;
 
 import Models.ForceActions;
 import Models.ForceE;
+import Models.IntStoreSnapshot;
 import Views.Administration;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -9,7 +10,6 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.util.Map;
 import javax.swing.JOptionPane;
 import javax.swing.table.DefaultTableModel;
 
@@ -95,10 +95,10 @@ public class ForceEController implements ActionListener, MouseListener, KeyListe
      * Carga las fuerzas eléctricas en la tabla.
      */
     public void loadForcesE() {
-        Map<Integer, ForceE> forces = forceActions.listForceE();
+        IntStoreSnapshot<ForceE> forces = forceActions.listForceE();
         model = (DefaultTableModel) administration.fuerzasTable.getModel();
         Object[] row = new Object[4];
-        for (ForceE force : forces.values()) {
+        for (ForceE force : forces) {
             row[0] = force.getId();
             row[1] = force.getCargaQ();
             row[2] = force.getCampoE();
@@ -136,7 +136,7 @@ public class ForceEController implements ActionListener, MouseListener, KeyListe
         if (validateInputs()) {
             double campoE = Double.parseDouble(administration.cmbCampoE.getSelectedItem().toString().trim());
             double cargaQ = Double.parseDouble(administration.txtCargaLeyCoulomb.getText().trim());
-            double resultado = campoE * cargaQ;
+            double resultado = ForceE.calcularFuerza(campoE, cargaQ);
             administration.txtResultadoLeyCoulomb.setText(String.valueOf(resultado));
 
             forceActions.addForceE(campoE, cargaQ, resultado);
@@ -153,7 +153,7 @@ public class ForceEController implements ActionListener, MouseListener, KeyListe
             int id = Integer.parseInt(administration.txtFuerzaID.getText().trim());
             double campoE = Double.parseDouble(administration.cmbCampoE.getSelectedItem().toString().trim());
             double cargaQ = Double.parseDouble(administration.txtCargaLeyCoulomb.getText().trim());
-            double resultado = campoE * cargaQ;
+            double resultado = ForceE.calcularFuerza(campoE, cargaQ);
             administration.txtResultadoLeyCoulomb.setText(String.valueOf(resultado));
 
             forceActions.modifyForceE(id, campoE, cargaQ, resultado);
@@ -246,7 +246,7 @@ public class ForceEController implements ActionListener, MouseListener, KeyListe
             try {
                 double campoE = Double.parseDouble(administration.cmbCampoE.getSelectedItem().toString().trim());
                 double cargaQ = Double.parseDouble(administration.txtCargaLeyCoulomb.getText().trim());
-                double result = campoE * cargaQ;
+                double result = ForceE.calcularFuerza(campoE, cargaQ);
                 administration.txtResultadoLeyCoulomb.setText(String.valueOf(result));
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(null, "Por favor, ingrese un valor numérico válido.");
@@ -1,5 +1,6 @@
 package Controllers;
 
+import Models.IntStoreSnapshot;
 import Models.PotencialE;
 import Models.PotencialEActions;
 import Views.Administration;
@@ -9,7 +10,6 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.util.Map;
 import javax.swing.JOptionPane;
 import javax.swing.table.DefaultTableModel;
 
@@ -80,11 +80,11 @@ public class PotencialEController implements ActionListener, MouseListener, KeyL
 
     // Carga todos los objetos PotencialE en la tabla
     public void loadPotencialesE() {
-        Map<Integer, PotencialE> potenciales = potencialEActions.listPotenciales();
+        IntStoreSnapshot<PotencialE> potenciales = potencialEActions.listPotenciales();
         model = (DefaultTableModel) administration.potencialETable.getModel();
         Object[] row;
 
-        for (PotencialE value : potenciales.values()) { // Mejora en la iteración
+        for (PotencialE value : potenciales) { // Mejora en la iteración
             row = new Object[]{
                 value.getId(),
                 value.getCampoE(),
@@ -233,7 +233,7 @@ public class PotencialEController implements ActionListener, MouseListener, KeyL
                     && administration.cmbCampoE3.getSelectedItem() != null) {
                 double distancia = Double.parseDouble(administration.txtPotencialEDistancia.getText().trim());
                 double campoE = Double.parseDouble(administration.cmbCampoE3.getSelectedItem().toString().trim());
-                double result = distancia * campoE;
+                double result = PotencialE.calcularPotencial(campoE, distancia);
                 administration.txtResultadoPotencialE.setText(String.valueOf(result));
             }
         }
@@ -57,9 +57,11 @@ public class RegisterController implements ActionListener {
             } else if (!employeeActions.userValidation(username)) {
                 // Check if username is unique
                 JOptionPane.showMessageDialog(null, "Username already in use.");
+            } else if (!employeeActions.addEmployee(username, password, name, address, email, role)) {
+                // Someone registered the same username or email between the checks and the insert
+                JOptionPane.showMessageDialog(null, "Username or email already in use.");
             } else {
-                // Add new employee to the database
-                employeeActions.addEmployee(username, password, name, address, email, role);
+                // New employee added to the database
                 cleanFields(); // Clear input fields
                 JOptionPane.showMessageDialog(null, "Employee registered successfully.");
                 openLogin(); // Open login view
@@ -1,12 +1,12 @@
 package Controllers;
 
+import Models.IntStoreSnapshot;
 import Models.Torque;
 import Models.TorqueActions;
 import Views.Administration;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.event.*;
-import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -110,9 +110,9 @@ public class TorqueController implements ActionListener, MouseListener, KeyListe
      * Carga todos los torques desde el modelo y los muestra en la tabla.
      */
     public void loadTorques() {
-        Map<Integer, Torque> torques = torqueActions.listTorques();
+        IntStoreSnapshot<Torque> torques = torqueActions.listTorques();
         model = (DefaultTableModel) administration.torqueTable.getModel();
-        torques.values().forEach(torque -> model.addRow(new Object[]{
+        torques.forEach(torque -> model.addRow(new Object[]{
             torque.getId(),
             torque.getCampoE(),
             torque.getCargaQ(),
@@ -387,9 +387,7 @@ public class TorqueController implements ActionListener, MouseListener, KeyListe
             double distancia = getDoubleFromComponent(administration.txtTorqueDistancia);
             double campoElectrico = getDoubleFromComponent(administration.cmbCampoE2);
 
-            double anguloEnRadianes = Math.toRadians(angulo);
-            double momentoDipolar = carga * distancia;
-            double torque = momentoDipolar * campoElectrico * Math.sin(anguloEnRadianes);
+            double torque = Torque.calcularTorque(campoElectrico, carga, distancia, angulo);
 
             administration.txtTorqueResultado.setText(String.valueOf(torque));
         }
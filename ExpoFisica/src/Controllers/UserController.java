@@ -1,5 +1,6 @@
 package Controllers;
 
+import Models.IntStoreSnapshot;
 import Models.Users;
 import Models.UsersActions;
 import Views.Administration;
@@ -9,7 +10,6 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.JOptionPane;
@@ -119,11 +119,10 @@ public class UserController implements ActionListener, MouseListener, KeyListene
     public void loadEmployees() {
         // Load employees from database and display in the table
         if (isUserAuthorized()) { // Check if user has the necessary role
-            Map<Integer, Users> employees = employeeActions.listEmployees(employeeActions.nameAdditionalValidation(administration.txtSearchEmployee.getText().trim()));
+            IntStoreSnapshot<Users> employees = employeeActions.listEmployees(employeeActions.nameAdditionalValidation(administration.txtSearchEmployee.getText().trim()));
             model = (DefaultTableModel) administration.employeesTable.getModel();
             Object[] row = new Object[7]; // Array to hold employee data for a row
-            for (Map.Entry<Integer, Users> entry : employees.entrySet()) {
-                Users value = entry.getValue();
+            for (Users value : employees) {
                 // Exclude Owner and current logged-in employee from the list
                 if (!value.getEmployeeRol().equals("Owner") && value.getEmployeeID() != employeeActions.getCurrentEmployee().getEmployeeID()) {
                     row[0] = value.getEmployeeID(); // Users ID
@@ -158,15 +157,17 @@ public class UserController implements ActionListener, MouseListener, KeyListene
             else if (!employeeActions.userValidation(administration.txtEmployeeUser.getText().trim())) {
                 JOptionPane.showMessageDialog(null, "Username already in use.");
             } // Proceed to add the employee if all validations pass
-            else {
-                employeeActions.addEmployee(administration.txtEmployeeUser.getText().trim(),
-                        administration.txtEmployeePassword.getText(),
-                        employeeActions.nameAdditionalValidation(administration.txtEmployeeName.getText().trim()),
-                        administration.txtEmployeeAddress.getText().trim(),
-                        administration.txtEmployeeEmail.getText().trim().toLowerCase(),
-                        administration.cmbEmployeeRol.getSelectedItem().toString());
+            else if (employeeActions.addEmployee(administration.txtEmployeeUser.getText().trim(),
+                    administration.txtEmployeePassword.getText(),
+                    employeeActions.nameAdditionalValidation(administration.txtEmployeeName.getText().trim()),
+                    administration.txtEmployeeAddress.getText().trim(),
+                    administration.txtEmployeeEmail.getText().trim().toLowerCase(),
+                    administration.cmbEmployeeRol.getSelectedItem().toString())) {
                 refreshEmployeeData(); // Refresh the employee data in the view
                 JOptionPane.showMessageDialog(null, "Employee registered successfully."); // Success message
+            } // Username or email taken between the checks and the insert
+            else {
+                JOptionPane.showMessageDialog(null, "Username or email already in use.");
             }
         } catch (Exception ex) {
             handleException(ex, "An error occurred during the process."); // Handle exceptions
@@ -1,6 +1,11 @@
 package Main;
 
+import Models.Persistence;
 import Views.Login;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.UnsupportedLookAndFeelException;
@@ -8,6 +13,8 @@ import javax.swing.UnsupportedLookAndFeelException;
 public class Main {
 
     public static void main(String[] args) {
+        // Restore the stored data before any view reads it
+        openPersistence();
         // Create and display the login window
         java.awt.EventQueue.invokeLater(() -> {
             try {
@@ -18,4 +25,24 @@ public class Main {
             }
         });
     }
+
+    private static void openPersistence() {
+        // Data directory and group-commit settings can be overridden with system properties
+        Path dataDirectory = Paths.get(System.getProperty("expofisica.data.dir",
+                Paths.get(System.getProperty("user.home"), ".expofisica").toString()));
+        int groupCommitSize = Integer.getInteger("expofisica.wal.groupCommitSize", 32);
+        long groupCommitMillis = Long.getLong("expofisica.wal.groupCommitMillis", 50L);
+        long snapshotMinutes = Long.getLong("expofisica.snapshot.minutes", 10L);
+        try {
+            Persistence persistence = Persistence.getInstance();
+            persistence.open(dataDirectory, groupCommitSize, groupCommitMillis);
+            if (snapshotMinutes > 0) {
+                persistence.scheduleSnapshots(snapshotMinutes, TimeUnit.MINUTES);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(persistence::shutdown, "persistence-shutdown"));
+        } catch (IOException ex) {
+            // Keep working in memory if the data directory is not usable
+            Logger.getLogger(Main.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
 }
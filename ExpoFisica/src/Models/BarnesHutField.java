@@ -0,0 +1,621 @@
+package Models;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Aproximación de Barnes-Hut del campo eléctrico neto de muchas cargas
+ * puntuales. Las cargas se organizan en un árbol de cuadrantes; cada nodo
+ * guarda su carga total, la suma de |q| y sus momentos dipolar y cuadrupolar
+ * respecto al centro del nodo. Al evaluar un punto, un nodo cuyo radio a
+ * (media diagonal) cumple a &lt; θ·d, con d la distancia del punto al centro,
+ * se sustituye por su desarrollo hasta el cuadrupolo; los demás se abren.
+ * θ = 0 equivale a la suma directa y valores mayores son más rápidos y menos
+ * precisos.
+ *
+ * Junto al campo se informa una cota del error de truncamiento (Salmon y
+ * Warren): por cada nodo aproximado, k·Σ|q|/(d − a)² · (4 − 3a/d) · (a/d)³.
+ *
+ * Como los momentos se toman respecto al centro fijo de cada nodo, añadir o
+ * quitar una carga solo actualiza los nodos de su camino, sin reconstruir el
+ * árbol. {@link #follow} lo mantiene sincronizado con {@link FieldEActions}.
+ * Las evaluaciones comparten un cerrojo de lectura y las actualizaciones lo
+ * toman en exclusiva.
+ */
+public final class BarnesHutField implements StoreListener<FieldE> {
+
+    private static final int LEAF_CAPACITY = 8;
+    private static final int LEAF_POINTS = 256; // Puntos por tarea hoja en los lotes
+    private static final double SQRT2 = Math.sqrt(2);
+
+    private final StampedLock lock = new StampedLock();
+    private final ForkJoinPool pool;
+    private volatile double theta;
+    private Node root;
+    private int size;
+
+    /**
+     * Crea un árbol vacío que evalúa los lotes en el pool común.
+     *
+     * @param theta Ángulo de apertura, en [0, 1).
+     */
+    public BarnesHutField(double theta) {
+        this(theta, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea un árbol vacío que evalúa los lotes en el pool indicado.
+     *
+     * @param theta Ángulo de apertura, en [0, 1).
+     * @param pool Pool de fork/join para los lotes.
+     */
+    public BarnesHutField(double theta, ForkJoinPool pool) {
+        setTheta(theta);
+        this.pool = pool;
+    }
+
+    /**
+     * Construye un árbol con un conjunto fijo de cargas.
+     *
+     * @param charges Cargas a insertar.
+     * @param theta Ángulo de apertura, en [0, 1).
+     * @return Árbol con las cargas.
+     */
+    public static BarnesHutField of(PointCharges charges, double theta) {
+        BarnesHutField field = new BarnesHutField(theta);
+        for (int i = 0; i < charges.size(); i++) {
+            field.insert(charges.idAt(i), charges.x(i), charges.y(i), charges.q(i));
+        }
+        return field;
+    }
+
+    /**
+     * Construye un árbol con los campos almacenados y lo registra como
+     * observador del almacén, de modo que las altas, bajas y modificaciones
+     * posteriores se aplican de forma incremental.
+     *
+     * @param actions Almacén de campos eléctricos.
+     * @param theta Ángulo de apertura, en [0, 1).
+     * @return Árbol sincronizado con el almacén.
+     */
+    public static BarnesHutField follow(FieldEActions actions, double theta) {
+        BarnesHutField field = new BarnesHutField(theta);
+        actions.addListener(field);
+        return field;
+    }
+
+    /**
+     * @return Ángulo de apertura actual.
+     */
+    public double getTheta() {
+        return theta;
+    }
+
+    /**
+     * Cambia el ángulo de apertura; afecta a las evaluaciones siguientes.
+     *
+     * @param theta Ángulo de apertura, en [0, 1).
+     */
+    public void setTheta(double theta) {
+        if (!(theta >= 0 && theta < 1)) {
+            throw new IllegalArgumentException("El ángulo de apertura debe estar en [0, 1): " + theta);
+        }
+        this.theta = theta;
+    }
+
+    /**
+     * @return Número de cargas en el árbol.
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Inserta una carga. Las posiciones no finitas se ignoran.
+     *
+     * @param id ID de la carga (para poder quitarla después).
+     * @param x Coordenada x en metros.
+     * @param y Coordenada y en metros.
+     * @param q Carga en Coulombs.
+     */
+    public void insert(int id, double x, double y, double q) {
+        long stamp = lock.writeLock();
+        try {
+            insertLocked(id, x, y, q);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Quita una carga insertada antes en la misma posición.
+     *
+     * @param id ID de la carga.
+     * @param x Coordenada x con la que se insertó.
+     * @param y Coordenada y con la que se insertó.
+     * @return true si la carga estaba en el árbol.
+     */
+    public boolean remove(int id, double x, double y) {
+        long stamp = lock.writeLock();
+        try {
+            return removeLocked(id, x, y);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Vacía el árbol.
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            root = null;
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void added(FieldE fieldE) {
+        insert(fieldE.getId(), PointCharges.positionX(fieldE.getDistanciaR(), fieldE.getAnguloA()),
+                PointCharges.positionY(fieldE.getDistanciaR(), fieldE.getAnguloA()), fieldE.getCargaQ());
+    }
+
+    @Override
+    public void removed(FieldE fieldE) {
+        remove(fieldE.getId(), PointCharges.positionX(fieldE.getDistanciaR(), fieldE.getAnguloA()),
+                PointCharges.positionY(fieldE.getDistanciaR(), fieldE.getAnguloA()));
+    }
+
+    // Las dos mitades bajo un solo cerrojo: ninguna evaluación ve la carga a medio mover
+    @Override
+    public void modified(FieldE previous, FieldE current) {
+        long stamp = lock.writeLock();
+        try {
+            removeLocked(previous.getId(), PointCharges.positionX(previous.getDistanciaR(), previous.getAnguloA()),
+                    PointCharges.positionY(previous.getDistanciaR(), previous.getAnguloA()));
+            insertLocked(current.getId(), PointCharges.positionX(current.getDistanciaR(), current.getAnguloA()),
+                    PointCharges.positionY(current.getDistanciaR(), current.getAnguloA()), current.getCargaQ());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void cleared() {
+        clear();
+    }
+
+    /**
+     * Evalúa el campo aproximado en un punto.
+     *
+     * @param x Coordenada x en metros.
+     * @param y Coordenada y en metros.
+     * @return {Ex, Ey, cota del error de |E|}, en N/C.
+     */
+    public double[] fieldAt(double x, double y) {
+        double[] result = new double[3];
+        long stamp = lock.readLock();
+        try {
+            evaluatePoint(x, y, theta, result);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return result;
+    }
+
+    /**
+     * Evalúa el campo aproximado en un lote de puntos, en paralelo.
+     *
+     * @param x Coordenadas x de los puntos.
+     * @param y Coordenadas y de los puntos.
+     * @param ex Destino de las componentes x.
+     * @param ey Destino de las componentes y.
+     * @param errorBound Destino de la cota de error de cada punto, o null si
+     * no interesa.
+     */
+    public void evaluate(double[] x, double[] y, double[] ex, double[] ey, double[] errorBound) {
+        int points = x.length;
+        if (y.length != points || ex.length != points || ey.length != points
+                || (errorBound != null && errorBound.length != points)) {
+            throw new IllegalArgumentException("Los arreglos de puntos tienen longitudes distintas");
+        }
+        long stamp = lock.readLock();
+        try {
+            Batch batch = new Batch(x, y, ex, ey, errorBound, theta, 0, points);
+            if (points <= LEAF_POINTS) {
+                batch.compute();
+            } else {
+                pool.invoke(batch);
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Recorre el árbol para un punto; requiere el cerrojo de lectura
+    private void evaluatePoint(double px, double py, double openingAngle, double[] result) {
+        double sumX = 0;
+        double sumY = 0;
+        double error = 0;
+        if (root != null) {
+            Node[] stack = new Node[64];
+            int top = 0;
+            stack[top++] = root;
+            while (top > 0) {
+                Node node = stack[--top];
+                if (node.count == 0) {
+                    continue;
+                }
+                if (node.children == null) {
+                    for (int i = 0; i < node.count; i++) {
+                        double dx = px - node.xs[i];
+                        double dy = py - node.ys[i];
+                        double r2 = dx * dx + dy * dy;
+                        if (r2 > 0) { // Una carga no actúa sobre su propia posición
+                            double s = node.qs[i] / (r2 * Math.sqrt(r2));
+                            sumX += s * dx;
+                            sumY += s * dy;
+                        }
+                    }
+                    continue;
+                }
+                double dx = px - node.cx;
+                double dy = py - node.cy;
+                double d2 = dx * dx + dy * dy;
+                double d = Math.sqrt(d2);
+                double a = node.half * SQRT2;
+                if (a < openingAngle * d) {
+                    double inv3 = 1 / (d2 * d);
+                    double inv5 = inv3 / d2;
+                    // Monopolo: Q·D/d³; dipolo: (3(p·D)D/d² − p)/d³
+                    double dipoleDot = (node.dipoleX * dx + node.dipoleY * dy) / d2;
+                    double fieldX = (node.charge * dx + 3 * dipoleDot * dx - node.dipoleX) * inv3;
+                    double fieldY = (node.charge * dy + 3 * dipoleDot * dy - node.dipoleY) * inv3;
+                    // Cuadrupolo sin traza M: (5/2)(DᵀMD)D/d⁷ − MD/d⁵
+                    double mxx = 2 * node.secondXX - node.secondYY;
+                    double myy = 2 * node.secondYY - node.secondXX;
+                    double mxy = 3 * node.secondXY;
+                    double mdx = mxx * dx + mxy * dy;
+                    double mdy = mxy * dx + myy * dy;
+                    double dmd = 2.5 * (dx * mdx + dy * mdy) / d2;
+                    sumX += fieldX + (dmd * dx - mdx) * inv5;
+                    sumY += fieldY + (dmd * dy - mdy) * inv5;
+                    double ratio = a / d;
+                    double gap = d - a;
+                    error += node.absCharge / (gap * gap) * (4 - 3 * ratio) * ratio * ratio * ratio;
+                } else {
+                    if (top + 4 > stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    for (Node child : node.children) {
+                        stack[top++] = child;
+                    }
+                }
+            }
+        }
+        result[0] = FieldE.K * sumX;
+        result[1] = FieldE.K * sumY;
+        result[2] = FieldE.K * error;
+    }
+
+    // Requiere el cerrojo de escritura
+    private void insertLocked(int id, double x, double y, double q) {
+        if (!Double.isFinite(x) || !Double.isFinite(y)) {
+            return;
+        }
+        if (root == null) {
+            root = Node.leaf(x, y, 1);
+        }
+        while (!root.contains(x, y)) {
+            grow(x, y);
+        }
+        Node node = root;
+        while (true) {
+            node.add(x, y, q);
+            if (node.children != null) {
+                node = node.childFor(x, y);
+            } else if (node.count <= LEAF_CAPACITY || !node.canSplit()) {
+                node.append(id, x, y, q);
+                break;
+            } else {
+                node.split();
+                node = node.childFor(x, y);
+            }
+        }
+        size++;
+    }
+
+    // Requiere el cerrojo de escritura
+    private boolean removeLocked(int id, double x, double y) {
+        if (root == null || !root.contains(x, y)) {
+            return false;
+        }
+        Node leaf = root;
+        while (leaf.children != null) {
+            leaf = leaf.childFor(x, y);
+        }
+        int slot = leaf.slotOf(id);
+        if (slot < 0) {
+            return false;
+        }
+        double q = leaf.qs[slot];
+        // Resta la carga en el camino y colapsa el nodo más alto que ya cabe en una hoja
+        Node collapse = null;
+        for (Node node = root; ; node = node.childFor(x, y)) {
+            node.subtract(x, y, q);
+            if (collapse == null && node.children != null && node.count <= LEAF_CAPACITY) {
+                collapse = node;
+            }
+            if (node == leaf) {
+                break;
+            }
+        }
+        leaf.removeAt(slot);
+        if (collapse != null) {
+            collapse.collapse();
+        }
+        if (--size == 0) {
+            root = null;
+        }
+        return true;
+    }
+
+    // Duplica la raíz hacia el punto; la raíz anterior pasa a ser uno de sus cuadrantes
+    private void grow(double x, double y) {
+        Node old = root;
+        double half = old.half * 2;
+        double cx = old.cx + (x < old.cx ? -old.half : old.half);
+        double cy = old.cy + (y < old.cy ? -old.half : old.half);
+        Node grown = new Node(cx, cy, half);
+        grown.children = new Node[4];
+        for (int quadrant = 0; quadrant < 4; quadrant++) {
+            grown.children[quadrant] = Node.leaf(grown.childX(quadrant), grown.childY(quadrant), old.half);
+        }
+        grown.children[grown.quadrantOf(old.cx, old.cy)] = old;
+        grown.count = old.count;
+        grown.charge = old.charge;
+        grown.absCharge = old.absCharge;
+        // Traslada los momentos del centro anterior al nuevo: s' = s + t
+        double tx = old.cx - cx;
+        double ty = old.cy - cy;
+        grown.dipoleX = old.dipoleX + old.charge * tx;
+        grown.dipoleY = old.dipoleY + old.charge * ty;
+        grown.secondXX = old.secondXX + 2 * tx * old.dipoleX + old.charge * tx * tx;
+        grown.secondYY = old.secondYY + 2 * ty * old.dipoleY + old.charge * ty * ty;
+        grown.secondXY = old.secondXY + tx * old.dipoleY + ty * old.dipoleX + old.charge * tx * ty;
+        root = grown;
+    }
+
+    /**
+     * Nodo del árbol: cuadrado de centro (cx, cy) y media arista half. Las
+     * hojas guardan sus cargas en arreglos; los nodos internos, cuatro hijos.
+     * Los momentos son sumas sobre las cargas con s = posición − centro:
+     * dipolo Σq·s y segundos momentos Σq·sx², Σq·sy², Σq·sx·sy.
+     */
+    private static final class Node {
+
+        final double cx;
+        final double cy;
+        final double half;
+        int count;
+        double charge;
+        double absCharge;
+        double dipoleX;
+        double dipoleY;
+        double secondXX;
+        double secondYY;
+        double secondXY;
+        Node[] children;
+        int[] ids;
+        double[] xs;
+        double[] ys;
+        double[] qs;
+
+        Node(double cx, double cy, double half) {
+            this.cx = cx;
+            this.cy = cy;
+            this.half = half;
+        }
+
+        static Node leaf(double cx, double cy, double half) {
+            Node node = new Node(cx, cy, half);
+            node.allocate(LEAF_CAPACITY);
+            return node;
+        }
+
+        // Semiabierto, [c - half, c + half), igual que el reparto de quadrantOf
+        boolean contains(double x, double y) {
+            return x >= cx - half && x < cx + half && y >= cy - half && y < cy + half;
+        }
+
+        // Por debajo de unos pocos ulp los cuadrantes ya no separan puntos distintos
+        boolean canSplit() {
+            return half > 16 * Math.ulp(Math.abs(cx) + Math.abs(cy) + half);
+        }
+
+        int quadrantOf(double x, double y) {
+            return (x >= cx ? 1 : 0) | (y >= cy ? 2 : 0);
+        }
+
+        Node childFor(double x, double y) {
+            return children[quadrantOf(x, y)];
+        }
+
+        double childX(int quadrant) {
+            return cx + ((quadrant & 1) != 0 ? half : -half) / 2;
+        }
+
+        double childY(int quadrant) {
+            return cy + ((quadrant & 2) != 0 ? half : -half) / 2;
+        }
+
+        void add(double x, double y, double q) {
+            count++;
+            charge += q;
+            absCharge += Math.abs(q);
+            double sx = x - cx;
+            double sy = y - cy;
+            dipoleX += q * sx;
+            dipoleY += q * sy;
+            secondXX += q * sx * sx;
+            secondYY += q * sy * sy;
+            secondXY += q * sx * sy;
+        }
+
+        void subtract(double x, double y, double q) {
+            if (--count == 0) {
+                reset(); // Sin residuos de redondeo
+            } else {
+                charge -= q;
+                absCharge -= Math.abs(q);
+                double sx = x - cx;
+                double sy = y - cy;
+                dipoleX -= q * sx;
+                dipoleY -= q * sy;
+                secondXX -= q * sx * sx;
+                secondYY -= q * sy * sy;
+                secondXY -= q * sx * sy;
+            }
+        }
+
+        void reset() {
+            count = 0;
+            charge = absCharge = dipoleX = dipoleY = 0;
+            secondXX = secondYY = secondXY = 0;
+        }
+
+        void allocate(int capacity) {
+            ids = new int[capacity];
+            xs = new double[capacity];
+            ys = new double[capacity];
+            qs = new double[capacity];
+        }
+
+        // Añade a la hoja una carga ya contada en count
+        void append(int id, double x, double y, double q) {
+            int slot = count - 1;
+            if (slot == ids.length) {
+                int capacity = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+                qs = Arrays.copyOf(qs, capacity);
+            }
+            ids[slot] = id;
+            xs[slot] = x;
+            ys[slot] = y;
+            qs[slot] = q;
+        }
+
+        int slotOf(int id) {
+            for (int i = 0; i < count; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // Quita una entrada de la hoja cuyo count ya se decrementó
+        void removeAt(int slot) {
+            int last = count;
+            ids[slot] = ids[last];
+            xs[slot] = xs[last];
+            ys[slot] = ys[last];
+            qs[slot] = qs[last];
+        }
+
+        // Reparte las cargas de la hoja (count - 1, sin la que se está insertando) entre cuatro hijos
+        void split() {
+            children = new Node[4];
+            for (int quadrant = 0; quadrant < 4; quadrant++) {
+                children[quadrant] = Node.leaf(childX(quadrant), childY(quadrant), half / 2);
+            }
+            for (int i = 0; i < count - 1; i++) {
+                Node child = childFor(xs[i], ys[i]);
+                child.add(xs[i], ys[i], qs[i]);
+                child.append(ids[i], xs[i], ys[i], qs[i]);
+            }
+            ids = null;
+            xs = ys = qs = null;
+        }
+
+        // Convierte un nodo interno en hoja con todas sus cargas y recalcula los momentos sin deriva
+        void collapse() {
+            Node[] subtree = children;
+            children = null;
+            allocate(Math.max(LEAF_CAPACITY, count));
+            reset();
+            for (Node child : subtree) {
+                gather(child);
+            }
+        }
+
+        private void gather(Node node) {
+            if (node.children != null) {
+                for (Node child : node.children) {
+                    gather(child);
+                }
+                return;
+            }
+            for (int i = 0; i < node.count; i++) {
+                add(node.xs[i], node.ys[i], node.qs[i]);
+                append(node.ids[i], node.xs[i], node.ys[i], node.qs[i]);
+            }
+        }
+    }
+
+    // Divide el rango de puntos a la mitad hasta LEAF_POINTS puntos por tarea
+    private final class Batch extends RecursiveAction {
+
+        private final double[] x;
+        private final double[] y;
+        private final double[] ex;
+        private final double[] ey;
+        private final double[] errorBound;
+        private final double openingAngle;
+        private final int from;
+        private final int to;
+
+        Batch(double[] x, double[] y, double[] ex, double[] ey, double[] errorBound,
+                double openingAngle, int from, int to) {
+            this.x = x;
+            this.y = y;
+            this.ex = ex;
+            this.ey = ey;
+            this.errorBound = errorBound;
+            this.openingAngle = openingAngle;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_POINTS) {
+                double[] result = new double[3];
+                for (int p = from; p < to; p++) {
+                    evaluatePoint(x[p], y[p], openingAngle, result);
+                    ex[p] = result[0];
+                    ey[p] = result[1];
+                    if (errorBound != null) {
+                        errorBound[p] = result[2];
+                    }
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Batch(x, y, ex, ey, errorBound, openingAngle, from, middle),
+                        new Batch(x, y, ex, ey, errorBound, openingAngle, middle, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package Models;
+
+/**
+ * Índice de direccionamiento abierto (sondeo lineal) de ID entero a posición
+ * densa, como {@link DenseIntIndex}, pero con las ranuras repartidas en
+ * trozos de {@value #CHUNK} que se copian por separado. Cada ranura guarda
+ * posición + 1 (0 = libre) y la clave se lee de los trozos de IDs del
+ * almacén propietario, que se pasan en cada llamada.
+ *
+ * {@link #share()} entrega en O(1) una vista de solo lectura que comparte las
+ * ranuras; a partir de ahí la primera escritura copia solo el directorio de
+ * trozos y cada escritura copia únicamente el trozo que toca, en lugar de todo
+ * el índice.
+ */
+final class ChunkedIntIndex {
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK - 1;
+
+    private int[][] slots;
+    private boolean[] owned; // Trozos que se pueden escribir sin copiarlos
+    private boolean shared;  // El directorio lo comparte una vista publicada
+    private final int mask;
+    private final int shift;
+    private final int capacity;
+
+    /**
+     * Crea un índice vacío para la capacidad densa indicada, con factor de
+     * carga <= 0.5.
+     *
+     * @param capacity Número máximo de posiciones densas.
+     */
+    ChunkedIntIndex(int capacity) {
+        this.capacity = capacity;
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(1, capacity) * 2 - 1);
+        int length = 1 << bits;
+        mask = length - 1;
+        shift = 32 - bits;
+        int chunks = (length + CHUNK - 1) >>> CHUNK_BITS;
+        slots = new int[chunks][];
+        owned = new boolean[chunks];
+        for (int c = 0; c < chunks; c++) {
+            slots[c] = new int[Math.min(length, CHUNK)];
+            owned[c] = true;
+        }
+    }
+
+    // Vista que comparte las ranuras de otro índice; nunca se escribe
+    private ChunkedIntIndex(ChunkedIntIndex other) {
+        slots = other.slots;
+        owned = new boolean[0];
+        shared = true;
+        mask = other.mask;
+        shift = other.shift;
+        capacity = other.capacity;
+    }
+
+    /**
+     * Publica el estado actual como vista de solo lectura sin copiarlo.
+     *
+     * @return Vista que no cambia aunque este índice se modifique después.
+     */
+    ChunkedIntIndex share() {
+        shared = true;
+        return new ChunkedIntIndex(this);
+    }
+
+    /**
+     * @return Número de posiciones densas para el que se dimensionó.
+     */
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Busca la ranura que contiene un ID.
+     *
+     * @param ids Trozos de IDs por posición del almacén.
+     * @param id ID buscado.
+     * @return La ranura, o -1 si el ID no está indexado.
+     */
+    int slotOf(int[][] ids, int id) {
+        for (int slot = hash(id); ; slot = (slot + 1) & mask) {
+            int entry = entry(slot);
+            if (entry == 0) {
+                return -1;
+            }
+            if (idAt(ids, entry - 1) == id) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Busca la posición densa de un ID.
+     *
+     * @param ids Trozos de IDs por posición del almacén.
+     * @param id ID buscado.
+     * @return La posición, o -1 si el ID no está indexado.
+     */
+    int positionOf(int[][] ids, int id) {
+        int slot = slotOf(ids, id);
+        return slot < 0 ? -1 : entry(slot) - 1;
+    }
+
+    /**
+     * @param slot Ranura obtenida con {@link #slotOf}.
+     * @return Posición densa guardada en la ranura.
+     */
+    int positionAt(int slot) {
+        return entry(slot) - 1;
+    }
+
+    /**
+     * Indexa un ID que aún no está presente.
+     *
+     * @param id ID a indexar.
+     * @param position Posición densa del ID.
+     */
+    void insert(int id, int position) {
+        int slot = hash(id);
+        while (entry(slot) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        set(slot, position + 1);
+    }
+
+    /**
+     * Libera una ranura con desplazamiento hacia atrás, de modo que el índice
+     * nunca acumula lápidas.
+     *
+     * @param ids Trozos de IDs por posición del almacén.
+     * @param slot Ranura a liberar.
+     */
+    void delete(int[][] ids, int slot) {
+        int hole = slot;
+        for (int next = (hole + 1) & mask; entry(next) != 0; next = (next + 1) & mask) {
+            int home = hash(idAt(ids, entry(next) - 1));
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                set(hole, entry(next));
+                hole = next;
+            }
+        }
+        set(hole, 0);
+    }
+
+    /**
+     * @param ids Trozos de IDs por posición.
+     * @param position Posición densa.
+     * @return ID guardado en la posición.
+     */
+    static int idAt(int[][] ids, int position) {
+        return ids[position >>> IntEntityStore.CHUNK_BITS][position & IntEntityStore.CHUNK_MASK];
+    }
+
+    private int entry(int slot) {
+        return slots[slot >>> CHUNK_BITS][slot & CHUNK_MASK];
+    }
+
+    // Escribe una ranura copiando antes el directorio o el trozo si están compartidos
+    private void set(int slot, int value) {
+        if (shared) {
+            slots = slots.clone();
+            owned = new boolean[slots.length];
+            shared = false;
+        }
+        int chunk = slot >>> CHUNK_BITS;
+        if (!owned[chunk]) {
+            slots[chunk] = slots[chunk].clone();
+            owned[chunk] = true;
+        }
+        slots[chunk][slot & CHUNK_MASK] = value;
+    }
+
+    // Hash de Fibonacci: dispersa IDs consecutivos por todo el índice
+    private int hash(int id) {
+        return (id * 0x9E3779B9) >>> shift;
+    }
+}
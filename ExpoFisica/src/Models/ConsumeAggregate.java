@@ -0,0 +1,177 @@
+package Models;
+
+/**
+ * Totales de un grupo de consumos eléctricos (un usuario, un aparato o todos):
+ * número de consumos, energía total en kWh, coste total y coste mínimo y
+ * máximo. {@link ElectricConsumeActions} los mantiene al día en O(1) con cada
+ * alta, modificación y baja.
+ *
+ * Las sumas son compensadas (Neumaier): como las bajas restan lo que sumaron
+ * las altas, el término de corrección evita que el redondeo se acumule a lo
+ * largo de la sesión. El mínimo y el máximo se actualizan en O(1) con cada
+ * alta; eliminar el consumo que marcaba uno de ellos solo los marca como
+ * obsoletos, y se recalculan recorriendo el grupo la próxima vez que se
+ * consultan (véase {@link #copy}).
+ */
+public final class ConsumeAggregate {
+
+    private long count;
+    private double energy;
+    private double energyCompensation;
+    private double cost;
+    private double costCompensation;
+    private double minCost = Double.POSITIVE_INFINITY;
+    private double maxCost = Double.NEGATIVE_INFINITY;
+    // true si se eliminó el consumo que marcaba el mínimo o el máximo
+    private boolean extremesStale;
+
+    ConsumeAggregate() {
+    }
+
+    private ConsumeAggregate(ConsumeAggregate other) {
+        count = other.count;
+        energy = other.energy;
+        energyCompensation = other.energyCompensation;
+        cost = other.cost;
+        costCompensation = other.costCompensation;
+        minCost = other.minCost;
+        maxCost = other.maxCost;
+    }
+
+    /**
+     * Copia independiente de los totales, para entregarla fuera del cerrojo
+     * del almacén. Si el mínimo o el máximo están obsoletos los recalcula
+     * antes recorriendo los consumos del grupo. Varios lectores pueden llamarlo
+     * a la vez con el cerrojo compartido, de ahí el synchronized.
+     *
+     * @param consumes Consumos del grupo.
+     * @return Copia de los totales.
+     */
+    synchronized ConsumeAggregate copy(Iterable<ElectricConsume> consumes) {
+        if (extremesStale) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (ElectricConsume electricConsume : consumes) {
+                double consumeCost = costOf(electricConsume);
+                min = Math.min(min, consumeCost);
+                max = Math.max(max, consumeCost);
+            }
+            minCost = min;
+            maxCost = max;
+            extremesStale = false;
+        }
+        return new ConsumeAggregate(this);
+    }
+
+    /**
+     * Energía de un consumo en kWh: potencia (W) · tiempo (h) / 1000.
+     *
+     * @param electricConsume Consumo.
+     * @return Energía en kWh (0 si faltan datos).
+     */
+    static double energyOf(ElectricConsume electricConsume) {
+        Double power = electricConsume.getElectricPower();
+        Double time = electricConsume.getDeviceTime();
+        return power == null || time == null ? 0 : power * time / 1000;
+    }
+
+    /**
+     * @param electricConsume Consumo.
+     * @return Coste del consumo (0 si no tiene resultado).
+     */
+    static double costOf(ElectricConsume electricConsume) {
+        Double result = electricConsume.getResult();
+        return result == null ? 0 : result;
+    }
+
+    /**
+     * Suma un consumo al grupo.
+     *
+     * @param electricConsume Consumo añadido.
+     */
+    void add(ElectricConsume electricConsume) {
+        double consumeCost = costOf(electricConsume);
+        count++;
+        addEnergy(energyOf(electricConsume));
+        addCost(consumeCost);
+        minCost = Math.min(minCost, consumeCost);
+        maxCost = Math.max(maxCost, consumeCost);
+    }
+
+    /**
+     * Resta un consumo del grupo.
+     *
+     * @param electricConsume Consumo eliminado.
+     */
+    void remove(ElectricConsume electricConsume) {
+        double consumeCost = costOf(electricConsume);
+        count--;
+        if (count == 0) {
+            energy = energyCompensation = cost = costCompensation = 0; // Sin restos de redondeo
+            minCost = Double.POSITIVE_INFINITY;
+            maxCost = Double.NEGATIVE_INFINITY;
+            extremesStale = false;
+            return;
+        }
+        addEnergy(-energyOf(electricConsume));
+        addCost(-consumeCost);
+        if (consumeCost <= minCost || consumeCost >= maxCost) {
+            extremesStale = true; // Otro consumo puede tener el mismo coste; se decide al recalcular
+        }
+    }
+
+    /**
+     * @return Número de consumos del grupo.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return Energía total en kWh.
+     */
+    public double getEnergy() {
+        return energy + energyCompensation;
+    }
+
+    /**
+     * @return Coste total en moneda local.
+     */
+    public double getCost() {
+        return cost + costCompensation;
+    }
+
+    /**
+     * @return Coste medio por consumo, o NaN si el grupo está vacío.
+     */
+    public double getAverageCost() {
+        return count == 0 ? Double.NaN : getCost() / count;
+    }
+
+    /**
+     * @return Coste del consumo más barato, o NaN si el grupo está vacío.
+     */
+    public double getMinCost() {
+        return count == 0 ? Double.NaN : minCost;
+    }
+
+    /**
+     * @return Coste del consumo más caro, o NaN si el grupo está vacío.
+     */
+    public double getMaxCost() {
+        return count == 0 ? Double.NaN : maxCost;
+    }
+
+    // Suma compensada de Neumaier
+    private void addEnergy(double value) {
+        double total = energy + value;
+        energyCompensation += Math.abs(energy) >= Math.abs(value) ? (energy - total) + value : (value - total) + energy;
+        energy = total;
+    }
+
+    private void addCost(double value) {
+        double total = cost + value;
+        costCompensation += Math.abs(cost) >= Math.abs(value) ? (cost - total) + value : (value - total) + cost;
+        cost = total;
+    }
+}
@@ -0,0 +1,467 @@
+package Models;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+/**
+ * Importador masivo de consumos eléctricos desde CSV. Cada fila tiene las
+ * columnas {@code aparato,potencia,tiempo,tarifa[,usuario]}. Todos los
+ * consumos se guardan a nombre del usuario indicado al crear el importador
+ * (el de la sesión); la columna de usuario es opcional y, si aparece, debe
+ * nombrar a ese mismo usuario, de modo que un archivo no puede registrar
+ * consumos a nombre de otros. Se admiten una fila de
+ * encabezado, campos de texto entre comillas dobles (sin saltos de línea
+ * dentro) y comentarios que empiezan por {@code #}.
+ *
+ * El archivo se lee por bloques con un {@link FileChannel} y los campos se
+ * analizan directamente sobre los bytes: los números se validan con la misma
+ * gramática que {@link ElectricConsumeActions#isDoubleString} sin crear
+ * cadenas, y los nombres de aparato y usuario se comparten a través de una
+ * tabla, así que una fila válida solo crea el consumo. Las filas se insertan
+ * en lotes de {@value #BATCH} con
+ * {@link ElectricConsumeActions#importElectricConsumes}, cada lote bajo un
+ * único cerrojo.
+ *
+ * Las filas rechazadas se copian tal cual al archivo de rechazos, precedidas
+ * de un comentario con su número de línea y el motivo, de modo que el archivo
+ * se puede corregir y volver a importar.
+ */
+public final class ConsumeCsvImporter {
+
+    private static final int BATCH = 8192;
+    private static final int BUFFER = 1 << 20;
+    private static final int MAX_FIELDS = 5;
+    // Potencias de 10 exactas en double
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Recibe el avance de la importación tras cada lote insertado.
+     */
+    public interface Progress {
+
+        /**
+         * @param bytesRead Bytes del archivo leídos hasta ahora.
+         * @param totalBytes Tamaño del archivo.
+         * @param imported Filas importadas hasta ahora.
+         * @param rejected Filas rechazadas hasta ahora.
+         */
+        void update(long bytesRead, long totalBytes, long imported, long rejected);
+    }
+
+    /**
+     * Resultado de una importación.
+     */
+    public static final class Result {
+
+        private final long imported;
+        private final long rejected;
+        private final int firstId;
+
+        Result(long imported, long rejected, int firstId) {
+            this.imported = imported;
+            this.rejected = rejected;
+            this.firstId = firstId;
+        }
+
+        /**
+         * @return Filas importadas.
+         */
+        public long getImported() {
+            return imported;
+        }
+
+        /**
+         * @return Filas rechazadas.
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        /**
+         * @return ID del primer consumo importado, o -1 si no se importó
+         * ninguno. Los IDs de un lote son consecutivos, pero otros hilos
+         * pueden intercalar altas entre lotes.
+         */
+        public int getFirstId() {
+            return firstId;
+        }
+    }
+
+    private final ElectricConsumeActions target;
+    private final String user;
+
+    /**
+     * @param target Almacén que recibe los consumos.
+     * @param user Usuario a cuyo nombre se importan los consumos.
+     */
+    public ConsumeCsvImporter(ElectricConsumeActions target, String user) {
+        this.target = target;
+        this.user = user;
+    }
+
+    /**
+     * Importa un archivo CSV.
+     *
+     * @param csv Archivo a importar (UTF-8).
+     * @param rejectedRows Archivo donde se copian las filas rechazadas (se
+     * crea solo si hay alguna), o null para descartarlas.
+     * @param progress Receptor del avance, o null.
+     * @return Filas importadas y rechazadas.
+     * @throws IOException Si la lectura o la escritura de rechazos fallan.
+     */
+    public Result importFile(Path csv, Path rejectedRows, Progress progress) throws IOException {
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ);
+                Run run = new Run(channel.size(), rejectedRows, progress)) {
+            byte[] buffer = new byte[BUFFER];
+            int start = 0;
+            int end = 0;
+            long bytesRead = 0;
+            while (true) {
+                if (end == buffer.length) {
+                    if (start == 0) {
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2); // Línea más larga que el búfer
+                    } else {
+                        System.arraycopy(buffer, start, buffer, 0, end - start);
+                        end -= start;
+                        start = 0;
+                    }
+                }
+                int read = channel.read(ByteBuffer.wrap(buffer, end, buffer.length - end));
+                if (read < 0) {
+                    break;
+                }
+                int scan = end;
+                end += read;
+                bytesRead += read;
+                for (int i = scan; i < end; i++) {
+                    if (buffer[i] == '\n') {
+                        run.line(buffer, start, i);
+                        start = i + 1;
+                    }
+                }
+                run.bytesRead = bytesRead - (end - start);
+            }
+            if (start < end) {
+                run.line(buffer, start, end);
+            }
+            run.bytesRead = bytesRead;
+            run.flush();
+            return new Result(run.imported, run.rejected, run.firstId);
+        }
+    }
+
+    /**
+     * Estado de una importación en curso.
+     */
+    private final class Run implements AutoCloseable {
+
+        final long totalBytes;
+        final Path rejectedRows;
+        final Progress progress;
+        final TextPool appliances = new TextPool(name -> target.nameAdditionalValidation(name.trim()));
+        final TextPool users = new TextPool(UnaryOperator.identity());
+        final int[] fieldStart = new int[MAX_FIELDS];
+        final int[] fieldEnd = new int[MAX_FIELDS];
+        // Lote en curso
+        final String[] batchAppliances = new String[BATCH];
+        final double[] batchPower = new double[BATCH];
+        final double[] batchTime = new double[BATCH];
+        final double[] batchTariff = new double[BATCH];
+        final String[] batchUsers = new String[BATCH];
+        int batchSize;
+        OutputStream rejectedOut;
+        long lineNumber;
+        boolean dataSeen;
+        long bytesRead;
+        long imported;
+        long rejected;
+        int firstId = -1;
+
+        Run(long totalBytes, Path rejectedRows, Progress progress) {
+            this.totalBytes = totalBytes;
+            this.rejectedRows = rejectedRows;
+            this.progress = progress;
+        }
+
+        // Procesa la línea [from, to) sin el salto de línea
+        void line(byte[] bytes, int from, int to) throws IOException {
+            lineNumber++;
+            int end = to > from && bytes[to - 1] == '\r' ? to - 1 : to;
+            int first = from;
+            if (lineNumber == 1 && end - first >= 3 && bytes[first] == (byte) 0xEF
+                    && bytes[first + 1] == (byte) 0xBB && bytes[first + 2] == (byte) 0xBF) {
+                first += 3; // Marca de orden de bytes de UTF-8
+            }
+            first = skipSpaces(bytes, first, end);
+            if (first == end || bytes[first] == '#') {
+                return; // Línea vacía o comentario
+            }
+            int fields = split(bytes, first, end);
+            if (fields < 0) {
+                reject(bytes, from, to, "comillas sin cerrar");
+                return;
+            }
+            if (fields < 4 || fields > MAX_FIELDS) {
+                reject(bytes, from, to, fields > MAX_FIELDS ? "demasiadas columnas" : "faltan columnas");
+                return;
+            }
+            double power = parseNumber(bytes, fieldStart[1], fieldEnd[1]);
+            double time = parseNumber(bytes, fieldStart[2], fieldEnd[2]);
+            double tariff = parseNumber(bytes, fieldStart[3], fieldEnd[3]);
+            boolean header = !dataSeen && Double.isNaN(power) && Double.isNaN(time) && Double.isNaN(tariff);
+            dataSeen = true;
+            if (header) {
+                return; // Fila de encabezado
+            }
+            if (fieldStart[0] == fieldEnd[0]) {
+                reject(bytes, from, to, "aparato vacío");
+                return;
+            }
+            if (Double.isNaN(power) || Double.isNaN(time) || Double.isNaN(tariff)) {
+                reject(bytes, from, to, "la potencia, el tiempo y la tarifa deben ser números decimales");
+                return;
+            }
+            if (fields == 5 && fieldStart[4] != fieldEnd[4]
+                    && !user.equals(users.get(bytes, fieldStart[4], fieldEnd[4]))) {
+                reject(bytes, from, to, "el usuario no es el de la sesión");
+                return;
+            }
+            batchAppliances[batchSize] = appliances.get(bytes, fieldStart[0], fieldEnd[0]);
+            batchPower[batchSize] = power;
+            batchTime[batchSize] = time;
+            batchTariff[batchSize] = tariff;
+            batchUsers[batchSize] = user;
+            if (++batchSize == BATCH) {
+                flush();
+            }
+        }
+
+        // Inserta el lote en curso e informa del avance
+        void flush() {
+            if (batchSize > 0) {
+                int id = target.importElectricConsumes(batchAppliances, batchPower, batchTime, batchTariff, batchUsers, batchSize);
+                if (firstId < 0) {
+                    firstId = id;
+                }
+                imported += batchSize;
+                batchSize = 0;
+            }
+            if (progress != null) {
+                progress.update(bytesRead, totalBytes, imported, rejected);
+            }
+        }
+
+        // Divide la línea en campos sin espacios externos; devuelve el número de campos o -1
+        int split(byte[] bytes, int from, int to) {
+            int fields = 0;
+            int position = from;
+            while (true) {
+                position = skipSpaces(bytes, position, to);
+                int start = position;
+                int end;
+                if (position < to && bytes[position] == '"') {
+                    position++;
+                    while (true) {
+                        if (position >= to) {
+                            return -1;
+                        }
+                        if (bytes[position] == '"') {
+                            if (position + 1 < to && bytes[position + 1] == '"') {
+                                position += 2; // Comilla escapada
+                                continue;
+                            }
+                            break;
+                        }
+                        position++;
+                    }
+                    end = ++position;
+                    position = skipSpaces(bytes, position, to);
+                } else {
+                    while (position < to && bytes[position] != ',') {
+                        position++;
+                    }
+                    end = position;
+                    while (end > start && isSpace(bytes[end - 1])) {
+                        end--;
+                    }
+                }
+                if (fields < MAX_FIELDS) {
+                    fieldStart[fields] = start;
+                    fieldEnd[fields] = end;
+                }
+                fields++;
+                if (position >= to) {
+                    return fields;
+                }
+                if (bytes[position] != ',') {
+                    return -1; // Texto tras la comilla de cierre
+                }
+                position++;
+            }
+        }
+
+        void reject(byte[] bytes, int from, int to, String reason) throws IOException {
+            rejected++;
+            if (rejectedRows == null) {
+                return;
+            }
+            if (rejectedOut == null) {
+                rejectedOut = new BufferedOutputStream(Files.newOutputStream(rejectedRows), 1 << 16);
+            }
+            rejectedOut.write(("# línea " + lineNumber + ": " + reason + "\n").getBytes(StandardCharsets.UTF_8));
+            rejectedOut.write(bytes, from, to - from);
+            rejectedOut.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (rejectedOut != null) {
+                rejectedOut.close();
+            }
+        }
+    }
+
+    /**
+     * Valida y convierte un número con la gramática
+     * {@code [0-9]+(\.[0-9]+)?}, opcionalmente entre comillas, sin crear
+     * cadenas salvo cuando la conversión exacta necesita
+     * {@link Double#parseDouble}.
+     *
+     * @return El número, o NaN si el campo no lo es.
+     */
+    static double parseNumber(byte[] bytes, int from, int to) {
+        if (to - from >= 2 && bytes[from] == '"' && bytes[to - 1] == '"') {
+            from++;
+            to--;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        boolean exact = true;
+        for (int i = from; i < to; i++) {
+            int digit = bytes[i] - '0';
+            if (digit >= 0 && digit <= 9) {
+                if (mantissa > (1L << 53) / 10) {
+                    exact = false;
+                } else {
+                    mantissa = mantissa * 10 + digit;
+                }
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (bytes[i] == '.' && scale < 0 && digits > 0) {
+                scale = 0;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digits == 0 || scale == 0) {
+            return Double.NaN; // Vacío o sin dígitos tras el punto
+        }
+        if (scale < 0) {
+            scale = 0;
+        }
+        if (exact && mantissa <= 1L << 53 && scale < POWERS_OF_TEN.length) {
+            // Ambos operandos son exactos, así que la división ya está correctamente redondeada
+            return mantissa / POWERS_OF_TEN[scale];
+        }
+        return Double.parseDouble(new String(bytes, from, to - from, StandardCharsets.ISO_8859_1));
+    }
+
+    private static int skipSpaces(byte[] bytes, int from, int to) {
+        while (from < to && isSpace(bytes[from])) {
+            from++;
+        }
+        return from;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    /**
+     * Tabla de direccionamiento abierto que convierte los bytes de un campo
+     * de texto en su cadena ya normalizada, de modo que cada nombre distinto
+     * se decodifica una sola vez. Deja de crecer a partir de
+     * {@value #MAX_ENTRIES} nombres; los siguientes se decodifican siempre.
+     */
+    private static final class TextPool {
+
+        private static final int MAX_ENTRIES = 1 << 16;
+
+        private final UnaryOperator<String> normalize;
+        private byte[][] keys = new byte[256][];
+        private String[] values = new String[256];
+        private int size;
+
+        TextPool(UnaryOperator<String> normalize) {
+            this.normalize = normalize;
+        }
+
+        String get(byte[] bytes, int from, int to) {
+            int hash = 1;
+            for (int i = from; i < to; i++) {
+                hash = 31 * hash + bytes[i];
+            }
+            int mask = keys.length - 1;
+            int slot = (hash * 0x9E3779B9) >>> 8 & mask;
+            for (; keys[slot] != null; slot = (slot + 1) & mask) {
+                if (Arrays.equals(keys[slot], 0, keys[slot].length, bytes, from, to)) {
+                    return values[slot];
+                }
+            }
+            String value = normalize.apply(decode(bytes, from, to));
+            if (size < MAX_ENTRIES) {
+                keys[slot] = Arrays.copyOfRange(bytes, from, to);
+                values[slot] = value;
+                if (++size * 2 > keys.length) {
+                    grow();
+                }
+            }
+            return value;
+        }
+
+        private void grow() {
+            byte[][] oldKeys = keys;
+            String[] oldValues = values;
+            keys = new byte[oldKeys.length * 2][];
+            values = new String[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    int hash = 1;
+                    for (byte b : oldKeys[i]) {
+                        hash = 31 * hash + b;
+                    }
+                    int slot = (hash * 0x9E3779B9) >>> 8 & mask;
+                    while (keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        // Decodifica el campo quitando las comillas y sus escapes
+        private static String decode(byte[] bytes, int from, int to) {
+            if (to - from >= 2 && bytes[from] == '"') {
+                return new String(bytes, from + 1, to - from - 2, StandardCharsets.UTF_8).replace("\"\"", "\"");
+            }
+            return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package Models;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Ranking de los consumos eléctricos por coste, de todos y de cada usuario,
+ * que {@link ElectricConsumeActions} mantiene con cada alta, modificación y
+ * baja.
+ *
+ * Cada ranking es un montículo binario de máximos indexado: la ranura de cada
+ * ID en el montículo se guarda en un arreglo indexado por ID (los IDs de los
+ * consumos son densos), así que modificar o eliminar un consumo cuesta
+ * O(log n) sin buscarlo. Los k más caros se obtienen recorriendo el montículo
+ * de mayor a menor con una cola de candidatos, en O(k log k) y sin ordenar el
+ * almacén. A igual coste va primero el ID menor.
+ */
+final class ConsumeRanking {
+
+    private final Heap all = new Heap(true);
+    private final Map<String, Heap> byUser = new HashMap<>();
+    // Ranura de cada ID en el montículo global y en el de su usuario (-1 = ausente)
+    private int[] allSlots = new int[0];
+    private int[] userSlots = new int[0];
+
+    /**
+     * Coloca un consumo nuevo o modificado en los rankings.
+     *
+     * @param electricConsume Consumo guardado.
+     * @param previous Versión anterior del consumo, o null si es nuevo.
+     */
+    void update(ElectricConsume electricConsume, ElectricConsume previous) {
+        int id = electricConsume.getId();
+        double cost = ConsumeAggregate.costOf(electricConsume);
+        ensureId(id);
+        if (previous != null && !Objects.equals(previous.getUser(), electricConsume.getUser())) {
+            removeFromUser(previous.getUser(), id);
+        }
+        all.set(id, cost);
+        byUser.computeIfAbsent(electricConsume.getUser(), key -> new Heap(false)).set(id, cost);
+    }
+
+    /**
+     * Quita un consumo eliminado de los rankings.
+     *
+     * @param previous Consumo eliminado.
+     */
+    void remove(ElectricConsume previous) {
+        int id = previous.getId();
+        if (id < allSlots.length && allSlots[id] >= 0) {
+            all.remove(id);
+            removeFromUser(previous.getUser(), id);
+        }
+    }
+
+    /**
+     * Vacía los rankings.
+     */
+    void clear() {
+        all.clear();
+        byUser.clear();
+        allSlots = new int[0];
+        userSlots = new int[0];
+    }
+
+    /**
+     * @param k Número máximo de IDs (no negativo).
+     * @return IDs de los k consumos más caros, de mayor a menor coste.
+     * @throws IllegalArgumentException Si k es negativo.
+     */
+    int[] top(int k) {
+        checkK(k);
+        return all.top(k);
+    }
+
+    /**
+     * @param user Usuario.
+     * @param k Número máximo de IDs (no negativo).
+     * @return IDs de los k consumos más caros del usuario, de mayor a menor
+     * coste.
+     * @throws IllegalArgumentException Si k es negativo.
+     */
+    int[] top(String user, int k) {
+        checkK(k);
+        Heap heap = byUser.get(user);
+        return heap == null ? new int[0] : heap.top(k);
+    }
+
+    private static void checkK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("El número de consumos no puede ser negativo: " + k);
+        }
+    }
+
+    private void removeFromUser(String user, int id) {
+        Heap heap = byUser.get(user);
+        heap.remove(id);
+        if (heap.size == 0) {
+            byUser.remove(user);
+        }
+    }
+
+    // Amplía los arreglos de ranuras para alojar el ID; las nuevas posiciones quedan ausentes
+    private void ensureId(int id) {
+        if (id >= allSlots.length) {
+            int length = Math.max(id + 1, allSlots.length * 2);
+            int old = allSlots.length;
+            allSlots = Arrays.copyOf(allSlots, length);
+            userSlots = Arrays.copyOf(userSlots, length);
+            Arrays.fill(allSlots, old, length, -1);
+            Arrays.fill(userSlots, old, length, -1);
+        }
+    }
+
+    /**
+     * Montículo binario de máximos de IDs por coste. Las ranuras de sus IDs
+     * se guardan en el arreglo global o en el de usuarios, según el
+     * montículo.
+     */
+    private final class Heap {
+
+        private final boolean global;
+        private int[] ids = new int[16];
+        private double[] costs = new double[16];
+        private int size;
+
+        Heap(boolean global) {
+            this.global = global;
+        }
+
+        private int[] slots() {
+            return global ? allSlots : userSlots;
+        }
+
+        // Inserta el ID o cambia su coste, restaurando el orden en la dirección que corresponda
+        void set(int id, double cost) {
+            int[] slots = slots();
+            int slot = slots[id];
+            if (slot < 0) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    costs = Arrays.copyOf(costs, size * 2);
+                }
+                slot = size++;
+                ids[slot] = id;
+                costs[slot] = cost;
+                slots[id] = slot;
+                siftUp(slot);
+                return;
+            }
+            double previous = costs[slot];
+            costs[slot] = cost;
+            if (before(slot, parent(slot))) {
+                siftUp(slot);
+            } else if (Double.compare(cost, previous) != 0) {
+                siftDown(slot);
+            }
+        }
+
+        void remove(int id) {
+            int[] slots = slots();
+            int slot = slots[id];
+            slots[id] = -1;
+            int last = --size;
+            if (slot != last) {
+                int moved = ids[last];
+                move(last, slot);
+                siftUp(slot);
+                siftDown(slots[moved]);
+            }
+        }
+
+        void clear() {
+            ids = new int[16];
+            costs = new double[16];
+            size = 0;
+        }
+
+        // Recorrido de mayor a menor: la cola de candidatos guarda ranuras y empieza por la raíz
+        int[] top(int k) {
+            int count = Math.min(k, size);
+            int[] result = new int[count];
+            if (count == 0) {
+                return result;
+            }
+            int[] candidates = new int[2 * count + 1];
+            int candidateCount = 0;
+            candidates[candidateCount++] = 0;
+            for (int i = 0; i < count; i++) {
+                int best = candidates[0];
+                candidates[0] = candidates[--candidateCount];
+                siftCandidateDown(candidates, candidateCount);
+                result[i] = ids[best];
+                for (int child = 2 * best + 1; child <= 2 * best + 2 && child < size; child++) {
+                    int position = candidateCount++;
+                    while (position > 0 && before(child, candidates[(position - 1) / 2])) {
+                        candidates[position] = candidates[(position - 1) / 2];
+                        position = (position - 1) / 2;
+                    }
+                    candidates[position] = child;
+                }
+            }
+            return result;
+        }
+
+        private void siftCandidateDown(int[] candidates, int count) {
+            int position = 0;
+            int slot = candidates[0];
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= count) {
+                    break;
+                }
+                if (child + 1 < count && before(candidates[child + 1], candidates[child])) {
+                    child++;
+                }
+                if (!before(candidates[child], slot)) {
+                    break;
+                }
+                candidates[position] = candidates[child];
+                position = child;
+            }
+            candidates[position] = slot;
+        }
+
+        private void siftUp(int slot) {
+            while (slot > 0 && before(slot, parent(slot))) {
+                swap(slot, parent(slot));
+                slot = parent(slot);
+            }
+        }
+
+        private void siftDown(int slot) {
+            while (true) {
+                int child = 2 * slot + 1;
+                if (child >= size) {
+                    return;
+                }
+                if (child + 1 < size && before(child + 1, child)) {
+                    child++;
+                }
+                if (!before(child, slot)) {
+                    return;
+                }
+                swap(slot, child);
+                slot = child;
+            }
+        }
+
+        // Orden del montículo: mayor coste primero y, a igual coste, menor ID
+        private boolean before(int a, int b) {
+            int order = Double.compare(costs[a], costs[b]);
+            return order > 0 || order == 0 && ids[a] < ids[b];
+        }
+
+        private int parent(int slot) {
+            return slot == 0 ? 0 : (slot - 1) / 2;
+        }
+
+        private void swap(int a, int b) {
+            int id = ids[a];
+            double cost = costs[a];
+            move(b, a);
+            ids[b] = id;
+            costs[b] = cost;
+            slots()[id] = b;
+        }
+
+        private void move(int from, int to) {
+            ids[to] = ids[from];
+            costs[to] = costs[from];
+            slots()[ids[to]] = to;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package Models;
+
+/**
+ * Polilínea de una curva de nivel (equipotencial): una secuencia de puntos
+ * del plano guardados como pares x, y consecutivos en un {@code float[]}.
+ */
+public final class Contour {
+
+    private final double level;
+    private final float[] points;
+    private final boolean closed;
+
+    /**
+     * @param level Valor de la curva de nivel.
+     * @param points Pares x, y de los puntos, en metros.
+     * @param closed true si el último punto se une con el primero.
+     */
+    public Contour(double level, float[] points, boolean closed) {
+        this.level = level;
+        this.points = points;
+        this.closed = closed;
+    }
+
+    /**
+     * @return Valor de la curva de nivel.
+     */
+    public double level() {
+        return level;
+    }
+
+    /**
+     * @return Pares x, y de los puntos (no modificar).
+     */
+    public float[] points() {
+        return points;
+    }
+
+    /**
+     * @return Número de puntos.
+     */
+    public int size() {
+        return points.length / 2;
+    }
+
+    /**
+     * @return true si la curva es cerrada.
+     */
+    public boolean closed() {
+        return closed;
+    }
+}
@@ -0,0 +1,275 @@
+package Models;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fuerza de Coulomb neta sobre cada carga debida a todas las demás:
+ * Fᵢ = k·qᵢ·Σⱼ qⱼ·(rᵢ − rⱼ)/|rᵢ − rⱼ|³.
+ *
+ * {@link #direct()} suma todos los pares (O(n²)) y sirve de referencia.
+ * {@link #withCutoff(double)} ignora los pares más alejados que el radio de
+ * corte y usa listas de celdas: las cargas se ordenan por celdas de una malla
+ * uniforme de lado ≥ radio de corte (ordenación por conteo), así que cada
+ * carga solo visita las 9 celdas vecinas, O(n) para densidades acotadas.
+ *
+ * Las cargas se reparten en bloques que se procesan en paralelo con
+ * fork/join; cada carga acumula su propia fuerza, sin escrituras compartidas.
+ * Las cargas en posiciones no finitas reciben fuerza nula y no actúan sobre
+ * las demás; dos cargas en el mismo punto no interactúan.
+ */
+public final class CoulombForces {
+
+    private static final long LEAF_WORK = 1L << 16; // Pares por tarea hoja en la suma directa
+    private static final int LEAF_CHARGES = 512;    // Cargas por tarea hoja con listas de celdas
+
+    private final PointCharges charges;
+    private final ForkJoinPool pool;
+
+    /**
+     * Crea un motor sobre el pool común de fork/join.
+     *
+     * @param charges Cargas del sistema.
+     */
+    public CoulombForces(PointCharges charges) {
+        this(charges, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea un motor que reparte el trabajo en el pool indicado.
+     *
+     * @param charges Cargas del sistema.
+     * @param pool Pool de fork/join.
+     */
+    public CoulombForces(PointCharges charges, ForkJoinPool pool) {
+        this.charges = charges;
+        this.pool = pool;
+    }
+
+    /**
+     * Suma directa de todos los pares.
+     *
+     * @return Fuerzas netas.
+     */
+    public NetForces direct() {
+        int n = charges.size();
+        double[] fx = new double[n];
+        double[] fy = new double[n];
+        if (n > 0) {
+            pool.invoke(new Direct(fx, fy, 0, n));
+        }
+        return new NetForces(charges, fx, fy);
+    }
+
+    /**
+     * Suma los pares a menos de {@code cutoff} metros con listas de celdas.
+     *
+     * @param cutoff Radio de corte en metros (mayor que cero).
+     * @return Fuerzas netas truncadas al radio de corte.
+     */
+    public NetForces withCutoff(double cutoff) {
+        if (!(cutoff > 0) || Double.isInfinite(cutoff)) {
+            throw new IllegalArgumentException("Radio de corte no válido");
+        }
+        int n = charges.size();
+        double[] fx = new double[n];
+        double[] fy = new double[n];
+        CellList cells = new CellList(cutoff);
+        if (cells.count > 0) {
+            pool.invoke(new Cells(cells, fx, fy, 0, cells.count));
+        }
+        return new NetForces(charges, fx, fy);
+    }
+
+    private static boolean finite(double x, double y) {
+        return Double.isFinite(x) && Double.isFinite(y);
+    }
+
+    /**
+     * Cargas finitas ordenadas por celda, con sus coordenadas copiadas en ese
+     * orden para que los recorridos de cada celda sean contiguos en memoria.
+     */
+    private final class CellList {
+
+        final double cutoff2;
+        final int columns;
+        final int rows;
+        final int[] cellStart; // Primera posición ordenada de cada celda, más el total al final
+        final int[] original;  // Índice en PointCharges de cada posición ordenada
+        final int[] cellOf;
+        final double[] x;
+        final double[] y;
+        final double[] q;
+        final int count;
+
+        CellList(double cutoff) {
+            cutoff2 = cutoff * cutoff;
+            int n = charges.size();
+            double minX = Double.POSITIVE_INFINITY;
+            double minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY;
+            double maxY = Double.NEGATIVE_INFINITY;
+            int finite = 0;
+            for (int i = 0; i < n; i++) {
+                if (finite(charges.x(i), charges.y(i))) {
+                    minX = Math.min(minX, charges.x(i));
+                    maxX = Math.max(maxX, charges.x(i));
+                    minY = Math.min(minY, charges.y(i));
+                    maxY = Math.max(maxY, charges.y(i));
+                    finite++;
+                }
+            }
+            count = finite;
+            // Celdas de lado >= radio de corte; se agrandan si la malla tendría muchas más celdas que cargas.
+            // El recuento se hace en double: con un radio pequeño sobre una extensión grande no cabe en un long
+            double side = cutoff;
+            double maxCells = Math.min(4.0 * finite + 16, Integer.MAX_VALUE - 1);
+            while (finite > 0 && cellsFor(maxX - minX, side) * cellsFor(maxY - minY, side) > maxCells) {
+                side *= 2;
+            }
+            columns = finite == 0 ? 1 : axisCells(maxX - minX, side, maxCells);
+            rows = finite == 0 ? 1 : axisCells(maxY - minY, side, maxCells);
+            int[] cellOfCharge = new int[n];
+            cellStart = new int[columns * rows + 1];
+            for (int i = 0; i < n; i++) {
+                if (finite(charges.x(i), charges.y(i))) {
+                    int column = Math.min(columns - 1, (int) ((charges.x(i) - minX) / side));
+                    int row = Math.min(rows - 1, (int) ((charges.y(i) - minY) / side));
+                    cellOfCharge[i] = row * columns + column;
+                    cellStart[cellOfCharge[i] + 1]++;
+                }
+            }
+            for (int c = 0; c < columns * rows; c++) {
+                cellStart[c + 1] += cellStart[c];
+            }
+            int[] next = cellStart.clone();
+            original = new int[finite];
+            cellOf = new int[finite];
+            x = new double[finite];
+            y = new double[finite];
+            q = new double[finite];
+            for (int i = 0; i < n; i++) {
+                if (finite(charges.x(i), charges.y(i))) {
+                    int position = next[cellOfCharge[i]]++;
+                    original[position] = i;
+                    cellOf[position] = cellOfCharge[i];
+                    x[position] = charges.x(i);
+                    y[position] = charges.y(i);
+                    q[position] = charges.q(i);
+                }
+            }
+        }
+
+        private static double cellsFor(double extent, double side) {
+            return Math.floor(extent / side) + 1;
+        }
+
+        // Celdas de un eje acotadas a [1, maxCells]; 1 si la extensión no es finita (cellsFor da NaN)
+        private static int axisCells(double extent, double side, double maxCells) {
+            double cells = cellsFor(extent, side);
+            return cells >= 1 ? (int) Math.min(cells, maxCells) : 1;
+        }
+    }
+
+    // Suma directa para las cargas [from, to)
+    private final class Direct extends RecursiveAction {
+
+        private final double[] fx;
+        private final double[] fy;
+        private final int from;
+        private final int to;
+
+        Direct(double[] fx, double[] fy, int from, int to) {
+            this.fx = fx;
+            this.fy = fy;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            int n = charges.size();
+            if (to - from > 1 && (long) (to - from) * n > LEAF_WORK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Direct(fx, fy, from, middle), new Direct(fx, fy, middle, to));
+                return;
+            }
+            double[] cx = charges.xs();
+            double[] cy = charges.ys();
+            double[] cq = charges.qs();
+            for (int i = from; i < to; i++) {
+                if (!finite(cx[i], cy[i])) {
+                    continue;
+                }
+                double sumX = 0;
+                double sumY = 0;
+                for (int j = 0; j < n; j++) {
+                    double dx = cx[i] - cx[j];
+                    double dy = cy[i] - cy[j];
+                    double r2 = dx * dx + dy * dy;
+                    if (r2 > 0 && r2 < Double.POSITIVE_INFINITY) {
+                        double s = cq[j] / (r2 * Math.sqrt(r2));
+                        sumX += s * dx;
+                        sumY += s * dy;
+                    }
+                }
+                fx[i] = FieldE.K * cq[i] * sumX;
+                fy[i] = FieldE.K * cq[i] * sumY;
+            }
+        }
+    }
+
+    // Suma por celdas vecinas para las posiciones ordenadas [from, to)
+    private final class Cells extends RecursiveAction {
+
+        private final CellList cells;
+        private final double[] fx;
+        private final double[] fy;
+        private final int from;
+        private final int to;
+
+        Cells(CellList cells, double[] fx, double[] fy, int from, int to) {
+            this.cells = cells;
+            this.fx = fx;
+            this.fy = fy;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_CHARGES) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Cells(cells, fx, fy, from, middle), new Cells(cells, fx, fy, middle, to));
+                return;
+            }
+            double[] x = cells.x;
+            double[] y = cells.y;
+            double[] q = cells.q;
+            for (int p = from; p < to; p++) {
+                int column = cells.cellOf[p] % cells.columns;
+                int row = cells.cellOf[p] / cells.columns;
+                double sumX = 0;
+                double sumY = 0;
+                for (int r = Math.max(0, row - 1); r <= Math.min(cells.rows - 1, row + 1); r++) {
+                    int first = cells.cellStart[r * cells.columns + Math.max(0, column - 1)];
+                    int end = cells.cellStart[r * cells.columns + Math.min(cells.columns - 1, column + 1) + 1];
+                    // Las celdas contiguas de una fila ocupan un tramo contiguo del orden
+                    for (int j = first; j < end; j++) {
+                        double dx = x[p] - x[j];
+                        double dy = y[p] - y[j];
+                        double r2 = dx * dx + dy * dy;
+                        if (r2 > 0 && r2 < cells.cutoff2) {
+                            double s = q[j] / (r2 * Math.sqrt(r2));
+                            sumX += s * dx;
+                            sumY += s * dy;
+                        }
+                    }
+                }
+                int i = cells.original[p];
+                fx[i] = FieldE.K * q[p] * sumX;
+                fy[i] = FieldE.K * q[p] * sumY;
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package Models;
+
+import java.util.Arrays;
+
+/**
+ * Índice de direccionamiento abierto (sondeo lineal) que localiza la posición
+ * densa de un ID entero. Cada ranura guarda posición + 1 (0 = libre); la clave
+ * no se duplica en el índice, sino que se lee del arreglo de IDs del almacén
+ * propietario, que se pasa en cada llamada.
+ */
+final class DenseIntIndex {
+
+    private int[] slots;
+    private int shift;
+
+    /**
+     * Crea un índice para la capacidad densa indicada.
+     *
+     * @param capacity Número máximo de posiciones densas.
+     */
+    DenseIntIndex(int capacity) {
+        reset(capacity);
+    }
+
+    // Copia exacta de otro índice
+    private DenseIntIndex(DenseIntIndex other) {
+        slots = other.slots.clone();
+        shift = other.shift;
+    }
+
+    /**
+     * @return Copia independiente del índice.
+     */
+    DenseIntIndex copy() {
+        return new DenseIntIndex(this);
+    }
+
+    /**
+     * Busca la ranura que contiene un ID.
+     *
+     * @param ids Arreglo de IDs por posición del almacén.
+     * @param id ID buscado.
+     * @return La ranura, o -1 si el ID no está indexado.
+     */
+    int slotOf(int[] ids, int id) {
+        int mask = slots.length - 1;
+        for (int slot = hash(id); ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            if (ids[entry - 1] == id) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Busca la posición densa de un ID.
+     *
+     * @param ids Arreglo de IDs por posición del almacén.
+     * @param id ID buscado.
+     * @return La posición, o -1 si el ID no está indexado.
+     */
+    int positionOf(int[] ids, int id) {
+        int slot = slotOf(ids, id);
+        return slot < 0 ? -1 : slots[slot] - 1;
+    }
+
+    /**
+     * @param slot Ranura obtenida con {@link #slotOf}.
+     * @return Posición densa guardada en la ranura.
+     */
+    int positionAt(int slot) {
+        return slots[slot] - 1;
+    }
+
+    /**
+     * Cambia la posición densa guardada en una ranura (por ejemplo, cuando el
+     * almacén mueve una fila).
+     *
+     * @param slot Ranura obtenida con {@link #slotOf}.
+     * @param position Nueva posición densa.
+     */
+    void setPositionAt(int slot, int position) {
+        slots[slot] = position + 1;
+    }
+
+    /**
+     * Indexa un ID que aún no está presente.
+     *
+     * @param id ID a indexar.
+     * @param position Posición densa del ID.
+     */
+    void insert(int id, int position) {
+        int mask = slots.length - 1;
+        int slot = hash(id);
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = position + 1;
+    }
+
+    /**
+     * Libera una ranura con desplazamiento hacia atrás, de modo que el índice
+     * nunca acumula lápidas.
+     *
+     * @param ids Arreglo de IDs por posición del almacén.
+     * @param slot Ranura a liberar.
+     */
+    void delete(int[] ids, int slot) {
+        int mask = slots.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; slots[next] != 0; next = (next + 1) & mask) {
+            int home = hash(ids[slots[next] - 1]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                slots[hole] = slots[next];
+                hole = next;
+            }
+        }
+        slots[hole] = 0;
+    }
+
+    /**
+     * Reconstruye el índice para una nueva capacidad a partir de las primeras
+     * posiciones del arreglo de IDs.
+     *
+     * @param ids Arreglo de IDs por posición del almacén.
+     * @param count Número de posiciones ocupadas.
+     * @param capacity Nueva capacidad densa.
+     */
+    void rebuild(int[] ids, int count, int capacity) {
+        reset(capacity);
+        for (int i = 0; i < count; i++) {
+            insert(ids[i], i);
+        }
+    }
+
+    /**
+     * Vacía el índice sin cambiar su capacidad.
+     */
+    void clear() {
+        Arrays.fill(slots, 0);
+    }
+
+    /**
+     * Vacía el índice y lo dimensiona para una nueva capacidad densa, con
+     * factor de carga <= 0.5.
+     *
+     * @param capacity Nueva capacidad densa.
+     */
+    void reset(int capacity) {
+        int bits = 32 - Integer.numberOfLeadingZeros(capacity * 2 - 1);
+        slots = new int[1 << bits];
+        shift = 32 - bits;
+    }
+
+    // Hash de Fibonacci: dispersa IDs consecutivos por todo el índice
+    private int hash(int id) {
+        return (id * 0x9E3779B9) >>> shift;
+    }
+}
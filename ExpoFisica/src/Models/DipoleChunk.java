@@ -0,0 +1,79 @@
+package Models;
+
+/**
+ * Bloque de muestras consecutivas de una simulación de {@link DipoleSimulator},
+ * en columnas. El simulador reutiliza el mismo bloque para todas las entregas,
+ * así que quien necesite conservar los datos debe copiarlos antes de volver.
+ */
+public final class DipoleChunk {
+
+    final double[] time;
+    final double[] angle;
+    final double[] omega;
+    final double[] torque;
+    final double[] energy;
+    long firstSample;
+    int size;
+
+    DipoleChunk(int capacity) {
+        time = new double[capacity];
+        angle = new double[capacity];
+        omega = new double[capacity];
+        torque = new double[capacity];
+        energy = new double[capacity];
+    }
+
+    /**
+     * @return Número de muestras válidas del bloque.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Índice de la primera muestra del bloque dentro de la simulación.
+     */
+    public long firstSample() {
+        return firstSample;
+    }
+
+    /**
+     * @param i Muestra dentro del bloque.
+     * @return Tiempo en segundos.
+     */
+    public double time(int i) {
+        return time[i];
+    }
+
+    /**
+     * @param i Muestra dentro del bloque.
+     * @return Ángulo entre el dipolo y el campo, en grados.
+     */
+    public double angle(int i) {
+        return angle[i];
+    }
+
+    /**
+     * @param i Muestra dentro del bloque.
+     * @return Velocidad angular en rad/s.
+     */
+    public double omega(int i) {
+        return omega[i];
+    }
+
+    /**
+     * @param i Muestra dentro del bloque.
+     * @return Torque (q·d)·E·sen(θ) en N·m, como en {@link Torque#calcularTorque}.
+     */
+    public double torque(int i) {
+        return torque[i];
+    }
+
+    /**
+     * @param i Muestra dentro del bloque.
+     * @return Energía mecánica ½·I·ω² − (q·d)·E·cos(θ) en J.
+     */
+    public double energy(int i) {
+        return energy[i];
+    }
+}
@@ -0,0 +1,220 @@
+package Models;
+
+import java.util.Arrays;
+
+/**
+ * Almacenamiento columnar (estructura de arreglos) para modelos numéricos.
+ * Cada atributo se guarda en su propio {@code double[]} contiguo, de modo que
+ * las agregaciones y los recálculos son recorridos lineales sobre memoria
+ * contigua en lugar de saltos entre objetos. Las filas se localizan por ID con
+ * el mismo índice de direccionamiento abierto que {@link IntEntityStore}.
+ *
+ * Al eliminar una fila, la última ocupa su lugar para que las columnas no
+ * tengan huecos; por eso el orden de las filas no es el de inserción.
+ */
+public class DoubleColumnStore {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] ids;
+    private final double[][] columns;
+    private int size;
+    private final DenseIntIndex index;
+
+    /**
+     * Crea un almacén columnar vacío.
+     *
+     * @param columnCount Número de columnas double.
+     * @param expectedSize Número de filas esperado.
+     */
+    protected DoubleColumnStore(int columnCount, int expectedSize) {
+        int capacity = Math.max(MIN_CAPACITY, expectedSize);
+        ids = new int[capacity];
+        columns = new double[columnCount][capacity];
+        index = new DenseIntIndex(capacity);
+    }
+
+    /**
+     * @return Número de filas almacenadas.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Obtiene el ID de una fila.
+     *
+     * @param row Índice de fila, entre 0 y size() - 1.
+     * @return ID de la fila.
+     */
+    public int idAt(int row) {
+        return ids[row];
+    }
+
+    /**
+     * Busca la fila de un ID.
+     *
+     * @param id ID buscado.
+     * @return Índice de fila, o -1 si el ID no existe.
+     */
+    public int rowOf(int id) {
+        return index.positionOf(ids, id);
+    }
+
+    /**
+     * Obtiene el arreglo de respaldo de una columna para recorridos lineales.
+     * Solo las primeras size() posiciones son válidas, y el arreglo deja de
+     * ser el de respaldo si el almacén crece.
+     *
+     * @param column Índice de columna.
+     * @return Arreglo de la columna.
+     */
+    public double[] column(int column) {
+        return columns[column];
+    }
+
+    /**
+     * Lee un valor.
+     *
+     * @param row Índice de fila.
+     * @param column Índice de columna.
+     * @return Valor almacenado.
+     */
+    public double get(int row, int column) {
+        return columns[column][row];
+    }
+
+    /**
+     * Escribe un valor.
+     *
+     * @param row Índice de fila.
+     * @param column Índice de columna.
+     * @param value Nuevo valor.
+     */
+    public void set(int row, int column, double value) {
+        columns[column][row] = value;
+    }
+
+    /**
+     * Añade una fila con todas las columnas en cero, o devuelve la fila
+     * existente si el ID ya estaba presente.
+     *
+     * @param id ID de la fila.
+     * @return Índice de la fila.
+     */
+    protected int addRow(int id) {
+        int existing = index.positionOf(ids, id);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (size == ids.length) {
+            grow();
+        }
+        int row = size++;
+        ids[row] = id;
+        index.insert(id, row);
+        return row;
+    }
+
+    /**
+     * Elimina la fila de un ID, moviendo la última fila a su lugar.
+     *
+     * @param id ID de la fila a eliminar.
+     * @return true si el ID existía.
+     */
+    public boolean remove(int id) {
+        int slot = index.slotOf(ids, id);
+        if (slot < 0) {
+            return false;
+        }
+        int row = index.positionAt(slot);
+        index.delete(ids, slot);
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            for (double[] column : columns) {
+                column[row] = column[last];
+            }
+            index.setPositionAt(index.slotOf(ids, ids[row]), row);
+            moveRow(last, row);
+        }
+        return true;
+    }
+
+    /**
+     * Permite a las subclases mover columnas que no son double (por ejemplo,
+     * textos) cuando una fila cambia de posición.
+     *
+     * @param from Fila de origen.
+     * @param to Fila de destino.
+     */
+    protected void moveRow(int from, int to) {
+    }
+
+    /**
+     * Permite a las subclases crecer columnas que no son double.
+     *
+     * @param capacity Nueva capacidad.
+     */
+    protected void growExtraColumns(int capacity) {
+    }
+
+    /**
+     * Suma una columna con suma compensada de Kahan.
+     *
+     * @param column Índice de columna.
+     * @return Suma de la columna.
+     */
+    public double sum(int column) {
+        double[] values = columns[column];
+        double sum = 0.0;
+        double compensation = 0.0;
+        for (int i = 0; i < size; i++) {
+            double y = values[i] - compensation;
+            double t = sum + y;
+            compensation = (t - sum) - y;
+            sum = t;
+        }
+        return sum;
+    }
+
+    /**
+     * Calcula el mínimo de una columna.
+     *
+     * @param column Índice de columna.
+     * @return Mínimo, o NaN si no hay filas.
+     */
+    public double min(int column) {
+        double[] values = columns[column];
+        double min = size == 0 ? Double.NaN : Double.POSITIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    /**
+     * Calcula el máximo de una columna.
+     *
+     * @param column Índice de columna.
+     * @return Máximo, o NaN si no hay filas.
+     */
+    public double max(int column) {
+        double[] values = columns[column];
+        double max = size == 0 ? Double.NaN : Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = Arrays.copyOf(columns[c], capacity);
+        }
+        growExtraColumns(capacity);
+        index.rebuild(ids, size, capacity);
+    }
+}
@@ -0,0 +1,70 @@
+package Models;
+
+/**
+ * Lectura de una serie agregada en intervalos de tiempo iguales: por cada
+ * intervalo con muestras, su inicio, número de muestras, media, mínimo y
+ * máximo. Los intervalos sin muestras se omiten.
+ */
+public final class DownsampledSeries {
+
+    private final long[] start;
+    private final int[] count;
+    private final double[] mean;
+    private final double[] min;
+    private final double[] max;
+
+    DownsampledSeries(long[] start, int[] count, double[] mean, double[] min, double[] max) {
+        this.start = start;
+        this.count = count;
+        this.mean = mean;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * @return Número de intervalos con muestras.
+     */
+    public int size() {
+        return start.length;
+    }
+
+    /**
+     * @param i Intervalo.
+     * @return Inicio del intervalo en segundos desde la época.
+     */
+    public long start(int i) {
+        return start[i];
+    }
+
+    /**
+     * @param i Intervalo.
+     * @return Muestras del intervalo.
+     */
+    public int count(int i) {
+        return count[i];
+    }
+
+    /**
+     * @param i Intervalo.
+     * @return Media de las muestras del intervalo.
+     */
+    public double mean(int i) {
+        return mean[i];
+    }
+
+    /**
+     * @param i Intervalo.
+     * @return Menor muestra del intervalo.
+     */
+    public double min(int i) {
+        return min[i];
+    }
+
+    /**
+     * @param i Intervalo.
+     * @return Mayor muestra del intervalo.
+     */
+    public double max(int i) {
+        return max[i];
+    }
+}
@@ -89,8 +89,13 @@ public class ElectricConsume {
     // Método para calcular el consumo eléctrico
     private Double calculateResult() {
         if (electricPower != null && deviceTime != null && electricityTariff != null) {
-            return electricPower * deviceTime * electricityTariff / 1000; // Convierte vatios a kilovatios
+            return calculateResult(electricPower, deviceTime, electricityTariff);
         }
         return 0.0;
     }
+
+    // Coste del consumo: potencia (W) · tiempo (h) · tarifa (por kWh)
+    public static double calculateResult(double electricPower, double deviceTime, double electricityTariff) {
+        return electricPower * deviceTime * electricityTariff / 1000; // Convierte vatios a kilovatios
+    }
 }
@@ -1,23 +1,52 @@
 package Models;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Matcher;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
 import java.util.regex.Pattern;
 
 /**
- * Clase que gestiona las acciones relacionadas con el consumo eléctrico.
+ * Clase que gestiona las acciones relacionadas con el consumo eléctrico. Es
+ * segura para varios hilos: las escrituras toman el cerrojo del almacén en
+ * exclusiva y las lecturas en modo compartido.
  */
 public class ElectricConsumeActions {
 
     // Singleton instance
     private static ElectricConsumeActions instance;
 
-    // Mapa para almacenar los consumos eléctricos
-    private final Map<Integer, ElectricConsume> electricConsumes = new HashMap<>();
+    // Almacén de los consumos eléctricos indexados por su ID primitivo
+    private final IntEntityStore<ElectricConsume> electricConsumes = new IntEntityStore<>();
+
+    // Índices secundarios: usuario -> sus consumos y aparato normalizado -> sus consumos
+    private final Map<String, IntEntityStore<ElectricConsume>> consumesByUser = new HashMap<>();
+    private final Map<String, IntEntityStore<ElectricConsume>> consumesByAppliance = new HashMap<>();
+
+    // Totales mantenidos con cada cambio: de todos los consumos, por usuario y por aparato normalizado
+    private ConsumeAggregate totals = new ConsumeAggregate();
+    private final Map<String, ConsumeAggregate> totalsByUser = new HashMap<>();
+    private final Map<String, ConsumeAggregate> totalsByAppliance = new HashMap<>();
+
+    // Ranking por coste mantenido con cada cambio: de todos los consumos y por usuario
+    private final ConsumeRanking ranking = new ConsumeRanking();
 
     // Contador para asignar IDs únicos
-    private Integer electricConsumeCount = 0;
+    private final AtomicInteger electricConsumeCount = new AtomicInteger();
+
+    // Cerrojo del almacén: escrituras exclusivas, lecturas compartidas
+    private final StampedLock lock = new StampedLock();
+
+    // Código del almacén en el log de escritura anticipada
+    static final byte WAL_STORE = 5;
+    // Log de escritura anticipada; null mientras no haya persistencia activa
+    private WriteAheadLog log;
 
     // Método para obtener la instancia única (Singleton)
     public static synchronized ElectricConsumeActions getInstance() {
@@ -36,12 +65,12 @@ public class ElectricConsumeActions {
         return new ElectricConsume(id, electricAppliance, electricPower, deviceTime, electricityTariff, user);
     }
 
+    // Expresión regular precompilada para validar si una cadena es un número decimal
+    private static final Pattern DOUBLE_PATTERN = Pattern.compile("^[0-9]+(\\.[0-9]+)?$");
+
     // Verifica si la cadena de entrada es un número decimal válido
     public boolean isDoubleString(String input) {
-        String numericRegex = "^[0-9]+(\\.[0-9]+)?$"; // Expresión regular para números decimales
-        Pattern pattern = Pattern.compile(numericRegex);
-        Matcher matcher = pattern.matcher(input);
-        return matcher.matches(); // Devuelve true si la entrada es un número decimal válido
+        return DOUBLE_PATTERN.matcher(input).matches(); // Devuelve true si la entrada es un número decimal válido
     }
 
     // Valida y formatea el nombre: capitaliza la primera letra, el resto en minúsculas
@@ -55,42 +84,365 @@ public class ElectricConsumeActions {
 
     // Añade un nuevo consumo eléctrico
     public void addElectricConsume(String electricAppliance, Double electricPower, Double deviceTime, Double electricityTariff, String user) {
-        ElectricConsume electricConsume = createElectricConsume(electricConsumeCount, electricAppliance, electricPower, deviceTime, electricityTariff, user);
-        electricConsumes.put(electricConsumeCount, electricConsume);
-        electricConsumeCount++;
+        int id = electricConsumeCount.getAndIncrement();
+        ElectricConsume electricConsume = createElectricConsume(id, electricAppliance, electricPower, deviceTime, electricityTariff, user);
+        long stamp = lock.writeLock();
+        try {
+            journal(WalRecord.OP_ADD, id, electricAppliance, electricPower, deviceTime, electricityTariff, user);
+            storeConsume(electricConsume);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     // Modifica un consumo eléctrico existente
     public boolean modifyElectricConsume(Integer id, String electricAppliance, Double electricPower, Double deviceTime, Double electricityTariff, String user) {
-        if (electricConsumes.containsKey(id)) {
-            ElectricConsume electricConsume = createElectricConsume(id, electricAppliance, electricPower, deviceTime, electricityTariff, user);
-            electricConsumes.replace(id, electricConsume);
-            return true;
+        long stamp = lock.writeLock();
+        try {
+            if (electricConsumes.containsKey(id)) {
+                journal(WalRecord.OP_MODIFY, id, electricAppliance, electricPower, deviceTime, electricityTariff, user);
+                ElectricConsume electricConsume = createElectricConsume(id, electricAppliance, electricPower, deviceTime, electricityTariff, user);
+                storeConsume(electricConsume);
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        return false;
     }
 
     // Elimina un consumo eléctrico existente
     public boolean deleteElectricConsume(Integer id) {
-        if (electricConsumes.containsKey(id)) {
-            electricConsumes.remove(id);
-            return true;
+        long stamp = lock.writeLock();
+        try {
+            if (electricConsumes.containsKey(id)) {
+                if (log != null) {
+                    log.append(WalRecord.of(WAL_STORE, WalRecord.OP_DELETE, id));
+                }
+                discardConsume(id);
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        return false;
     }
 
-    // Lista los consumos eléctricos, filtrando por aparato si se proporciona
-    public Map<Integer, ElectricConsume> listElectricConsume(String electricAppliance) {
-        if (electricAppliance == null || electricAppliance.isBlank()) {
-            return electricConsumes;
-        } else {
-            Map<Integer, ElectricConsume> filteredElectricConsume = new HashMap<>();
-            for (ElectricConsume electricConsume : electricConsumes.values()) {
-                if (electricConsume.getElectricAppliance().equalsIgnoreCase(electricAppliance)) {
-                    filteredElectricConsume.put(electricConsume.getId(), electricConsume);
+    // Importa las primeras count filas de un lote de consumos bajo un único cerrojo; reciben IDs
+    // consecutivos y se registran en el log una a una, como las altas individuales. Devuelve el primer ID
+    public int importElectricConsumes(String[] electricAppliances, double[] electricPower, double[] deviceTime,
+            double[] electricityTariff, String[] users, int count) {
+        if (electricAppliances.length < count || electricPower.length < count || deviceTime.length < count
+                || electricityTariff.length < count || users.length < count) {
+            throw new IllegalArgumentException("Las columnas del lote tienen menos filas que las indicadas");
+        }
+        long stamp = lock.writeLock();
+        try {
+            int first = electricConsumeCount.getAndAdd(count);
+            electricConsumes.ensureCapacity(electricConsumes.size() + count);
+            for (int i = 0; i < count; i++) {
+                int id = first + i;
+                journal(WalRecord.OP_ADD, id, electricAppliances[i], electricPower[i], deviceTime[i], electricityTariff[i], users[i]);
+                storeConsume(createElectricConsume(id, electricAppliances[i], electricPower[i], deviceTime[i], electricityTariff[i], users[i]));
+            }
+            return first;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Lista los consumos eléctricos como vista inmutable, filtrando por aparato si se proporciona;
+    // si ningún consumo usa ese aparato se listan todos
+    public IntStoreSnapshot<ElectricConsume> listElectricConsume(String electricAppliance) {
+        long stamp = lock.readLock();
+        try {
+            IntEntityStore<ElectricConsume> applianceConsumes = electricAppliance == null || electricAppliance.isBlank()
+                    ? null : consumesByAppliance.get(normalizeAppliance(electricAppliance));
+            return (applianceConsumes == null ? electricConsumes : applianceConsumes).snapshot();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Lista los consumos de un usuario como vista inmutable, con el mismo filtro por aparato que
+    // listElectricConsume(String); el coste depende solo del número de consumos del usuario
+    public IntStoreSnapshot<ElectricConsume> listElectricConsume(String user, String electricAppliance) {
+        long stamp = lock.readLock();
+        try {
+            IntEntityStore<ElectricConsume> userConsumes = consumesByUser.get(user);
+            if (userConsumes == null) {
+                return new IntEntityStore<ElectricConsume>().snapshot();
+            }
+            IntEntityStore<ElectricConsume> applianceConsumes = electricAppliance == null || electricAppliance.isBlank()
+                    ? null : consumesByAppliance.get(normalizeAppliance(electricAppliance));
+            if (applianceConsumes == null) {
+                return userConsumes.snapshot();
+            }
+            // Intersección recorriendo el índice más pequeño
+            IntEntityStore<ElectricConsume> filteredElectricConsume = new IntEntityStore<>();
+            if (userConsumes.size() <= applianceConsumes.size()) {
+                for (ElectricConsume electricConsume : userConsumes) {
+                    if (applianceConsumes.containsKey(electricConsume.getId())) {
+                        filteredElectricConsume.put(electricConsume.getId(), electricConsume);
+                    }
                 }
+            } else {
+                for (ElectricConsume electricConsume : applianceConsumes) {
+                    if (userConsumes.containsKey(electricConsume.getId())) {
+                        filteredElectricConsume.put(electricConsume.getId(), electricConsume);
+                    }
+                }
+            }
+            return filteredElectricConsume.snapshot();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Totales de todos los consumos (copia)
+    public ConsumeAggregate totals() {
+        long stamp = lock.readLock();
+        try {
+            return totals.copy(electricConsumes);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Totales de los consumos de un usuario (copia; vacía si el usuario no tiene consumos)
+    public ConsumeAggregate totalsByUser(String user) {
+        long stamp = lock.readLock();
+        try {
+            ConsumeAggregate aggregate = totalsByUser.get(user);
+            return aggregate == null ? new ConsumeAggregate() : aggregate.copy(consumesByUser.get(user));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Totales de los consumos de un aparato, sin distinguir mayúsculas (copia)
+    public ConsumeAggregate totalsByAppliance(String electricAppliance) {
+        long stamp = lock.readLock();
+        try {
+            String appliance = normalizeAppliance(electricAppliance);
+            ConsumeAggregate aggregate = totalsByAppliance.get(appliance);
+            return aggregate == null ? new ConsumeAggregate() : aggregate.copy(consumesByAppliance.get(appliance));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Totales de cada usuario, ordenados por usuario (copias)
+    public Map<String, ConsumeAggregate> totalsPerUser() {
+        long stamp = lock.readLock();
+        try {
+            return copyTotals(totalsByUser, consumesByUser);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Totales de cada aparato normalizado, ordenados por aparato (copias)
+    public Map<String, ConsumeAggregate> totalsPerAppliance() {
+        long stamp = lock.readLock();
+        try {
+            return copyTotals(totalsByAppliance, consumesByAppliance);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Los k consumos más caros, de mayor a menor coste, sin ordenar el almacén; k negativo lanza IllegalArgumentException
+    public List<ElectricConsume> topElectricConsumes(int k) {
+        long stamp = lock.readLock();
+        try {
+            return resolve(ranking.top(k));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Los k consumos más caros de un usuario, de mayor a menor coste; k negativo lanza IllegalArgumentException
+    public List<ElectricConsume> topElectricConsumes(String user, int k) {
+        long stamp = lock.readLock();
+        try {
+            return resolve(ranking.top(user, k));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Activa el registro de las operaciones en el log de escritura anticipada (null = solo memoria)
+    void attachLog(WriteAheadLog log) {
+        long stamp = lock.writeLock();
+        try {
+            this.log = log;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Aplica un registro del log sin volver a registrarlo, restaurando también el contador de IDs
+    void replay(WalRecord record) {
+        int id = record.id();
+        long stamp = lock.writeLock();
+        try {
+            if (record.op() == WalRecord.OP_DELETE) {
+                discardConsume(id);
+            } else {
+                String electricAppliance = record.nextText();
+                double electricPower = record.nextNumber();
+                double deviceTime = record.nextNumber();
+                double electricityTariff = record.nextNumber();
+                String user = record.nextText();
+                storeConsume(createElectricConsume(id, electricAppliance, electricPower, deviceTime, electricityTariff, user));
+            }
+            electricConsumeCount.accumulateAndGet(id + 1, Math::max);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Copia los consumos y el contador de IDs a una sección de instantánea y, en el mismo paso,
+    // pasa a registrar en el log nuevo: cada operación queda en uno de los dos
+    SnapshotSection captureSnapshot(WriteAheadLog next) {
+        long stamp = lock.writeLock();
+        try {
+            SnapshotSection section = new SnapshotSection(WAL_STORE, electricConsumeCount.get(), electricConsumes.size(), 3, 2);
+            double[][] columns = section.numbers;
+            int row = 0;
+            for (ElectricConsume electricConsume : electricConsumes) {
+                section.ids[row] = electricConsume.getId();
+                columns[0][row] = electricConsume.getElectricPower();
+                columns[1][row] = electricConsume.getDeviceTime();
+                columns[2][row] = electricConsume.getElectricityTariff();
+                section.texts[0][row] = electricConsume.getElectricAppliance();
+                section.texts[1][row] = electricConsume.getUser();
+                row++;
+            }
+            log = next;
+            return section;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Sustituye el contenido del almacén por el de una sección de instantánea
+    void restoreSnapshot(SnapshotSection section) {
+        double[][] columns = section.numbers;
+        long stamp = lock.writeLock();
+        try {
+            electricConsumes.clear();
+            consumesByUser.clear();
+            consumesByAppliance.clear();
+            totals = new ConsumeAggregate();
+            totalsByUser.clear();
+            totalsByAppliance.clear();
+            ranking.clear();
+            electricConsumes.ensureCapacity(section.rows);
+            for (int row = 0; row < section.rows; row++) {
+                int id = section.ids[row];
+                storeConsume(createElectricConsume(id, section.texts[0][row], columns[0][row],
+                        columns[1][row], columns[2][row], section.texts[1][row]));
+            }
+            electricConsumeCount.set(section.nextId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Guarda un consumo (nuevo o modificado) y actualiza los índices secundarios y los totales; requiere el cerrojo
+    private void storeConsume(ElectricConsume electricConsume) {
+        ElectricConsume previous = electricConsumes.put(electricConsume.getId(), electricConsume);
+        String user = electricConsume.getUser();
+        String appliance = normalizeAppliance(electricConsume.getElectricAppliance());
+        String previousUser = previous == null ? null : previous.getUser();
+        String previousAppliance = previous == null ? null : normalizeAppliance(previous.getElectricAppliance());
+        reindex(consumesByUser, previousUser, user, previous, electricConsume);
+        reindex(consumesByAppliance, previousAppliance, appliance, previous, electricConsume);
+        if (previous != null) {
+            totals.remove(previous);
+            retotal(totalsByUser, previousUser, previous);
+            retotal(totalsByAppliance, previousAppliance, previous);
+        }
+        totals.add(electricConsume);
+        totalsByUser.computeIfAbsent(user, key -> new ConsumeAggregate()).add(electricConsume);
+        totalsByAppliance.computeIfAbsent(appliance, key -> new ConsumeAggregate()).add(electricConsume);
+        ranking.update(electricConsume, previous);
+    }
+
+    // Elimina un consumo del almacén, de los índices secundarios y de los totales; requiere el cerrojo
+    private void discardConsume(int id) {
+        ElectricConsume previous = electricConsumes.remove(id);
+        if (previous != null) {
+            String previousUser = previous.getUser();
+            String previousAppliance = normalizeAppliance(previous.getElectricAppliance());
+            reindex(consumesByUser, previousUser, null, previous, null);
+            reindex(consumesByAppliance, previousAppliance, null, previous, null);
+            totals.remove(previous);
+            retotal(totalsByUser, previousUser, previous);
+            retotal(totalsByAppliance, previousAppliance, previous);
+            ranking.remove(previous);
+        }
+    }
+
+    // Resta un consumo de los totales de su grupo, que desaparecen cuando el grupo se queda vacío
+    private static void retotal(Map<String, ConsumeAggregate> totalsIndex, String key, ElectricConsume previous) {
+        ConsumeAggregate aggregate = totalsIndex.get(key);
+        aggregate.remove(previous);
+        if (aggregate.getCount() == 0) {
+            totalsIndex.remove(key);
+        }
+    }
+
+    // Consumos de una lista de IDs del ranking, en el mismo orden; requiere el cerrojo
+    private List<ElectricConsume> resolve(int[] ids) {
+        List<ElectricConsume> consumes = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            consumes.add(electricConsumes.get(id));
+        }
+        return consumes;
+    }
+
+    // Copia ordenada por clave de un índice de totales; index da los consumos de cada grupo
+    private static Map<String, ConsumeAggregate> copyTotals(Map<String, ConsumeAggregate> totalsIndex,
+            Map<String, IntEntityStore<ElectricConsume>> index) {
+        Map<String, ConsumeAggregate> copy = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        for (Map.Entry<String, ConsumeAggregate> entry : totalsIndex.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().copy(index.get(entry.getKey())));
+        }
+        return copy;
+    }
+
+    // Mueve un consumo de la entrada oldKey a newKey de un índice (null = sin entrada); si la clave
+    // no cambia se reemplaza en su sitio para conservar el orden de inserción
+    private static void reindex(Map<String, IntEntityStore<ElectricConsume>> index, String oldKey, String newKey,
+            ElectricConsume previous, ElectricConsume current) {
+        if (previous != null && current != null && Objects.equals(oldKey, newKey)) {
+            index.get(newKey).replace(current.getId(), current);
+            return;
+        }
+        if (previous != null) {
+            IntEntityStore<ElectricConsume> bucket = index.get(oldKey);
+            bucket.remove(previous.getId());
+            if (bucket.isEmpty()) {
+                index.remove(oldKey);
             }
-            return filteredElectricConsume.isEmpty() ? electricConsumes : filteredElectricConsume;
+        }
+        if (current != null) {
+            index.computeIfAbsent(newKey, key -> new IntEntityStore<>()).put(current.getId(), current);
+        }
+    }
+
+    // Clave del índice de aparatos: la búsqueda no distingue mayúsculas ni espacios externos
+    private static String normalizeAppliance(String electricAppliance) {
+        return electricAppliance == null ? null : electricAppliance.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void journal(byte op, int id, String electricAppliance, Double electricPower, Double deviceTime, Double electricityTariff, String user) {
+        if (log != null) {
+            log.append(WalRecord.of(WAL_STORE, op, id).text(electricAppliance).number(electricPower)
+                    .number(deviceTime).number(electricityTariff).text(user));
         }
     }
 }
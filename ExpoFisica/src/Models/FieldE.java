@@ -7,6 +7,11 @@ package Models;
  */
 public class FieldE {
 
+    /**
+     * Constante de Coulomb en N·m²/C².
+     */
+    public static final double K = 8.99e9;
+
     private int id;          // ID del campo
     private double cargaQ;    // Carga eléctrica en Coulombs
     private double distanciaR; // Distancia en metros
@@ -148,4 +153,16 @@ public class FieldE {
     public void setResult(double result) {
         this.result = result;
     }
+
+    /**
+     * Calcula la magnitud del campo eléctrico de una carga puntual:
+     * E = k·|q| / r².
+     *
+     * @param cargaQ Carga eléctrica en Coulombs.
+     * @param distanciaR Distancia al punto en metros.
+     * @return Magnitud del campo en N/C.
+     */
+    public static double calcularCampo(double cargaQ, double distanciaR) {
+        return (K * Math.abs(cargaQ)) / (distanciaR * distanciaR);
+    }
 }
@@ -1,13 +1,17 @@
 package Models;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
 import java.util.regex.Pattern;
 
 /**
  * La clase FieldEActions gestiona las operaciones CRUD (Crear, Leer,
  * Actualizar, Eliminar) sobre los objetos FieldE. Implementa el patrón
- * Singleton para garantizar una única instancia.
+ * Singleton para garantizar una única instancia. Es seguro usarla desde
+ * varios hilos: las escrituras toman el cerrojo del almacén en exclusiva y las
+ * lecturas en modo compartido.
  */
 public class FieldEActions {
 
@@ -21,9 +25,22 @@ public class FieldEActions {
         return SingletonHelper.INSTANCE;
     }
 
-    // Almacena los objetos FieldE usando un mapa donde la clave es su ID
-    private final Map<Integer, FieldE> fieldsE = new HashMap<>();
-    private int fieldECount = 0;
+    // Almacena los objetos FieldE indexados por su ID primitivo
+    private final IntEntityStore<FieldE> fieldsE = new IntEntityStore<>();
+    private final AtomicInteger fieldECount = new AtomicInteger();
+    // Cerrojo del almacén: escrituras exclusivas, lecturas compartidas
+    private final StampedLock lock = new StampedLock();
+
+    // Código del almacén en el log de escritura anticipada
+    static final byte WAL_STORE = 2;
+    // Log de escritura anticipada; null mientras no haya persistencia activa
+    private WriteAheadLog log;
+
+    // Estructuras derivadas que se actualizan con cada cambio del almacén
+    private final List<StoreListener<FieldE>> listeners = new CopyOnWriteArrayList<>();
+
+    // Cargas puntuales de la última versión pedida; se reconstruyen solo si el almacén cambió
+    private volatile PointCharges charges;
 
     // Expresión regular para verificar si una cadena es un double válido
     private static final Pattern DOUBLE_PATTERN = Pattern.compile("^[0-9]+(\\.[0-9]+)?$");
@@ -39,7 +56,7 @@ public class FieldEActions {
     }
 
     /**
-     * Agrega un nuevo objeto FieldE al mapa.
+     * Agrega un nuevo objeto FieldE al almacén.
      *
      * @param cargaQ Carga eléctrica en Coulombs
      * @param distanciaR Distancia al punto en metros
@@ -48,9 +65,15 @@ public class FieldEActions {
      * @param result Resultado del cálculo
      */
     public void addFieldE(double cargaQ, double distanciaR, double anguloA, String direccion, double result) {
-        FieldE fieldE = new FieldE(fieldECount, cargaQ, distanciaR, anguloA, direccion, result);
-        fieldsE.put(fieldECount, fieldE);
-        fieldECount++;
+        int id = fieldECount.getAndIncrement();
+        FieldE fieldE = new FieldE(id, cargaQ, distanciaR, anguloA, direccion, result);
+        long stamp = lock.writeLock();
+        try {
+            journal(WalRecord.OP_ADD, id, cargaQ, distanciaR, anguloA, direccion, result);
+            storeFieldE(fieldE);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
@@ -65,9 +88,15 @@ public class FieldEActions {
      * @param result Nuevo resultado
      */
     public void modifyFieldE(int id, double cargaQ, double distanciaR, double anguloA, String direccion, double result) {
-        if (fieldsE.containsKey(id)) {
-            FieldE fieldE = new FieldE(id, cargaQ, distanciaR, anguloA, direccion, result);
-            fieldsE.put(id, fieldE);  // put sobreescribe si la clave ya existe
+        long stamp = lock.writeLock();
+        try {
+            if (fieldsE.containsKey(id)) {
+                journal(WalRecord.OP_MODIFY, id, cargaQ, distanciaR, anguloA, direccion, result);
+                FieldE fieldE = new FieldE(id, cargaQ, distanciaR, anguloA, direccion, result);
+                storeFieldE(fieldE);  // put sobreescribe si la clave ya existe
+            }
+        } finally {
+            lock.unlockWrite(stamp);
         }
     }
 
@@ -78,15 +107,221 @@ public class FieldEActions {
      * @return true si se eliminó correctamente, false si no se encontró el ID
      */
     public boolean deleteFieldE(int id) {
-        return fieldsE.remove(id) != null;
+        long stamp = lock.writeLock();
+        try {
+            if (log != null && fieldsE.containsKey(id)) {
+                log.append(WalRecord.of(WAL_STORE, WalRecord.OP_DELETE, id));
+            }
+            return discardFieldE(id);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
      * Lista todos los objetos FieldE almacenados.
      *
-     * @return Un mapa con todos los objetos FieldE.
+     * @return Vista inmutable de la versión actual de los objetos FieldE.
+     */
+    public IntStoreSnapshot<FieldE> listFieldsE() {
+        long stamp = lock.readLock();
+        try {
+            return fieldsE.snapshot(); // Vista sin copia; el almacén copia sus arreglos si se modifica después
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Exporta los campos eléctricos a almacenamiento columnar, donde las
+     * agregaciones y los recálculos masivos son recorridos lineales.
+     * Cada llamada recorre el almacén y copia sus filas (O(n)).
+     *
+     * @return Copia columnar de los campos eléctricos.
+     */
+    public FieldEColumns toColumns() {
+        long stamp = lock.readLock();
+        try {
+            return FieldEColumns.of(fieldsE, fieldsE.size());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Registra un observador de los cambios del almacén. Antes de registrarlo,
+     * y bajo el mismo cerrojo, recibe como altas todos los campos actuales, de
+     * modo que no pierde ni duplica ningún cambio.
+     *
+     * @param listener Observador a registrar.
+     */
+    public void addListener(StoreListener<FieldE> listener) {
+        long stamp = lock.writeLock();
+        try {
+            for (FieldE fieldE : fieldsE) {
+                listener.added(fieldE);
+            }
+            listeners.add(listener);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Deja de notificar a un observador.
+     *
+     * @param listener Observador a quitar.
+     */
+    public void removeListener(StoreListener<FieldE> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Interpreta los campos almacenados como cargas puntuales (ver
+     * {@link PointCharges}). Mientras el almacén no cambie se devuelve el mismo
+     * conjunto sin reconstruirlo.
+     *
+     * @return Cargas de la versión actual del almacén.
+     */
+    public PointCharges pointCharges() {
+        IntStoreSnapshot<FieldE> current = listFieldsE();
+        PointCharges cached = charges;
+        if (cached == null || cached.version() != current.version()) {
+            cached = PointCharges.of(current);
+            charges = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Crea un motor de superposición sobre las cargas de la versión actual
+     * del almacén.
+     *
+     * @return Motor de campo neto.
      */
-    public Map<Integer, FieldE> listFieldsE() {
-        return new HashMap<>(fieldsE); // Devuelve una copia para evitar modificaciones externas
+    public FieldEngine fieldEngine() {
+        return new FieldEngine(pointCharges());
+    }
+
+    /**
+     * Activa el registro de las operaciones en el log de escritura anticipada.
+     *
+     * @param log Log a usar, o null para trabajar solo en memoria.
+     */
+    void attachLog(WriteAheadLog log) {
+        long stamp = lock.writeLock();
+        try {
+            this.log = log;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Aplica un registro del log sin volver a registrarlo, restaurando también
+     * el contador de IDs.
+     *
+     * @param record Registro a aplicar.
+     */
+    void replay(WalRecord record) {
+        int id = record.id();
+        long stamp = lock.writeLock();
+        try {
+            if (record.op() == WalRecord.OP_DELETE) {
+                discardFieldE(id);
+            } else {
+                storeFieldE(new FieldE(id, record.nextNumber(), record.nextNumber(),
+                        record.nextNumber(), record.nextText(), record.nextNumber()));
+            }
+            fieldECount.accumulateAndGet(id + 1, Math::max);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Copia el contenido del almacén a una sección de instantánea y, en el
+     * mismo paso, empieza a registrar las operaciones en otro log; así cada
+     * operación queda en la instantánea o en el log nuevo, nunca en ninguno.
+     *
+     * @param next Log que recibe las operaciones posteriores a la copia.
+     * @return Sección con los campos eléctricos y el contador de IDs.
+     */
+    SnapshotSection captureSnapshot(WriteAheadLog next) {
+        long stamp = lock.writeLock();
+        try {
+            SnapshotSection section = new SnapshotSection(WAL_STORE, fieldECount.get(), fieldsE.size(), 4, 1);
+            double[][] columns = section.numbers;
+            int row = 0;
+            for (FieldE fieldE : fieldsE) {
+                section.ids[row] = fieldE.getId();
+                columns[0][row] = fieldE.getCargaQ();
+                columns[1][row] = fieldE.getDistanciaR();
+                columns[2][row] = fieldE.getAnguloA();
+                columns[3][row] = fieldE.getResult();
+                section.texts[0][row] = fieldE.getDireccion();
+                row++;
+            }
+            log = next;
+            return section;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Sustituye el contenido del almacén por el de una sección de instantánea.
+     *
+     * @param section Sección leída de la instantánea.
+     */
+    void restoreSnapshot(SnapshotSection section) {
+        double[][] columns = section.numbers;
+        long stamp = lock.writeLock();
+        try {
+            fieldsE.clear();
+            for (StoreListener<FieldE> listener : listeners) {
+                listener.cleared();
+            }
+            fieldsE.ensureCapacity(section.rows);
+            for (int row = 0; row < section.rows; row++) {
+                int id = section.ids[row];
+                storeFieldE(new FieldE(id, columns[0][row], columns[1][row], columns[2][row],
+                        section.texts[0][row], columns[3][row]));
+            }
+            fieldECount.set(section.nextId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Guarda un campo y avisa a los observadores; requiere el cerrojo de escritura
+    private void storeFieldE(FieldE fieldE) {
+        FieldE previous = fieldsE.put(fieldE.getId(), fieldE);
+        for (StoreListener<FieldE> listener : listeners) {
+            if (previous == null) {
+                listener.added(fieldE);
+            } else {
+                listener.modified(previous, fieldE);
+            }
+        }
+    }
+
+    // Elimina un campo y avisa a los observadores; requiere el cerrojo de escritura
+    private boolean discardFieldE(int id) {
+        FieldE previous = fieldsE.remove(id);
+        if (previous == null) {
+            return false;
+        }
+        for (StoreListener<FieldE> listener : listeners) {
+            listener.removed(previous);
+        }
+        return true;
+    }
+
+    private void journal(byte op, int id, double cargaQ, double distanciaR, double anguloA, String direccion, double result) {
+        if (log != null) {
+            log.append(WalRecord.of(WAL_STORE, op, id)
+                    .number(cargaQ).number(distanciaR).number(anguloA).text(direccion).number(result));
+        }
     }
 }
@@ -0,0 +1,205 @@
+package Models;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Almacenamiento columnar de campos eléctricos: cargaQ, distanciaR, anguloA y
+ * result viven cada uno en su propio {@code double[]}; la dirección, que es
+ * texto, se guarda en una columna aparte. Las vistas {@link Row} que entrega
+ * son flyweights respaldados por las columnas, con los getters y setters de
+ * {@link FieldE} salvo el del ID.
+ *
+ * No es el almacenamiento de los *Actions: estos guardan objetos del modelo
+ * porque sus vistas, oyentes, log y copias se basan en ellos; toColumns()
+ * construye una copia columnar puntual para agregaciones y recálculos
+ * masivos, que solo compensa cuando el recorrido amortiza la copia O(n).
+ */
+public class FieldEColumns extends DoubleColumnStore implements Iterable<FieldEColumns.Row> {
+
+    public static final int CARGA_Q = 0;
+    public static final int DISTANCIA_R = 1;
+    public static final int ANGULO_A = 2;
+    public static final int RESULT = 3;
+
+    private String[] direcciones;
+
+    /**
+     * Crea un almacén columnar vacío.
+     *
+     * @param expectedSize Número de campos esperado.
+     */
+    public FieldEColumns(int expectedSize) {
+        super(4, expectedSize);
+        direcciones = new String[column(CARGA_Q).length];
+    }
+
+    /**
+     * Construye el almacén columnar a partir de una colección de campos.
+     *
+     * @param fieldsE Campos a copiar.
+     * @param expectedSize Número de campos esperado.
+     * @return Almacén columnar con los mismos datos.
+     */
+    public static FieldEColumns of(Iterable<FieldE> fieldsE, int expectedSize) {
+        FieldEColumns columns = new FieldEColumns(expectedSize);
+        for (FieldE fieldE : fieldsE) {
+            columns.add(fieldE.getId(), fieldE.getCargaQ(), fieldE.getDistanciaR(),
+                    fieldE.getAnguloA(), fieldE.getDireccion(), fieldE.getResult());
+        }
+        return columns;
+    }
+
+    /**
+     * Añade o sobrescribe un campo eléctrico.
+     *
+     * @param id ID del campo.
+     * @param cargaQ Carga eléctrica en Coulombs.
+     * @param distanciaR Distancia en metros.
+     * @param anguloA Ángulo en grados.
+     * @param direccion Dirección del campo.
+     * @param result Campo calculado.
+     * @return Fila asignada.
+     */
+    public int add(int id, double cargaQ, double distanciaR, double anguloA, String direccion, double result) {
+        int row = addRow(id);
+        set(row, CARGA_Q, cargaQ);
+        set(row, DISTANCIA_R, distanciaR);
+        set(row, ANGULO_A, anguloA);
+        set(row, RESULT, result);
+        direcciones[row] = direccion;
+        return row;
+    }
+
+    /**
+     * Recalcula la columna de resultados con {@link FieldE#calcularCampo} en
+     * un único recorrido lineal.
+     */
+    public void recalculate() {
+        double[] cargaQ = column(CARGA_Q);
+        double[] distanciaR = column(DISTANCIA_R);
+        double[] result = column(RESULT);
+        for (int i = 0, n = size(); i < n; i++) {
+            result[i] = FieldE.calcularCampo(cargaQ[i], distanciaR[i]);
+        }
+    }
+
+    /**
+     * Crea una vista flyweight de una fila.
+     *
+     * @param row Índice de fila.
+     * @return Campo respaldado por las columnas.
+     */
+    public Row view(int row) {
+        Row view = new Row();
+        view.row = row;
+        return view;
+    }
+
+    /**
+     * Recorre las filas reutilizando una única vista flyweight: el objeto
+     * devuelto por next() cambia de fila en cada llamada y no debe guardarse.
+     *
+     * @return Iterador sobre las filas.
+     */
+    @Override
+    public Iterator<Row> iterator() {
+        Row view = new Row();
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size();
+            }
+
+            @Override
+            public Row next() {
+                if (next >= size()) {
+                    throw new NoSuchElementException();
+                }
+                view.row = next++;
+                return view;
+            }
+        };
+    }
+
+    @Override
+    protected void moveRow(int from, int to) {
+        direcciones[to] = direcciones[from];
+        direcciones[from] = null;
+    }
+
+    @Override
+    protected void growExtraColumns(int capacity) {
+        direcciones = Arrays.copyOf(direcciones, capacity);
+    }
+
+    /**
+     * Vista de una fila: no guarda datos propios, todo se delega a las
+     * columnas. El ID de la fila no se puede cambiar, por eso no es un
+     * {@link FieldE} con su {@code setId}.
+     */
+    public final class Row {
+
+        private int row;
+
+        private Row() {
+        }
+
+        public int getId() {
+            return idAt(row);
+        }
+
+        /**
+         * Copia la fila a un {@link FieldE} para el código que trabaja con el
+         * modelo; la copia no cambia si después se modifica la fila.
+         *
+         * @return Copia de la fila.
+         */
+        public FieldE toFieldE() {
+            return new FieldE(getId(), getCargaQ(), getDistanciaR(), getAnguloA(), getDireccion(), getResult());
+        }
+
+        public double getCargaQ() {
+            return get(row, CARGA_Q);
+        }
+
+        public void setCargaQ(double cargaQ) {
+            set(row, CARGA_Q, cargaQ);
+        }
+
+        public double getDistanciaR() {
+            return get(row, DISTANCIA_R);
+        }
+
+        public void setDistanciaR(double distanciaR) {
+            set(row, DISTANCIA_R, distanciaR);
+        }
+
+        public double getAnguloA() {
+            return get(row, ANGULO_A);
+        }
+
+        public void setAnguloA(double anguloA) {
+            set(row, ANGULO_A, anguloA);
+        }
+
+        public String getDireccion() {
+            return direcciones[row];
+        }
+
+        public void setDireccion(String direccion) {
+            direcciones[row] = direccion;
+        }
+
+        public double getResult() {
+            return get(row, RESULT);
+        }
+
+        public void setResult(double result) {
+            set(row, RESULT, result);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package Models;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Campo eléctrico neto de un conjunto de cargas puntuales por superposición
+ * directa: E(p) = Σ k·qᵢ·(p − rᵢ)/|p − rᵢ|³. Cada punto cuesta O(cargas); las
+ * consultas por lotes se reparten entre los núcleos con fork/join.
+ *
+ * En la posición exacta de una carga su propio campo no está definido, así
+ * que esa carga se omite de la suma en ese punto.
+ */
+public final class FieldEngine {
+
+    // Interacciones punto-carga por tarea hoja: reparte bien sin crear tareas diminutas
+    private static final long LEAF_WORK = 1L << 16;
+
+    private final PointCharges charges;
+    private final ForkJoinPool pool;
+
+    /**
+     * Crea un motor sobre el pool común de fork/join.
+     *
+     * @param charges Cargas que generan el campo.
+     */
+    public FieldEngine(PointCharges charges) {
+        this(charges, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea un motor que evalúa los lotes en el pool indicado.
+     *
+     * @param charges Cargas que generan el campo.
+     * @param pool Pool de fork/join para los lotes.
+     */
+    public FieldEngine(PointCharges charges, ForkJoinPool pool) {
+        this.charges = charges;
+        this.pool = pool;
+    }
+
+    /**
+     * @return Cargas que generan el campo.
+     */
+    public PointCharges charges() {
+        return charges;
+    }
+
+    /**
+     * Evalúa el campo neto en un punto.
+     *
+     * @param x Coordenada x en metros.
+     * @param y Coordenada y en metros.
+     * @return Componentes {Ex, Ey} en N/C.
+     */
+    public double[] fieldAt(double x, double y) {
+        double[] ex = new double[1];
+        double[] ey = new double[1];
+        sum(new double[]{x}, new double[]{y}, ex, ey, 0, 1);
+        return new double[]{ex[0], ey[0]};
+    }
+
+    /**
+     * Evalúa la magnitud del campo neto en un punto.
+     *
+     * @param x Coordenada x en metros.
+     * @param y Coordenada y en metros.
+     * @return |E| en N/C.
+     */
+    public double magnitudeAt(double x, double y) {
+        double[] field = fieldAt(x, y);
+        return Math.hypot(field[0], field[1]);
+    }
+
+    /**
+     * Evalúa el campo neto en un lote de puntos, en paralelo.
+     *
+     * @param x Coordenadas x de los puntos.
+     * @param y Coordenadas y de los puntos.
+     * @param ex Destino de las componentes x (misma longitud que x).
+     * @param ey Destino de las componentes y (misma longitud que x).
+     */
+    public void evaluate(double[] x, double[] y, double[] ex, double[] ey) {
+        int points = x.length;
+        if (y.length != points || ex.length != points || ey.length != points) {
+            throw new IllegalArgumentException("Los arreglos de puntos tienen longitudes distintas");
+        }
+        if ((long) points * charges.size() <= LEAF_WORK) {
+            sum(x, y, ex, ey, 0, points); // No compensa repartir
+        } else {
+            pool.invoke(new Batch(x, y, ex, ey, 0, points));
+        }
+    }
+
+    // Suma directa para los puntos [from, to)
+    private void sum(double[] x, double[] y, double[] ex, double[] ey, int from, int to) {
+        double[] cx = charges.xs();
+        double[] cy = charges.ys();
+        double[] cq = charges.qs();
+        for (int p = from; p < to; p++) {
+            double px = x[p];
+            double py = y[p];
+            double sumX = 0;
+            double sumY = 0;
+            for (int i = 0; i < cq.length; i++) {
+                double dx = px - cx[i];
+                double dy = py - cy[i];
+                double r2 = dx * dx + dy * dy;
+                if (r2 > 0) {
+                    double s = cq[i] / (r2 * Math.sqrt(r2));
+                    sumX += s * dx;
+                    sumY += s * dy;
+                }
+            }
+            ex[p] = FieldE.K * sumX;
+            ey[p] = FieldE.K * sumY;
+        }
+    }
+
+    // Divide el rango de puntos a la mitad hasta que cada hoja tiene unas LEAF_WORK interacciones
+    private final class Batch extends RecursiveAction {
+
+        private final double[] x;
+        private final double[] y;
+        private final double[] ex;
+        private final double[] ey;
+        private final int from;
+        private final int to;
+
+        Batch(double[] x, double[] y, double[] ex, double[] ey, int from, int to) {
+            this.x = x;
+            this.y = y;
+            this.ex = ex;
+            this.ey = ey;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1 || (long) (to - from) * charges.size() <= LEAF_WORK) {
+                sum(x, y, ex, ey, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Batch(x, y, ex, ey, from, middle), new Batch(x, y, ex, ey, middle, to));
+            }
+        }
+    }
+}
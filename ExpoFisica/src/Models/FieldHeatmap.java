@@ -0,0 +1,503 @@
+package Models;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Mapa de calor de |E| sobre una rejilla de píxeles, en escala logarítmica.
+ * La imagen se divide en baldosas de {@value #TILE}×{@value #TILE} píxeles que
+ * se calculan en paralelo en un {@link ForkJoinPool} con un
+ * {@link BarnesHutField} y se guardan en una {@link BufferedImage}.
+ *
+ * Como observador de {@link FieldEActions}, cada alta, baja o modificación
+ * acumula en cada baldosa una cota de cuánto puede haber cambiado |E| en
+ * ella (k·|q|/r², con r la distancia de la carga a la baldosa). Solo se
+ * invalidan las baldosas donde esa cota supera media banda de color respecto
+ * al menor |E| de la baldosa; el resto conserva su imagen. La escala de
+ * colores se fija en el render completo, para que las baldosas que no se
+ * recalculan sigan siendo coherentes con las nuevas.
+ */
+public final class FieldHeatmap implements StoreListener<FieldE> {
+
+    /**
+     * Lado de las baldosas en píxeles.
+     */
+    public static final int TILE = 64;
+
+    private static final double THETA = 0.35;
+    private static final int DECADES = 6; // Rango de la escala: |E| máximo y 6 décadas por debajo
+    private static final int LEVELS = 256;
+    private static final double TOLERANCE = Math.log(10) * DECADES / LEVELS / 2; // Media banda de color
+    private static final int[] PALETTE = palette();
+
+    private final BarnesHutField field;
+    private final ForkJoinPool pool;
+    private final Object renderLock = new Object(); // Un solo render a la vez
+    private Runnable onChange;
+    private FieldEActions followed; // Almacén al que está suscrito con follow(), o null
+
+    private BufferedImage image;
+    private Tile[] tiles;
+    private int columns;
+    private double minX;
+    private double minY;
+    private double maxX;
+    private double maxY;
+    private boolean hasViewport;
+    private double logMax = Double.NaN; // Escala de color; NaN hasta el próximo render completo
+    private long generation;            // Cambia con cada invalidación total
+
+    /**
+     * Crea un mapa de calor sobre un árbol de Barnes-Hut ya construido.
+     *
+     * @param field Árbol que evalúa el campo.
+     * @param width Ancho en píxeles.
+     * @param height Alto en píxeles.
+     * @param pool Pool de fork/join para las baldosas.
+     */
+    public FieldHeatmap(BarnesHutField field, int width, int height, ForkJoinPool pool) {
+        this.field = field;
+        this.pool = pool;
+        resize(width, height);
+    }
+
+    /**
+     * Crea un mapa de calor sincronizado con el almacén de campos: mantiene su
+     * propio árbol y se registra como observador para invalidar baldosas.
+     *
+     * @param actions Almacén de campos eléctricos.
+     * @param width Ancho en píxeles.
+     * @param height Alto en píxeles.
+     * @return Mapa de calor sincronizado.
+     */
+    public static FieldHeatmap follow(FieldEActions actions, int width, int height) {
+        FieldHeatmap heatmap = new FieldHeatmap(BarnesHutField.follow(actions, THETA), width, height,
+                ForkJoinPool.commonPool());
+        actions.addListener(heatmap);
+        heatmap.followed = actions;
+        return heatmap;
+    }
+
+    /**
+     * Deja de observar el almacén al que se suscribió con
+     * {@link #follow(FieldEActions, int, int)}, junto con su árbol, para que
+     * el almacén no los retenga cuando ya no se muestran. Después el mapa deja
+     * de actualizarse.
+     */
+    public synchronized void unfollow() {
+        if (followed != null) {
+            followed.removeListener(this);
+            followed.removeListener(field);
+            followed = null;
+        }
+        onChange = null;
+    }
+
+    /**
+     * Indica una acción a ejecutar cuando algún cambio invalida baldosas. Se
+     * llama desde el hilo que modificó el almacén y con su cerrojo tomado,
+     * así que debe limitarse a programar un nuevo render.
+     *
+     * @param onChange Acción a ejecutar, o null.
+     */
+    public synchronized void setOnChange(Runnable onChange) {
+        this.onChange = onChange;
+    }
+
+    /**
+     * Cambia el tamaño de la imagen; invalida todas las baldosas.
+     *
+     * @param width Ancho en píxeles.
+     * @param height Alto en píxeles.
+     */
+    public synchronized void resize(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Tamaño de imagen no válido: " + width + "x" + height);
+        }
+        if (image != null && image.getWidth() == width && image.getHeight() == height) {
+            return;
+        }
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        columns = (width + TILE - 1) / TILE;
+        int rows = (height + TILE - 1) / TILE;
+        tiles = new Tile[columns * rows];
+        for (int i = 0; i < tiles.length; i++) {
+            int x = (i % columns) * TILE;
+            int y = (i / columns) * TILE;
+            tiles[i] = new Tile(x, y, Math.min(TILE, width - x), Math.min(TILE, height - y));
+        }
+        logMax = Double.NaN;
+        generation++;
+    }
+
+    /**
+     * Fija la región del plano que cubre la imagen; invalida todas las
+     * baldosas.
+     *
+     * @param minX Borde izquierdo en metros.
+     * @param minY Borde inferior en metros.
+     * @param maxX Borde derecho en metros.
+     * @param maxY Borde superior en metros.
+     */
+    public synchronized void setViewport(double minX, double minY, double maxX, double maxY) {
+        if (!(minX < maxX && minY < maxY)) {
+            throw new IllegalArgumentException("Región no válida");
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        hasViewport = true;
+        invalidateAll();
+    }
+
+    /**
+     * Ajusta la región para que contenga todas las cargas con un margen,
+     * conservando la proporción de la imagen. Si las cargas ya caben en la
+     * región actual no cambia nada, de modo que no se pierde la caché.
+     *
+     * @param charges Cargas a mostrar.
+     * @return true si la región cambió.
+     */
+    public synchronized boolean fitViewport(PointCharges charges) {
+        double left = Double.POSITIVE_INFINITY;
+        double bottom = Double.POSITIVE_INFINITY;
+        double right = Double.NEGATIVE_INFINITY;
+        double top = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < charges.size(); i++) {
+            left = Math.min(left, charges.x(i));
+            right = Math.max(right, charges.x(i));
+            bottom = Math.min(bottom, charges.y(i));
+            top = Math.max(top, charges.y(i));
+        }
+        if (charges.size() == 0) {
+            left = bottom = -1;
+            right = top = 1;
+        }
+        if (hasViewport && left >= minX && right <= maxX && bottom >= minY && top <= maxY) {
+            return false;
+        }
+        double centerX = (left + right) / 2;
+        double centerY = (bottom + top) / 2;
+        double aspect = (double) image.getWidth() / image.getHeight();
+        double halfHeight = Math.max(Math.max((top - bottom) / 2, (right - left) / 2 / aspect), 0.5) * 1.25;
+        setViewport(centerX - halfHeight * aspect, centerY - halfHeight, centerX + halfHeight * aspect, centerY + halfHeight);
+        return true;
+    }
+
+    /**
+     * @return Número de baldosas pendientes de recalcular.
+     */
+    public synchronized int dirtyTiles() {
+        int dirty = 0;
+        for (Tile tile : tiles) {
+            if (tile.dirty) {
+                dirty++;
+            }
+        }
+        return dirty;
+    }
+
+    /**
+     * Recalcula en paralelo las baldosas invalidadas y devuelve la imagen. No
+     * debe llamarse desde el hilo de eventos de Swing si hay muchas cargas.
+     *
+     * @return Imagen del mapa de calor (la misma instancia mientras no cambie
+     * el tamaño).
+     */
+    public BufferedImage render() {
+        synchronized (renderLock) {
+            return renderLocked();
+        }
+    }
+
+    private BufferedImage renderLocked() {
+        List<Tile> pending = new ArrayList<>();
+        BufferedImage target;
+        double[] viewport;
+        boolean full;
+        long renderGeneration;
+        synchronized (this) {
+            target = image;
+            renderGeneration = generation;
+            viewport = new double[]{minX, minY, maxX, maxY};
+            full = Double.isNaN(logMax);
+            for (Tile tile : tiles) {
+                if (tile.dirty || full) {
+                    tile.dirty = false; // Un cambio durante el cálculo la vuelve a marcar
+                    tile.pending = 0;
+                    pending.add(tile);
+                }
+            }
+        }
+        if (pending.isEmpty()) {
+            return target;
+        }
+        Tile[] work = pending.toArray(Tile[]::new);
+        pool.invoke(new Evaluate(work, viewport, target.getWidth(), target.getHeight(), 0, work.length));
+        double scale;
+        synchronized (this) {
+            if (full && renderGeneration == generation) {
+                double max = Double.NEGATIVE_INFINITY;
+                for (Tile tile : work) {
+                    max = Math.max(max, tile.logMax);
+                }
+                logMax = Double.isFinite(max) ? max : 0;
+            }
+            scale = logMax;
+        }
+        pool.invoke(new Colorize(work, target, scale, 0, work.length));
+        return target;
+    }
+
+    /**
+     * @return Logaritmo decimal del |E| que corresponde al color más claro, o
+     * NaN si aún no se ha hecho un render completo.
+     */
+    public synchronized double getLogMax() {
+        return logMax;
+    }
+
+    /**
+     * @return Número de décadas que abarca la escala de colores.
+     */
+    public int getDecades() {
+        return DECADES;
+    }
+
+    /**
+     * @return Región actual {minX, minY, maxX, maxY} en metros.
+     */
+    public synchronized double[] getViewport() {
+        return new double[]{minX, minY, maxX, maxY};
+    }
+
+    /**
+     * Convierte una coordenada x del plano a columna de píxel.
+     *
+     * @param x Coordenada x en metros.
+     * @return Columna de píxel (puede quedar fuera de la imagen).
+     */
+    public synchronized double toPixelX(double x) {
+        return (x - minX) / (maxX - minX) * image.getWidth();
+    }
+
+    /**
+     * Convierte una coordenada y del plano a fila de píxel (y crece hacia
+     * arriba en el plano y hacia abajo en la imagen).
+     *
+     * @param y Coordenada y en metros.
+     * @return Fila de píxel (puede quedar fuera de la imagen).
+     */
+    public synchronized double toPixelY(double y) {
+        return (maxY - y) / (maxY - minY) * image.getHeight();
+    }
+
+    @Override
+    public void added(FieldE fieldE) {
+        touch(fieldE);
+    }
+
+    @Override
+    public void removed(FieldE fieldE) {
+        touch(fieldE);
+    }
+
+    @Override
+    public void cleared() {
+        Runnable callback;
+        synchronized (this) {
+            invalidateAll();
+            callback = onChange;
+        }
+        if (callback != null) {
+            callback.run();
+        }
+    }
+
+    // Acumula en cada baldosa la cota del cambio de |E| que produce la carga
+    private void touch(FieldE fieldE) {
+        double x = PointCharges.positionX(fieldE.getDistanciaR(), fieldE.getAnguloA());
+        double y = PointCharges.positionY(fieldE.getDistanciaR(), fieldE.getAnguloA());
+        double strength = FieldE.K * Math.abs(fieldE.getCargaQ());
+        boolean changed = false;
+        Runnable callback;
+        synchronized (this) {
+            if (!hasViewport || !Double.isFinite(x) || !Double.isFinite(y)) {
+                return;
+            }
+            double pixelWidth = (maxX - minX) / image.getWidth();
+            double pixelHeight = (maxY - minY) / image.getHeight();
+            for (Tile tile : tiles) {
+                if (tile.dirty) {
+                    continue;
+                }
+                double left = minX + tile.x * pixelWidth;
+                double right = left + tile.width * pixelWidth;
+                double top = maxY - tile.y * pixelHeight;
+                double bottom = top - tile.height * pixelHeight;
+                double dx = Math.max(0, Math.max(left - x, x - right));
+                double dy = Math.max(0, Math.max(bottom - y, y - top));
+                double r2 = dx * dx + dy * dy;
+                tile.pending += r2 > 0 ? strength / r2 : Double.POSITIVE_INFINITY;
+                if (tile.pending > TOLERANCE * tile.minMagnitude) {
+                    tile.dirty = true;
+                    changed = true;
+                }
+            }
+            callback = onChange;
+        }
+        if (changed && callback != null) {
+            callback.run();
+        }
+    }
+
+    // Requiere el monitor de este objeto
+    private void invalidateAll() {
+        for (Tile tile : tiles) {
+            tile.dirty = true;
+        }
+        logMax = Double.NaN;
+        generation++;
+    }
+
+    // Paleta de negro a amarillo pasando por morado y naranja
+    private static int[] palette() {
+        int[][] stops = {{0, 0, 4}, {87, 16, 110}, {188, 55, 84}, {249, 142, 9}, {252, 255, 164}};
+        int[] colors = new int[LEVELS];
+        for (int i = 0; i < LEVELS; i++) {
+            double position = (double) i / (LEVELS - 1) * (stops.length - 1);
+            int stop = Math.min((int) position, stops.length - 2);
+            double t = position - stop;
+            int rgb = 0;
+            for (int channel = 0; channel < 3; channel++) {
+                int value = (int) Math.round(stops[stop][channel] + t * (stops[stop + 1][channel] - stops[stop][channel]));
+                rgb = (rgb << 8) | value;
+            }
+            colors[i] = rgb;
+        }
+        return colors;
+    }
+
+    /**
+     * Baldosa: rectángulo de píxeles con su |E| en caché (log10, por píxel) y
+     * el estado de invalidación.
+     */
+    private static final class Tile {
+
+        final int x;
+        final int y;
+        final int width;
+        final int height;
+        final float[] logMagnitude;
+        final int[] rgb;
+        boolean dirty = true;
+        double pending;             // Cota acumulada del cambio de |E| desde el último cálculo
+        double minMagnitude;        // Menor |E| de la baldosa en el último cálculo
+        double logMax;              // Mayor log10|E| finito de la baldosa
+
+        Tile(int x, int y, int width, int height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            logMagnitude = new float[width * height];
+            rgb = new int[width * height];
+        }
+    }
+
+    // Calcula |E| de un rango de baldosas, dividiéndolo a la mitad hasta una baldosa por tarea
+    private final class Evaluate extends RecursiveAction {
+
+        private final Tile[] work;
+        private final double[] viewport;
+        private final int width;
+        private final int height;
+        private final int from;
+        private final int to;
+
+        Evaluate(Tile[] work, double[] viewport, int width, int height, int from, int to) {
+            this.work = work;
+            this.viewport = viewport;
+            this.width = width;
+            this.height = height;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Evaluate(work, viewport, width, height, from, middle),
+                        new Evaluate(work, viewport, width, height, middle, to));
+                return;
+            }
+            Tile tile = work[from];
+            int count = tile.width * tile.height;
+            double[] xs = new double[count];
+            double[] ys = new double[count];
+            double pixelWidth = (viewport[2] - viewport[0]) / width;
+            double pixelHeight = (viewport[3] - viewport[1]) / height;
+            for (int i = 0; i < count; i++) {
+                xs[i] = viewport[0] + (tile.x + i % tile.width + 0.5) * pixelWidth;
+                ys[i] = viewport[3] - (tile.y + i / tile.width + 0.5) * pixelHeight;
+            }
+            double[] ex = new double[count];
+            double[] ey = new double[count];
+            field.evaluate(xs, ys, ex, ey, null);
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < count; i++) {
+                double magnitude = Math.hypot(ex[i], ey[i]);
+                min = Math.min(min, magnitude);
+                double log = Math.log10(magnitude);
+                tile.logMagnitude[i] = (float) log;
+                if (Double.isFinite(log)) {
+                    max = Math.max(max, log);
+                }
+            }
+            tile.minMagnitude = min;
+            tile.logMax = max;
+        }
+    }
+
+    // Traduce |E| a colores con la escala fijada y copia las baldosas a la imagen
+    private static final class Colorize extends RecursiveAction {
+
+        private final Tile[] work;
+        private final BufferedImage target;
+        private final double logMax;
+        private final int from;
+        private final int to;
+
+        Colorize(Tile[] work, BufferedImage target, double logMax, int from, int to) {
+            this.work = work;
+            this.target = target;
+            this.logMax = logMax;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Colorize(work, target, logMax, from, middle),
+                        new Colorize(work, target, logMax, middle, to));
+                return;
+            }
+            Tile tile = work[from];
+            double logMin = logMax - DECADES;
+            for (int i = 0; i < tile.rgb.length; i++) {
+                double level = (tile.logMagnitude[i] - logMin) / DECADES * (LEVELS - 1);
+                int index = Double.isNaN(level) ? 0 : (int) Math.max(0, Math.min(LEVELS - 1, level));
+                tile.rgb[i] = PALETTE[index];
+            }
+            target.setRGB(tile.x, tile.y, tile.width, tile.height, tile.rgb, 0, tile.width);
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package Models;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Trazado de líneas de campo eléctrico de un conjunto de cargas puntuales.
+ *
+ * Cada línea se siembra en un círculo pequeño alrededor de su carga (en el
+ * sentido de E para las positivas y en el contrario para las negativas) y se
+ * integra la dirección unitaria del campo, dr/ds = ±E/|E|, con el par
+ * encajado de Runge-Kutta 4(5) de Dormand-Prince y control de paso
+ * adaptativo: el paso crece donde el campo es suave y se reduce junto a las
+ * cargas. La línea termina al entrar en el círculo de captura de otra carga,
+ * al salir de la región, en un punto de campo nulo o al llegar al máximo de
+ * puntos.
+ *
+ * Las semillas se trazan en paralelo en un pool de fork/join (con robo de
+ * tareas, ya que las líneas tienen longitudes muy distintas) y el resultado se
+ * empaqueta en un {@link FieldLines}.
+ */
+public final class FieldLineTracer {
+
+    private static final int MAX_POINTS = 4096;
+    private static final double SEED_FRACTION = 0.005;      // Radio de siembra máximo respecto a la diagonal
+    private static final double TOLERANCE_FRACTION = 1e-5;  // Error local por paso respecto a la diagonal
+    private static final double MAX_STEP_FRACTION = 0.01;   // Paso máximo respecto a la diagonal
+
+    // Tablero de Butcher de Dormand-Prince 5(4)
+    private static final double A21 = 1.0 / 5;
+    private static final double A31 = 3.0 / 40, A32 = 9.0 / 40;
+    private static final double A41 = 44.0 / 45, A42 = -56.0 / 15, A43 = 32.0 / 9;
+    private static final double A51 = 19372.0 / 6561, A52 = -25360.0 / 2187, A53 = 64448.0 / 6561, A54 = -212.0 / 729;
+    private static final double A61 = 9017.0 / 3168, A62 = -355.0 / 33, A63 = 46732.0 / 5247, A64 = 49.0 / 176,
+            A65 = -5103.0 / 18656;
+    private static final double B1 = 35.0 / 384, B3 = 500.0 / 1113, B4 = 125.0 / 192, B5 = -2187.0 / 6784, B6 = 11.0 / 84;
+    // Diferencia entre la solución de orden 5 y la de orden 4
+    private static final double E1 = 71.0 / 57600, E3 = -71.0 / 16695, E4 = 71.0 / 1920, E5 = -17253.0 / 339200,
+            E6 = 22.0 / 525, E7 = -1.0 / 40;
+
+    private final PointCharges charges;
+    private final ForkJoinPool pool;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final double tolerance;
+    private final double maxStep;
+    private final double[] radius; // Radio de siembra y de captura de cada carga
+
+    /**
+     * Crea un trazador sobre el pool común de fork/join.
+     *
+     * @param charges Cargas que generan el campo.
+     * @param minX Borde izquierdo de la región en metros.
+     * @param minY Borde inferior de la región en metros.
+     * @param maxX Borde derecho de la región en metros.
+     * @param maxY Borde superior de la región en metros.
+     */
+    public FieldLineTracer(PointCharges charges, double minX, double minY, double maxX, double maxY) {
+        this(charges, minX, minY, maxX, maxY, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea un trazador que reparte las semillas en el pool indicado.
+     *
+     * @param charges Cargas que generan el campo.
+     * @param minX Borde izquierdo de la región en metros.
+     * @param minY Borde inferior de la región en metros.
+     * @param maxX Borde derecho de la región en metros.
+     * @param maxY Borde superior de la región en metros.
+     * @param pool Pool de fork/join para las semillas.
+     */
+    public FieldLineTracer(PointCharges charges, double minX, double minY, double maxX, double maxY, ForkJoinPool pool) {
+        if (!(minX < maxX && minY < maxY)) {
+            throw new IllegalArgumentException("Región no válida");
+        }
+        this.charges = charges;
+        this.pool = pool;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        double diagonal = Math.hypot(maxX - minX, maxY - minY);
+        tolerance = TOLERANCE_FRACTION * diagonal;
+        maxStep = MAX_STEP_FRACTION * diagonal;
+        radius = captureRadii(SEED_FRACTION * diagonal);
+    }
+
+    /**
+     * Traza las líneas de campo de todas las cargas. La carga de mayor |q|
+     * recibe {@code linesPerCharge} líneas y las demás un número proporcional
+     * a su |q| (al menos una); las cargas nulas no generan líneas.
+     *
+     * @param linesPerCharge Líneas de la carga más intensa.
+     * @return Líneas trazadas, agrupadas por carga en el orden de
+     * {@link PointCharges}.
+     */
+    public FieldLines trace(int linesPerCharge) {
+        double maxCharge = 0;
+        for (int i = 0; i < charges.size(); i++) {
+            maxCharge = Math.max(maxCharge, Math.abs(charges.q(i)));
+        }
+        int[] seedCharge = new int[0];
+        double[] seedAngle = new double[0];
+        int seeds = 0;
+        for (int i = 0; maxCharge > 0 && i < charges.size(); i++) {
+            double q = Math.abs(charges.q(i));
+            if (q == 0 || !Double.isFinite(charges.x(i)) || !Double.isFinite(charges.y(i))) {
+                continue;
+            }
+            int count = Math.max(1, (int) Math.round(linesPerCharge * q / maxCharge));
+            if (seeds + count > seedCharge.length) {
+                int capacity = Math.max(seeds + count, seedCharge.length * 2);
+                seedCharge = Arrays.copyOf(seedCharge, capacity);
+                seedAngle = Arrays.copyOf(seedAngle, capacity);
+            }
+            for (int k = 0; k < count; k++) {
+                seedCharge[seeds] = i;
+                seedAngle[seeds] = 2 * Math.PI * (k + 0.5) / count;
+                seeds++;
+            }
+        }
+        float[][] lines = new float[seeds][];
+        byte[] ends = new byte[seeds];
+        if (seeds > 0) {
+            pool.invoke(new Trace(seedCharge, seedAngle, lines, ends, 0, seeds));
+        }
+        int[] starts = new int[seeds + 1];
+        int[] sources = new int[seeds];
+        for (int s = 0; s < seeds; s++) {
+            starts[s + 1] = starts[s] + lines[s].length / 2;
+            sources[s] = charges.idAt(seedCharge[s]);
+        }
+        float[] coords = new float[starts[seeds] * 2];
+        for (int s = 0; s < seeds; s++) {
+            System.arraycopy(lines[s], 0, coords, starts[s] * 2, lines[s].length);
+        }
+        return new FieldLines(coords, starts, sources, ends);
+    }
+
+    // Radio de cada carga: el máximo indicado, reducido a un cuarto de la distancia a la carga más cercana
+    private double[] captureRadii(double maxRadius) {
+        int n = charges.size();
+        double[] radii = new double[n];
+        Arrays.fill(radii, maxRadius);
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double quarter = Math.hypot(charges.x(i) - charges.x(j), charges.y(i) - charges.y(j)) / 4;
+                if (quarter > 0) {
+                    radii[i] = Math.min(radii[i], quarter);
+                    radii[j] = Math.min(radii[j], quarter);
+                }
+            }
+        }
+        return radii;
+    }
+
+    /**
+     * Estado de una línea en curso: el buffer de puntos y el resultado de la
+     * última evaluación de la dirección.
+     */
+    private final class Line {
+
+        final int source;
+        final double sign;
+        float[] points = new float[256];
+        int length;
+        double dx;        // Dirección unitaria evaluada
+        double dy;
+        int captured = -1; // Carga en cuyo círculo de captura cae el último punto evaluado
+
+        Line(int source) {
+            this.source = source;
+            this.sign = charges.q(source) > 0 ? 1 : -1;
+        }
+
+        void append(double x, double y) {
+            if (length + 2 > points.length) {
+                points = Arrays.copyOf(points, points.length * 2);
+            }
+            points[length++] = (float) x;
+            points[length++] = (float) y;
+        }
+
+        // Dirección ±E/|E| en (x, y); false si el campo es nulo o no finito
+        boolean direction(double x, double y) {
+            double[] cx = charges.xs();
+            double[] cy = charges.ys();
+            double[] cq = charges.qs();
+            double sumX = 0;
+            double sumY = 0;
+            captured = -1;
+            for (int i = 0; i < cq.length; i++) {
+                double rx = x - cx[i];
+                double ry = y - cy[i];
+                double r2 = rx * rx + ry * ry;
+                if (i != source && r2 < radius[i] * radius[i]) {
+                    captured = i;
+                }
+                if (r2 > 0) {
+                    double s = cq[i] / (r2 * Math.sqrt(r2));
+                    sumX += s * rx;
+                    sumY += s * ry;
+                }
+            }
+            double norm = Math.hypot(sumX, sumY);
+            if (!(norm > 0) || Double.isInfinite(norm)) {
+                return false;
+            }
+            dx = sign * sumX / norm;
+            dy = sign * sumY / norm;
+            return true;
+        }
+
+        // Integra desde la semilla; devuelve el motivo de terminación
+        byte run(double x, double y) {
+            append(x, y);
+            if (!direction(x, y)) {
+                return FieldLines.END_STALLED;
+            }
+            double h = radius[source];
+            double minStep = tolerance * 1e-3;
+            double k1x = dx, k1y = dy;
+            while (length / 2 < MAX_POINTS) {
+                if (!direction(x + h * A21 * k1x, y + h * A21 * k1y)) {
+                    return FieldLines.END_STALLED;
+                }
+                double k2x = dx, k2y = dy;
+                if (!direction(x + h * (A31 * k1x + A32 * k2x), y + h * (A31 * k1y + A32 * k2y))) {
+                    return FieldLines.END_STALLED;
+                }
+                double k3x = dx, k3y = dy;
+                if (!direction(x + h * (A41 * k1x + A42 * k2x + A43 * k3x), y + h * (A41 * k1y + A42 * k2y + A43 * k3y))) {
+                    return FieldLines.END_STALLED;
+                }
+                double k4x = dx, k4y = dy;
+                if (!direction(x + h * (A51 * k1x + A52 * k2x + A53 * k3x + A54 * k4x),
+                        y + h * (A51 * k1y + A52 * k2y + A53 * k3y + A54 * k4y))) {
+                    return FieldLines.END_STALLED;
+                }
+                double k5x = dx, k5y = dy;
+                if (!direction(x + h * (A61 * k1x + A62 * k2x + A63 * k3x + A64 * k4x + A65 * k5x),
+                        y + h * (A61 * k1y + A62 * k2y + A63 * k3y + A64 * k4y + A65 * k5y))) {
+                    return FieldLines.END_STALLED;
+                }
+                double k6x = dx, k6y = dy;
+                double nextX = x + h * (B1 * k1x + B3 * k3x + B4 * k4x + B5 * k5x + B6 * k6x);
+                double nextY = y + h * (B1 * k1y + B3 * k3y + B4 * k4y + B5 * k5y + B6 * k6y);
+                // Última etapa en el punto nuevo: sirve de primera etapa del siguiente paso (FSAL)
+                if (!direction(nextX, nextY)) {
+                    return FieldLines.END_STALLED;
+                }
+                double k7x = dx, k7y = dy;
+                double errX = h * (E1 * k1x + E3 * k3x + E4 * k4x + E5 * k5x + E6 * k6x + E7 * k7x);
+                double errY = h * (E1 * k1y + E3 * k3y + E4 * k4y + E5 * k5y + E6 * k6y + E7 * k7y);
+                double error = Math.hypot(errX, errY);
+                double factor = error == 0 ? 5 : Math.min(5, Math.max(0.2, 0.9 * Math.pow(tolerance / error, 0.2)));
+                if (error > tolerance && h > minStep) {
+                    h = Math.max(minStep, h * factor); // Paso rechazado: se repite desde el mismo punto
+                    continue;
+                }
+                if (nextX < minX || nextX > maxX || nextY < minY || nextY > maxY) {
+                    double t = exitFraction(x, y, nextX, nextY);
+                    append(x + t * (nextX - x), y + t * (nextY - y));
+                    return FieldLines.END_BOUNDARY;
+                }
+                if (captured >= 0) {
+                    append(charges.x(captured), charges.y(captured));
+                    return FieldLines.END_CHARGE;
+                }
+                x = nextX;
+                y = nextY;
+                append(x, y);
+                k1x = k7x;
+                k1y = k7y;
+                h = Math.min(maxStep, Math.max(minStep, h * factor));
+            }
+            return FieldLines.END_LENGTH;
+        }
+
+        // Fracción del segmento (x0, y0)-(x1, y1) en la que sale de la región
+        double exitFraction(double x0, double y0, double x1, double y1) {
+            double t = 1;
+            if (x1 < minX) {
+                t = Math.min(t, (minX - x0) / (x1 - x0));
+            } else if (x1 > maxX) {
+                t = Math.min(t, (maxX - x0) / (x1 - x0));
+            }
+            if (y1 < minY) {
+                t = Math.min(t, (minY - y0) / (y1 - y0));
+            } else if (y1 > maxY) {
+                t = Math.min(t, (maxY - y0) / (y1 - y0));
+            }
+            return Math.max(0, t);
+        }
+    }
+
+    // Divide las semillas hasta trazar una línea por tarea
+    private final class Trace extends RecursiveAction {
+
+        private final int[] seedCharge;
+        private final double[] seedAngle;
+        private final float[][] lines;
+        private final byte[] ends;
+        private final int from;
+        private final int to;
+
+        Trace(int[] seedCharge, double[] seedAngle, float[][] lines, byte[] ends, int from, int to) {
+            this.seedCharge = seedCharge;
+            this.seedAngle = seedAngle;
+            this.lines = lines;
+            this.ends = ends;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Trace(seedCharge, seedAngle, lines, ends, from, middle),
+                        new Trace(seedCharge, seedAngle, lines, ends, middle, to));
+                return;
+            }
+            int source = seedCharge[from];
+            double r = radius[source];
+            Line line = new Line(source);
+            ends[from] = line.run(charges.x(source) + r * Math.cos(seedAngle[from]),
+                    charges.y(source) + r * Math.sin(seedAngle[from]));
+            lines[from] = Arrays.copyOf(line.points, line.length);
+        }
+    }
+}
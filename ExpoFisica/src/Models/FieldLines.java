@@ -0,0 +1,115 @@
+package Models;
+
+/**
+ * Conjunto de líneas de campo empaquetado: todos los puntos de todas las
+ * líneas en un único {@code float[]} de pares x, y, más el índice del primer
+ * punto de cada línea. Dibujarlas no requiere crear ningún objeto por punto.
+ */
+public final class FieldLines {
+
+    /**
+     * La línea terminó sobre otra carga.
+     */
+    public static final byte END_CHARGE = 0;
+    /**
+     * La línea salió de la región de trazado.
+     */
+    public static final byte END_BOUNDARY = 1;
+    /**
+     * La línea llegó a un punto de campo nulo o el paso se hizo demasiado
+     * pequeño.
+     */
+    public static final byte END_STALLED = 2;
+    /**
+     * La línea alcanzó el máximo de puntos.
+     */
+    public static final byte END_LENGTH = 3;
+
+    private final float[] coords;
+    private final int[] starts;
+    private final int[] sources;
+    private final byte[] ends;
+
+    /**
+     * @param coords Pares x, y de todas las líneas, consecutivas.
+     * @param starts Primer punto de cada línea, más el total al final.
+     * @param sources ID de la carga de la que parte cada línea.
+     * @param ends Motivo de terminación de cada línea.
+     */
+    FieldLines(float[] coords, int[] starts, int[] sources, byte[] ends) {
+        this.coords = coords;
+        this.starts = starts;
+        this.sources = sources;
+        this.ends = ends;
+    }
+
+    /**
+     * @return Número de líneas.
+     */
+    public int lineCount() {
+        return sources.length;
+    }
+
+    /**
+     * @return Número total de puntos.
+     */
+    public int pointCount() {
+        return starts[sources.length];
+    }
+
+    /**
+     * @param line Índice de la línea.
+     * @return Índice del primer punto de la línea.
+     */
+    public int start(int line) {
+        return starts[line];
+    }
+
+    /**
+     * @param line Índice de la línea.
+     * @return Número de puntos de la línea.
+     */
+    public int size(int line) {
+        return starts[line + 1] - starts[line];
+    }
+
+    /**
+     * @param point Índice global del punto.
+     * @return Coordenada x del punto.
+     */
+    public float x(int point) {
+        return coords[point * 2];
+    }
+
+    /**
+     * @param point Índice global del punto.
+     * @return Coordenada y del punto.
+     */
+    public float y(int point) {
+        return coords[point * 2 + 1];
+    }
+
+    /**
+     * @return Pares x, y de todos los puntos (no modificar).
+     */
+    public float[] coords() {
+        return coords;
+    }
+
+    /**
+     * @param line Índice de la línea.
+     * @return ID del campo eléctrico (carga) del que parte la línea.
+     */
+    public int sourceId(int line) {
+        return sources[line];
+    }
+
+    /**
+     * @param line Índice de la línea.
+     * @return Motivo de terminación ({@link #END_CHARGE}, {@link #END_BOUNDARY},
+     * {@link #END_STALLED} o {@link #END_LENGTH}).
+     */
+    public byte end(int line) {
+        return ends[line];
+    }
+}
@@ -1,13 +1,16 @@
 package Models;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
 import java.util.regex.Pattern;
 
 /**
  * La clase ForceActions gestiona las operaciones CRUD (Crear, Leer, Actualizar,
  * Eliminar) sobre los objetos ForceE. Implementa el patrón Singleton para
- * garantizar una única instancia.
+ * garantizar una única instancia. Es seguro usarla desde varios hilos: las
+ * escrituras toman el cerrojo del almacén en exclusiva y las lecturas en modo
+ * compartido.
  */
 public class ForceActions {
 
@@ -21,9 +24,18 @@ public class ForceActions {
         return SingletonHelper.INSTANCE;
     }
 
-    // Mapa para almacenar las fuerzas eléctricas con sus IDs
-    private final Map<Integer, ForceE> forcesE = new HashMap<>();
-    private int forceECount = 0; // Contador de las fuerzas creadas
+    // Almacén de las fuerzas eléctricas indexadas por su ID primitivo
+    private final IntEntityStore<ForceE> forcesE = new IntEntityStore<>();
+    private final AtomicInteger forceECount = new AtomicInteger(); // Contador de las fuerzas creadas
+    // Fuerzas derivadas indexadas por el ID de su campo eléctrico de origen
+    private final IntEntityStore<ForceE> derivedBySource = new IntEntityStore<>();
+    // Cerrojo del almacén: escrituras exclusivas, lecturas compartidas
+    private final StampedLock lock = new StampedLock();
+
+    // Código del almacén en el log de escritura anticipada
+    static final byte WAL_STORE = 3;
+    // Log de escritura anticipada; null mientras no haya persistencia activa
+    private WriteAheadLog log;
 
     // Expresión regular precompilada para verificar si una cadena es un número double válido
     private static final Pattern DOUBLE_PATTERN = Pattern.compile("^[0-9]+(\\.[0-9]+)?$");
@@ -39,21 +51,28 @@ public class ForceActions {
     }
 
     /**
-     * Agrega una nueva fuerza eléctrica al mapa.
+     * Agrega una nueva fuerza eléctrica al almacén.
      *
      * @param campoE Campo eléctrico en N/C.
      * @param cargaQ Carga eléctrica en Coulombs.
      * @param resultado Resultado de la fuerza calculada.
      */
     public void addForceE(double campoE, double cargaQ, double resultado) {
-        ForceE forceE = new ForceE(forceECount, campoE, cargaQ, resultado);
-        forcesE.put(forceECount, forceE);
-        forceECount++;
+        int id = forceECount.getAndIncrement();
+        ForceE forceE = new ForceE(id, campoE, cargaQ, resultado);
+        long stamp = lock.writeLock();
+        try {
+            journal(WalRecord.OP_ADD, forceE);
+            storeForce(forceE);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
      * Modifica una fuerza eléctrica existente. Si el ID no existe, no se
-     * realiza la modificación.
+     * realiza la modificación. Una fuerza derivada conserva su campo de
+     * origen, de modo que el siguiente cálculo la vuelve a actualizar.
      *
      * @param id ID de la fuerza a modificar.
      * @param campoE Nuevo valor del campo eléctrico.
@@ -61,28 +80,283 @@ public class ForceActions {
      * @param resultado Nuevo resultado de la fuerza.
      */
     public void modifyForceE(int id, double campoE, double cargaQ, double resultado) {
-        if (forcesE.containsKey(id)) {
-            ForceE forceE = new ForceE(id, campoE, cargaQ, resultado);
-            forcesE.put(id, forceE);  // put sobrescribe si la clave ya existe
+        long stamp = lock.writeLock();
+        try {
+            ForceE previous = forcesE.get(id);
+            if (previous != null) {
+                ForceE forceE = new ForceE(id, campoE, cargaQ, resultado,
+                        previous.getFuenteId(), previous.getDireccion());
+                journal(WalRecord.OP_MODIFY, forceE);
+                storeForce(forceE);  // Sobrescribe la versión anterior
+            }
+        } finally {
+            lock.unlockWrite(stamp);
         }
     }
 
     /**
-     * Elimina una fuerza eléctrica del mapa.
+     * Elimina una fuerza eléctrica del almacén.
      *
      * @param id ID de la fuerza a eliminar.
      * @return true si se eliminó correctamente, false si no se encontró el ID.
      */
     public boolean deleteForceE(int id) {
-        return forcesE.remove(id) != null;
+        long stamp = lock.writeLock();
+        try {
+            if (log != null && forcesE.containsKey(id)) {
+                log.append(WalRecord.of(WAL_STORE, WalRecord.OP_DELETE, id));
+            }
+            return discardForce(id) != null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Importa un lote de fuerzas calculando sus resultados con F = E·q. El
+     * lote entero se añade bajo un único cerrojo y recibe IDs consecutivos.
+     *
+     * @param campoE Campos eléctricos en N/C.
+     * @param cargaQ Cargas eléctricas en Coulombs.
+     * @return ID de la primera fuerza importada.
+     */
+    public int importForces(double[] campoE, double[] cargaQ) {
+        int count = campoE.length;
+        if (cargaQ.length != count) {
+            throw new IllegalArgumentException("Las columnas del lote tienen longitudes distintas");
+        }
+        long stamp = lock.writeLock();
+        try {
+            int first = forceECount.getAndAdd(count);
+            forcesE.ensureCapacity(forcesE.size() + count);
+            for (int i = 0; i < count; i++) {
+                int id = first + i;
+                ForceE forceE = new ForceE(id, campoE[i], cargaQ[i], ForceE.calcularFuerza(campoE[i], cargaQ[i]));
+                journal(WalRecord.OP_ADD, forceE);
+                forcesE.put(id, forceE);
+            }
+            return first;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Guarda las fuerzas derivadas de un cálculo sobre los campos eléctricos
+     * almacenados, una por campo de origen. La fuerza de un campo que ya tenía
+     * una se actualiza en su misma fila; las derivadas de campos que no están
+     * en el lote (porque el campo se eliminó) se borran. Así repetir el
+     * cálculo reemplaza el anterior en lugar de añadir filas duplicadas. Todo
+     * el lote se aplica bajo un único cerrojo.
+     *
+     * @param fuenteIds IDs de los campos eléctricos de origen (sin repetir).
+     * @param campoE Campos eléctricos en N/C.
+     * @param cargaQ Cargas eléctricas en Coulombs.
+     * @param direccion Direcciones de las fuerzas en grados desde el eje x.
+     * @return Número de fuerzas nuevas (las demás se actualizaron).
+     */
+    public int storeDerivedForces(int[] fuenteIds, double[] campoE, double[] cargaQ, double[] direccion) {
+        int count = fuenteIds.length;
+        if (campoE.length != count || cargaQ.length != count || direccion.length != count) {
+            throw new IllegalArgumentException("Las columnas del lote tienen longitudes distintas");
+        }
+        long stamp = lock.writeLock();
+        try {
+            BitSet sources = new BitSet(); // Los IDs de los campos son densos
+            for (int fuenteId : fuenteIds) {
+                if (fuenteId < 0 || sources.get(fuenteId)) {
+                    throw new IllegalArgumentException("ID de campo de origen no válido o repetido: " + fuenteId);
+                }
+                sources.set(fuenteId);
+            }
+            // Primero las derivadas cuyo campo ya no existe, para no dejar restos del cálculo anterior
+            int[] stale = new int[derivedBySource.size()];
+            int staleCount = 0;
+            for (ForceE forceE : derivedBySource) {
+                if (!sources.get(forceE.getFuenteId())) {
+                    stale[staleCount++] = forceE.getId();
+                }
+            }
+            for (int i = 0; i < staleCount; i++) {
+                if (log != null) {
+                    log.append(WalRecord.of(WAL_STORE, WalRecord.OP_DELETE, stale[i]));
+                }
+                discardForce(stale[i]);
+            }
+            int added = 0;
+            for (int i = 0; i < count; i++) {
+                ForceE previous = derivedBySource.get(fuenteIds[i]);
+                int id = previous != null ? previous.getId() : forceECount.getAndIncrement();
+                ForceE forceE = new ForceE(id, campoE[i], cargaQ[i], ForceE.calcularFuerza(campoE[i], cargaQ[i]),
+                        fuenteIds[i], direccion[i]);
+                journal(previous != null ? WalRecord.OP_MODIFY : WalRecord.OP_ADD, forceE);
+                storeForce(forceE);
+                if (previous == null) {
+                    added++;
+                }
+            }
+            return added;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
      * Lista todas las fuerzas eléctricas almacenadas.
      *
-     * @return Un mapa con todas las fuerzas eléctricas.
+     * @return Vista inmutable de la versión actual de las fuerzas eléctricas.
+     */
+    public IntStoreSnapshot<ForceE> listForceE() {
+        long stamp = lock.readLock();
+        try {
+            return forcesE.snapshot(); // Vista sin copia; el almacén copia sus arreglos si se modifica después
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Exporta las fuerzas eléctricas a almacenamiento columnar, donde las
+     * agregaciones y los recálculos masivos son recorridos lineales.
+     * Cada llamada recorre el almacén y copia sus filas (O(n)).
+     *
+     * @return Copia columnar de las fuerzas eléctricas.
+     */
+    public ForceEColumns toColumns() {
+        long stamp = lock.readLock();
+        try {
+            return ForceEColumns.of(forcesE, forcesE.size());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Activa el registro de las operaciones en el log de escritura anticipada.
+     *
+     * @param log Log a usar, o null para trabajar solo en memoria.
      */
-    public Map<Integer, ForceE> listForceE() {
-        return new HashMap<>(forcesE); // Devuelve una copia para evitar modificaciones externas
+    void attachLog(WriteAheadLog log) {
+        long stamp = lock.writeLock();
+        try {
+            this.log = log;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Aplica un registro del log sin volver a registrarlo, restaurando también
+     * el contador de IDs.
+     *
+     * @param record Registro a aplicar.
+     */
+    void replay(WalRecord record) {
+        int id = record.id();
+        long stamp = lock.writeLock();
+        try {
+            if (record.op() == WalRecord.OP_DELETE) {
+                discardForce(id);
+            } else {
+                ForceE forceE = new ForceE(id, record.nextNumber(), record.nextNumber(), record.nextNumber());
+                if (record.hasMore()) { // Los registros anteriores a las fuerzas derivadas acaban aquí
+                    forceE.setFuenteId((int) record.nextNumber());
+                    forceE.setDireccion(record.nextNumber());
+                }
+                storeForce(forceE);
+            }
+            forceECount.accumulateAndGet(id + 1, Math::max);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Copia el contenido del almacén a una sección de instantánea y, en el
+     * mismo paso, empieza a registrar las operaciones en otro log; así cada
+     * operación queda en la instantánea o en el log nuevo, nunca en ninguno.
+     *
+     * @param next Log que recibe las operaciones posteriores a la copia.
+     * @return Sección con las fuerzas y el contador de IDs.
+     */
+    SnapshotSection captureSnapshot(WriteAheadLog next) {
+        long stamp = lock.writeLock();
+        try {
+            SnapshotSection section = new SnapshotSection(WAL_STORE, forceECount.get(), forcesE.size(), 5, 0);
+            double[][] columns = section.numbers;
+            int row = 0;
+            for (ForceE forceE : forcesE) {
+                section.ids[row] = forceE.getId();
+                columns[0][row] = forceE.getCampoE();
+                columns[1][row] = forceE.getCargaQ();
+                columns[2][row] = forceE.getResultado();
+                columns[3][row] = forceE.getFuenteId();
+                columns[4][row] = forceE.getDireccion();
+                row++;
+            }
+            log = next;
+            return section;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Sustituye el contenido del almacén por el de una sección de instantánea.
+     * Las instantáneas anteriores a las fuerzas derivadas solo traen tres
+     * columnas.
+     *
+     * @param section Sección leída de la instantánea.
+     */
+    void restoreSnapshot(SnapshotSection section) {
+        double[][] columns = section.numbers;
+        long stamp = lock.writeLock();
+        try {
+            forcesE.clear();
+            derivedBySource.clear();
+            forcesE.ensureCapacity(section.rows);
+            boolean derived = columns.length >= 5;
+            for (int row = 0; row < section.rows; row++) {
+                int id = section.ids[row];
+                storeForce(derived
+                        ? new ForceE(id, columns[0][row], columns[1][row], columns[2][row],
+                                (int) columns[3][row], columns[4][row])
+                        : new ForceE(id, columns[0][row], columns[1][row], columns[2][row]));
+            }
+            forceECount.set(section.nextId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Guarda una fuerza y mantiene el índice de derivadas por campo de origen
+    private void storeForce(ForceE forceE) {
+        ForceE previous = forcesE.put(forceE.getId(), forceE);
+        if (previous != null && previous.getFuenteId() != ForceE.SIN_FUENTE) {
+            derivedBySource.remove(previous.getFuenteId());
+        }
+        if (forceE.getFuenteId() != ForceE.SIN_FUENTE) {
+            derivedBySource.put(forceE.getFuenteId(), forceE);
+        }
+    }
+
+    // Elimina una fuerza y, si era derivada, su entrada en el índice por campo de origen
+    private ForceE discardForce(int id) {
+        ForceE previous = forcesE.remove(id);
+        if (previous != null && previous.getFuenteId() != ForceE.SIN_FUENTE) {
+            derivedBySource.remove(previous.getFuenteId());
+        }
+        return previous;
+    }
+
+    private void journal(byte op, ForceE forceE) {
+        if (log != null) {
+            WalRecord record = WalRecord.of(WAL_STORE, op, forceE.getId())
+                    .number(forceE.getCampoE()).number(forceE.getCargaQ()).number(forceE.getResultado());
+            if (forceE.getFuenteId() != ForceE.SIN_FUENTE) {
+                record.number(forceE.getFuenteId()).number(forceE.getDireccion());
+            }
+            log.append(record);
+        }
     }
 }
@@ -2,7 +2,10 @@ package Models;
 
 /**
  * La clase ForceE representa la fuerza eléctrica en base a un campo eléctrico y
- * una carga.
+ * una carga. Las fuerzas derivadas de los campos almacenados (ver
+ * {@link NetForces#storeIn}) guardan además el ID del campo eléctrico del que
+ * proceden y la dirección de la fuerza; las que introduce el usuario no tienen
+ * ninguna de las dos.
  */
 public class ForceE {
 
@@ -10,6 +13,14 @@ public class ForceE {
     private double campoE;     // Campo eléctrico en N/C
     private double cargaQ;     // Carga eléctrica en Coulombs
     private double resultado;  // Resultado del cálculo de la fuerza
+    private int fuenteId = SIN_FUENTE;      // ID del campo eléctrico de origen
+    private double direccion = Double.NaN;  // Dirección en grados desde el eje x (NaN = desconocida)
+
+    /**
+     * Valor de {@link #getFuenteId()} en las fuerzas introducidas por el
+     * usuario.
+     */
+    public static final int SIN_FUENTE = -1;
 
     /**
      * Constructor vacío de ForceE. Útil cuando se desea inicializar un objeto
@@ -34,6 +45,22 @@ public class ForceE {
         this.resultado = resultado;
     }
 
+    /**
+     * Constructor de una fuerza derivada de un campo eléctrico almacenado.
+     *
+     * @param id Identificador único de la fuerza.
+     * @param campoE Valor del campo eléctrico en N/C.
+     * @param cargaQ Valor de la carga eléctrica en Coulombs.
+     * @param resultado Resultado de la fuerza calculada.
+     * @param fuenteId ID del campo eléctrico de origen, o {@link #SIN_FUENTE}.
+     * @param direccion Dirección en grados desde el eje x, o NaN.
+     */
+    public ForceE(int id, double campoE, double cargaQ, double resultado, int fuenteId, double direccion) {
+        this(id, campoE, cargaQ, resultado);
+        this.fuenteId = fuenteId;
+        this.direccion = direccion;
+    }
+
     /**
      * Obtiene el resultado de la fuerza calculada.
      *
@@ -105,4 +132,51 @@ public class ForceE {
     public void setCargaQ(double cargaQ) {
         this.cargaQ = cargaQ;
     }
+
+    /**
+     * Obtiene el ID del campo eléctrico del que se derivó la fuerza.
+     *
+     * @return ID del campo de origen, o {@link #SIN_FUENTE}.
+     */
+    public int getFuenteId() {
+        return fuenteId;
+    }
+
+    /**
+     * Establece el ID del campo eléctrico del que se derivó la fuerza.
+     *
+     * @param fuenteId ID del campo de origen, o {@link #SIN_FUENTE}.
+     */
+    public void setFuenteId(int fuenteId) {
+        this.fuenteId = fuenteId;
+    }
+
+    /**
+     * Obtiene la dirección de la fuerza.
+     *
+     * @return Dirección en grados desde el eje x, o NaN si se desconoce.
+     */
+    public double getDireccion() {
+        return direccion;
+    }
+
+    /**
+     * Establece la dirección de la fuerza.
+     *
+     * @param direccion Dirección en grados desde el eje x, o NaN.
+     */
+    public void setDireccion(double direccion) {
+        this.direccion = direccion;
+    }
+
+    /**
+     * Calcula la fuerza eléctrica sobre una carga: F = E·q.
+     *
+     * @param campoE Campo eléctrico en N/C.
+     * @param cargaQ Carga eléctrica en Coulombs.
+     * @return Fuerza en Newtons.
+     */
+    public static double calcularFuerza(double campoE, double cargaQ) {
+        return campoE * cargaQ;
+    }
 }
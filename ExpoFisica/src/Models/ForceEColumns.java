@@ -0,0 +1,168 @@
+package Models;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Almacenamiento columnar de fuerzas eléctricas: campoE, cargaQ y resultado
+ * viven cada uno en su propio {@code double[]}. Las vistas {@link Row} que
+ * entrega son flyweights respaldados por las columnas, con los getters y
+ * setters de {@link ForceE} salvo el del ID.
+ *
+ * No es el almacenamiento de los *Actions: estos guardan objetos del modelo
+ * porque sus vistas, oyentes, log y copias se basan en ellos; toColumns()
+ * construye una copia columnar puntual para agregaciones y recálculos
+ * masivos, que solo compensa cuando el recorrido amortiza la copia O(n).
+ */
+public class ForceEColumns extends DoubleColumnStore implements Iterable<ForceEColumns.Row> {
+
+    public static final int CAMPO_E = 0;
+    public static final int CARGA_Q = 1;
+    public static final int RESULTADO = 2;
+
+    /**
+     * Crea un almacén columnar vacío.
+     *
+     * @param expectedSize Número de fuerzas esperado.
+     */
+    public ForceEColumns(int expectedSize) {
+        super(3, expectedSize);
+    }
+
+    /**
+     * Construye el almacén columnar a partir de una colección de fuerzas.
+     *
+     * @param forcesE Fuerzas a copiar.
+     * @param expectedSize Número de fuerzas esperado.
+     * @return Almacén columnar con los mismos datos.
+     */
+    public static ForceEColumns of(Iterable<ForceE> forcesE, int expectedSize) {
+        ForceEColumns columns = new ForceEColumns(expectedSize);
+        for (ForceE forceE : forcesE) {
+            columns.add(forceE.getId(), forceE.getCampoE(), forceE.getCargaQ(), forceE.getResultado());
+        }
+        return columns;
+    }
+
+    /**
+     * Añade o sobrescribe una fuerza eléctrica.
+     *
+     * @param id ID de la fuerza.
+     * @param campoE Campo eléctrico en N/C.
+     * @param cargaQ Carga eléctrica en Coulombs.
+     * @param resultado Fuerza calculada.
+     * @return Fila asignada.
+     */
+    public int add(int id, double campoE, double cargaQ, double resultado) {
+        int row = addRow(id);
+        set(row, CAMPO_E, campoE);
+        set(row, CARGA_Q, cargaQ);
+        set(row, RESULTADO, resultado);
+        return row;
+    }
+
+    /**
+     * Recalcula la columna de resultados con {@link ForceE#calcularFuerza} en
+     * un único recorrido lineal.
+     */
+    public void recalculate() {
+        double[] campoE = column(CAMPO_E);
+        double[] cargaQ = column(CARGA_Q);
+        double[] resultado = column(RESULTADO);
+        for (int i = 0, n = size(); i < n; i++) {
+            resultado[i] = ForceE.calcularFuerza(campoE[i], cargaQ[i]);
+        }
+    }
+
+    /**
+     * Crea una vista flyweight de una fila.
+     *
+     * @param row Índice de fila.
+     * @return Fuerza respaldada por las columnas.
+     */
+    public Row view(int row) {
+        Row view = new Row();
+        view.row = row;
+        return view;
+    }
+
+    /**
+     * Recorre las filas reutilizando una única vista flyweight: el objeto
+     * devuelto por next() cambia de fila en cada llamada y no debe guardarse.
+     *
+     * @return Iterador sobre las filas.
+     */
+    @Override
+    public Iterator<Row> iterator() {
+        Row view = new Row();
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size();
+            }
+
+            @Override
+            public Row next() {
+                if (next >= size()) {
+                    throw new NoSuchElementException();
+                }
+                view.row = next++;
+                return view;
+            }
+        };
+    }
+
+    /**
+     * Vista de una fila: no guarda datos propios, todo se delega a las
+     * columnas. El ID de la fila no se puede cambiar, por eso no es un
+     * {@link ForceE} con su {@code setId}.
+     */
+    public final class Row {
+
+        private int row;
+
+        private Row() {
+        }
+
+        public int getId() {
+            return idAt(row);
+        }
+
+        /**
+         * Copia la fila a un {@link ForceE} para el código que trabaja con el
+         * modelo; la copia no cambia si después se modifica la fila. Las columnas no guardan
+         * la fuente ni la dirección, así que la copia queda sin fuente.
+         *
+         * @return Copia de la fila.
+         */
+        public ForceE toForceE() {
+            return new ForceE(getId(), getCampoE(), getCargaQ(), getResultado());
+        }
+
+        public double getCampoE() {
+            return get(row, CAMPO_E);
+        }
+
+        public void setCampoE(double campoE) {
+            set(row, CAMPO_E, campoE);
+        }
+
+        public double getCargaQ() {
+            return get(row, CARGA_Q);
+        }
+
+        public void setCargaQ(double cargaQ) {
+            set(row, CARGA_Q, cargaQ);
+        }
+
+        public double getResultado() {
+            return get(row, RESULTADO);
+        }
+
+        public void setResultado(double resultado) {
+            set(row, RESULTADO, resultado);
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package Models;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Almacén de entidades indexado por IDs enteros primitivos. Las entidades se
+ * guardan en arreglos densos en orden de inserción y se localizan mediante un
+ * índice de direccionamiento abierto con sondeo lineal, de modo que no se crea
+ * ningún objeto Integer ni nodo por entrada como ocurre con
+ * {@code HashMap<Integer, T>}.
+ *
+ * Las lecturas desde otras partes de la aplicación usan {@link #snapshot()},
+ * que publica la versión actual en O(1) compartiendo los arreglos. Los
+ * arreglos densos y el índice están repartidos en trozos de {@value #CHUNK}
+ * posiciones con copia en escritura por trozo: tras publicar una vista, la
+ * siguiente modificación copia el directorio de trozos (n / {@value #CHUNK}
+ * referencias) y solo los trozos que toca, no el almacén entero.
+ *
+ * @param <T> Tipo de entidad almacenada.
+ */
+public final class IntEntityStore<T> implements Iterable<T> {
+
+    private static final int MIN_CAPACITY = 16;
+    static final int CHUNK_BITS = 10;
+    static final int CHUNK = 1 << CHUNK_BITS;
+    static final int CHUNK_MASK = CHUNK - 1;
+
+    // Trozos de los arreglos densos: posición -> id y posición -> entidad (null = hueco eliminado)
+    private int[][] ids;
+    private Object[][] values;
+    private boolean[] owned; // Trozos que se pueden escribir sin copiarlos
+    private int capacity;    // Posiciones reservadas en los trozos
+    private int end;  // Primera posición libre al final de los arreglos densos
+    private int size; // Número de entidades vivas
+
+    // Índice de direccionamiento abierto: ID -> posición densa
+    private ChunkedIntIndex index;
+
+    // Versión actual y vista publicada de ella (null si no se ha publicado)
+    private long version;
+    private IntStoreSnapshot<T> published;
+
+    /**
+     * Crea un almacén vacío con la capacidad mínima.
+     */
+    public IntEntityStore() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Crea un almacén vacío capaz de alojar la cantidad indicada de entidades
+     * sin redimensionarse.
+     *
+     * @param expectedSize Número de entidades esperado.
+     */
+    public IntEntityStore(int expectedSize) {
+        allocate(Math.max(MIN_CAPACITY, expectedSize));
+        index = new ChunkedIntIndex(capacity);
+    }
+
+    /**
+     * Obtiene la entidad asociada a un ID.
+     *
+     * @param id ID a buscar.
+     * @return La entidad, o null si no existe.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int id) {
+        int position = index.positionOf(ids, id);
+        return position < 0 ? null : (T) valueAt(values, position);
+    }
+
+    /**
+     * Verifica si existe una entidad con el ID indicado.
+     *
+     * @param id ID a buscar.
+     * @return true si el ID está presente.
+     */
+    public boolean containsKey(int id) {
+        return index.positionOf(ids, id) >= 0;
+    }
+
+    /**
+     * Asocia una entidad a un ID, reemplazando la anterior si existía. Las
+     * entidades nuevas se añaden al final, por lo que el orden de iteración es
+     * el orden de inserción.
+     *
+     * @param id ID de la entidad.
+     * @param value Entidad a almacenar (no puede ser null).
+     * @return La entidad reemplazada, o null si el ID era nuevo.
+     */
+    @SuppressWarnings("unchecked")
+    public T put(int id, T value) {
+        Objects.requireNonNull(value, "value");
+        int position = index.positionOf(ids, id);
+        beforeWrite();
+        if (position >= 0) {
+            T previous = (T) valueAt(values, position);
+            write(position, id, value);
+            return previous;
+        }
+        if (end == capacity) {
+            makeRoom();
+        }
+        write(end, id, value);
+        index.insert(id, end);
+        end++;
+        size++;
+        return null;
+    }
+
+    /**
+     * Reemplaza la entidad de un ID solo si ya existe.
+     *
+     * @param id ID de la entidad.
+     * @param value Nueva entidad (no puede ser null).
+     * @return La entidad reemplazada, o null si el ID no existía.
+     */
+    @SuppressWarnings("unchecked")
+    public T replace(int id, T value) {
+        Objects.requireNonNull(value, "value");
+        int position = index.positionOf(ids, id);
+        if (position < 0) {
+            return null;
+        }
+        beforeWrite();
+        T previous = (T) valueAt(values, position);
+        write(position, id, value);
+        return previous;
+    }
+
+    /**
+     * Elimina la entidad asociada a un ID.
+     *
+     * @param id ID de la entidad a eliminar.
+     * @return La entidad eliminada, o null si no existía.
+     */
+    @SuppressWarnings("unchecked")
+    public T remove(int id) {
+        int slot = index.slotOf(ids, id);
+        if (slot < 0) {
+            return null;
+        }
+        beforeWrite();
+        int position = index.positionAt(slot);
+        T previous = (T) valueAt(values, position);
+        index.delete(ids, slot); // Lee el ID de la posición antes de vaciarla
+        write(position, id, null);
+        size--;
+        if (position == end - 1) {
+            end--; // El último elemento no deja hueco
+        }
+        return previous;
+    }
+
+    /**
+     * @return Número de entidades almacenadas.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true si no hay entidades almacenadas.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Reserva espacio para al menos la cantidad indicada de entidades, de
+     * modo que una carga masiva no redimensione los arreglos varias veces.
+     * Si hay que crecer, la capacidad al menos se duplica, como al insertar,
+     * para que reservar lote a lote siga costando O(1) amortizado.
+     *
+     * @param capacity Número de entidades a alojar.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > this.capacity) {
+            beforeWrite();
+            grow((int) Math.min(Math.max(capacity, this.capacity * 2L), Integer.MAX_VALUE - CHUNK));
+        }
+    }
+
+    /**
+     * Elimina todas las entidades.
+     */
+    public void clear() {
+        beforeWrite();
+        allocate(capacity);
+        index = new ChunkedIntIndex(capacity);
+        end = 0;
+        size = 0;
+    }
+
+    /**
+     * Publica la versión actual como vista inmutable. No copia nada: mientras
+     * el almacén no cambie se devuelve la misma vista, y la primera
+     * modificación posterior copia solo el directorio de trozos y los trozos
+     * que modifica.
+     *
+     * @return Vista inmutable de la versión actual.
+     */
+    public IntStoreSnapshot<T> snapshot() {
+        if (published == null) {
+            published = new IntStoreSnapshot<>(ids, values, end, size, index.share(), version);
+        }
+        return published;
+    }
+
+    /**
+     * Crea una copia independiente y compactada del almacén. Solo se copian
+     * los arreglos; las entidades se comparten.
+     *
+     * @return Copia del almacén.
+     */
+    @SuppressWarnings("unchecked")
+    public IntEntityStore<T> copy() {
+        IntEntityStore<T> copy = new IntEntityStore<>(size);
+        for (int i = 0; i < end; i++) {
+            Object value = valueAt(values, i);
+            if (value != null) {
+                int id = ChunkedIntIndex.idAt(ids, i);
+                copy.write(copy.end, id, value);
+                copy.index.insert(id, copy.end);
+                copy.end++;
+            }
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Recorre las entidades en orden de inserción sin crear un iterador.
+     *
+     * @param action Acción a ejecutar sobre cada entidad.
+     */
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        forEach(values, end, action);
+    }
+
+    /**
+     * Iterador de solo lectura en orden de inserción.
+     *
+     * @return Iterador sobre las entidades.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return iterator(values, end);
+    }
+
+    /**
+     * @param values Trozos de entidades por posición.
+     * @param position Posición densa.
+     * @return Entidad de la posición (null = hueco).
+     */
+    static Object valueAt(Object[][] values, int position) {
+        return values[position >>> CHUNK_BITS][position & CHUNK_MASK];
+    }
+
+    // Recorrido por trozos de las primeras end posiciones, saltando los huecos
+    @SuppressWarnings("unchecked")
+    static <T> void forEach(Object[][] values, int end, Consumer<? super T> action) {
+        for (int chunk = 0, remaining = end; remaining > 0; chunk++) {
+            Object[] local = values[chunk];
+            int count = Math.min(remaining, local.length);
+            for (int i = 0; i < count; i++) {
+                Object value = local[i];
+                if (value != null) {
+                    action.accept((T) value);
+                }
+            }
+            remaining -= count;
+        }
+    }
+
+    // Iterador por posiciones de las primeras end posiciones, saltando los huecos
+    static <T> Iterator<T> iterator(Object[][] values, int end) {
+        return new Iterator<>() {
+            private int next = advance(0);
+
+            private int advance(int from) {
+                while (from < end && valueAt(values, from) == null) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (next >= end) {
+                    throw new NoSuchElementException();
+                }
+                T value = (T) valueAt(values, next);
+                next = advance(next + 1);
+                return value;
+            }
+        };
+    }
+
+    // Abre una nueva versión; si la actual está publicada, deja de compartir el directorio de trozos
+    private void beforeWrite() {
+        if (published != null) {
+            ids = ids.clone();
+            values = values.clone();
+            owned = new boolean[owned.length];
+            published = null;
+        }
+        version++;
+    }
+
+    // Escribe una posición, copiando antes su trozo si lo comparte una vista publicada
+    private void write(int position, int id, Object value) {
+        int chunk = position >>> CHUNK_BITS;
+        if (!owned[chunk]) {
+            ids[chunk] = ids[chunk].clone();
+            values[chunk] = values[chunk].clone();
+            owned[chunk] = true;
+        }
+        ids[chunk][position & CHUNK_MASK] = id;
+        values[chunk][position & CHUNK_MASK] = value;
+    }
+
+    // Reserva trozos vacíos; por debajo de un trozo se usa uno solo del tamaño justo
+    private void allocate(int requested) {
+        capacity = roundCapacity(requested);
+        int chunks = (capacity + CHUNK - 1) >>> CHUNK_BITS;
+        ids = new int[chunks][];
+        values = new Object[chunks][];
+        owned = new boolean[chunks];
+        for (int c = 0; c < chunks; c++) {
+            ids[c] = new int[Math.min(capacity, CHUNK)];
+            values[c] = new Object[Math.min(capacity, CHUNK)];
+            owned[c] = true;
+        }
+    }
+
+    // Añade trozos hasta la capacidad pedida y reindexa; los trozos existentes no se copian
+    private void grow(int requested) {
+        int newCapacity = roundCapacity(requested);
+        int chunks = ids.length;
+        int newChunks = (newCapacity + CHUNK - 1) >>> CHUNK_BITS;
+        ids = Arrays.copyOf(ids, newChunks);
+        values = Arrays.copyOf(values, newChunks);
+        owned = Arrays.copyOf(owned, newChunks);
+        if (capacity < CHUNK) { // El único trozo era más pequeño que un trozo completo
+            ids[0] = Arrays.copyOf(ids[0], Math.min(newCapacity, CHUNK));
+            values[0] = Arrays.copyOf(values[0], Math.min(newCapacity, CHUNK));
+            owned[0] = true;
+        }
+        for (int c = chunks; c < newChunks; c++) {
+            ids[c] = new int[CHUNK];
+            values[c] = new Object[CHUNK];
+            owned[c] = true;
+        }
+        capacity = newCapacity;
+        reindex();
+    }
+
+    // Los arreglos densos están llenos: compacta si hay muchos huecos, si no crece
+    private void makeRoom() {
+        if (size > end / 2) {
+            grow((int) Math.min(capacity * 2L, Integer.MAX_VALUE - CHUNK));
+            return;
+        }
+        int[][] oldIds = ids;
+        Object[][] oldValues = values;
+        int oldEnd = end;
+        allocate(capacity);
+        end = 0;
+        for (int i = 0; i < oldEnd; i++) {
+            Object value = valueAt(oldValues, i);
+            if (value != null) {
+                write(end++, ChunkedIntIndex.idAt(oldIds, i), value);
+            }
+        }
+        reindex();
+    }
+
+    // Reconstruye el índice para la capacidad actual a partir de las posiciones ocupadas
+    private void reindex() {
+        index = new ChunkedIntIndex(capacity);
+        for (int i = 0; i < end; i++) {
+            if (valueAt(values, i) != null) { // Los huecos no se indexan
+                index.insert(ChunkedIntIndex.idAt(ids, i), i);
+            }
+        }
+    }
+
+    // Capacidad real: la pedida si cabe en un trozo; si no, múltiplo del tamaño de trozo
+    private static int roundCapacity(int requested) {
+        return requested <= CHUNK ? requested : (requested + CHUNK_MASK) & ~CHUNK_MASK;
+    }
+}
@@ -0,0 +1,98 @@
+package Models;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Vista inmutable de una versión de un {@link IntEntityStore}. Comparte los
+ * arreglos del almacén en lugar de copiarlos, por lo que obtenerla cuesta O(1);
+ * el almacén copia los trozos que modifica después de publicar una vista
+ * (copia en escritura por trozo), así que la vista nunca cambia.
+ *
+ * @param <T> Tipo de entidad almacenada.
+ */
+public final class IntStoreSnapshot<T> implements Iterable<T> {
+
+    private final int[][] ids;
+    private final Object[][] values;
+    private final int end;
+    private final int size;
+    private final ChunkedIntIndex index;
+    private final long version;
+
+    IntStoreSnapshot(int[][] ids, Object[][] values, int end, int size, ChunkedIntIndex index, long version) {
+        this.ids = ids;
+        this.values = values;
+        this.end = end;
+        this.size = size;
+        this.index = index;
+        this.version = version;
+    }
+
+    /**
+     * Obtiene la entidad asociada a un ID en esta versión.
+     *
+     * @param id ID a buscar.
+     * @return La entidad, o null si no existe.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int id) {
+        int position = index.positionOf(ids, id);
+        return position < 0 ? null : (T) IntEntityStore.valueAt(values, position);
+    }
+
+    /**
+     * Verifica si existe una entidad con el ID indicado en esta versión.
+     *
+     * @param id ID a buscar.
+     * @return true si el ID está presente.
+     */
+    public boolean containsKey(int id) {
+        return index.positionOf(ids, id) >= 0;
+    }
+
+    /**
+     * @return Número de entidades de esta versión.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true si esta versión no tiene entidades.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Número de versión del almacén en el momento de publicar la vista; crece
+     * con cada modificación, de modo que dos vistas con la misma versión tienen
+     * el mismo contenido.
+     *
+     * @return Versión de la vista.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Recorre las entidades en orden de inserción sin crear un iterador.
+     *
+     * @param action Acción a ejecutar sobre cada entidad.
+     */
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        IntEntityStore.forEach(values, end, action);
+    }
+
+    /**
+     * Iterador de solo lectura en orden de inserción.
+     *
+     * @return Iterador sobre las entidades.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return IntEntityStore.iterator(values, end);
+    }
+}
@@ -0,0 +1,430 @@
+package Models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Almacén en memoria de perfiles de carga (potencia en W a lo largo del
+ * tiempo) por usuario y aparato, comprimidos como en Gorilla:
+ *
+ * <ul>
+ * <li>las marcas de tiempo se guardan como la diferencia de su diferencia con
+ * la anterior; a resolución constante (una muestra por minuto) cada marca
+ * ocupa 1 bit;</li>
+ * <li>cada valor se guarda como el XOR con el anterior: 1 bit si se repite y,
+ * si no, solo los bits significativos del XOR, reutilizando la ventana de
+ * ceros del valor anterior cuando cabe.</li>
+ * </ul>
+ *
+ * Cada serie se divide en bloques de {@value #BLOCK_POINTS} muestras que
+ * empiezan con la marca y el valor en claro y guardan su primera y última
+ * marca, así que una lectura por rango descomprime solo los bloques que
+ * solapan con el rango. Las muestras de una serie deben llegar en orden
+ * estrictamente creciente de tiempo.
+ *
+ * Es seguro usarlo desde varios hilos: las escrituras toman el cerrojo en
+ * exclusiva y las lecturas en modo compartido.
+ */
+public final class LoadProfileStore {
+
+    private static final int BLOCK_POINTS = 1024;
+
+    /**
+     * Recibe las muestras de una lectura por rango.
+     */
+    public interface SampleConsumer {
+
+        /**
+         * @param timestamp Segundos desde la época.
+         * @param value Potencia en W.
+         */
+        void accept(long timestamp, double value);
+    }
+
+    private final Map<String, Series> series = new HashMap<>();
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * Añade una muestra al final de la serie de un usuario y aparato.
+     *
+     * @param user Usuario.
+     * @param electricAppliance Aparato (no distingue mayúsculas ni espacios
+     * externos).
+     * @param timestamp Segundos desde la época; mayor que el de la muestra
+     * anterior de la serie.
+     * @param value Potencia en W.
+     */
+    public void append(String user, String electricAppliance, long timestamp, double value) {
+        long stamp = lock.writeLock();
+        try {
+            series.computeIfAbsent(key(user, electricAppliance), k -> new Series()).append(timestamp, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Añade un lote de muestras ordenadas a una serie bajo un único cerrojo.
+     *
+     * @param user Usuario.
+     * @param electricAppliance Aparato.
+     * @param timestamps Segundos desde la época, estrictamente crecientes.
+     * @param values Potencias en W.
+     */
+    public void append(String user, String electricAppliance, long[] timestamps, double[] values) {
+        if (timestamps.length != values.length) {
+            throw new IllegalArgumentException("Las columnas del lote tienen longitudes distintas");
+        }
+        long stamp = lock.writeLock();
+        try {
+            Series target = series.computeIfAbsent(key(user, electricAppliance), k -> new Series());
+            for (int i = 0; i < timestamps.length; i++) {
+                target.append(timestamps[i], values[i]);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Recorre las muestras de una serie con marca en [from, to).
+     *
+     * @param user Usuario.
+     * @param electricAppliance Aparato.
+     * @param from Inicio del rango (incluido), en segundos.
+     * @param to Fin del rango (excluido), en segundos.
+     * @param consumer Recibe las muestras en orden de tiempo.
+     * @return Número de muestras entregadas.
+     */
+    public long scan(String user, String electricAppliance, long from, long to, SampleConsumer consumer) {
+        long stamp = lock.readLock();
+        try {
+            Series target = series.get(key(user, electricAppliance));
+            return target == null ? 0 : target.scan(from, to, consumer);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Lee una serie agregada en intervalos de {@code bucket} segundos
+     * alineados con {@code from}.
+     *
+     * @param user Usuario.
+     * @param electricAppliance Aparato.
+     * @param from Inicio del rango (incluido), en segundos.
+     * @param to Fin del rango (excluido), en segundos.
+     * @param bucket Anchura de cada intervalo en segundos.
+     * @return Intervalos con muestras.
+     */
+    public DownsampledSeries downsample(String user, String electricAppliance, long from, long to, long bucket) {
+        if (bucket < 1 || to < from) {
+            throw new IllegalArgumentException("Intervalo de agregación no válido");
+        }
+        long buckets = (to - from + bucket - 1) / bucket;
+        int capacity = (int) Math.min(buckets, 1024);
+        long[][] starts = {new long[capacity]};
+        int[][] counts = {new int[capacity]};
+        double[][] sums = {new double[capacity], new double[capacity], new double[capacity]}; // Suma, mínimo, máximo
+        int[] size = {0};
+        scan(user, electricAppliance, from, to, (timestamp, value) -> {
+            long start = from + (timestamp - from) / bucket * bucket;
+            int last = size[0] - 1;
+            if (last < 0 || starts[0][last] != start) {
+                if (size[0] == starts[0].length) {
+                    int grown = Math.max(16, size[0] * 2);
+                    starts[0] = Arrays.copyOf(starts[0], grown);
+                    counts[0] = Arrays.copyOf(counts[0], grown);
+                    for (int c = 0; c < 3; c++) {
+                        sums[c] = Arrays.copyOf(sums[c], grown);
+                    }
+                }
+                last = size[0]++;
+                starts[0][last] = start;
+                sums[1][last] = value;
+                sums[2][last] = value;
+            }
+            counts[0][last]++;
+            sums[0][last] += value;
+            sums[1][last] = Math.min(sums[1][last], value);
+            sums[2][last] = Math.max(sums[2][last], value);
+        });
+        int n = size[0];
+        double[] mean = new double[n];
+        for (int i = 0; i < n; i++) {
+            mean[i] = sums[0][i] / counts[0][i];
+        }
+        return new DownsampledSeries(Arrays.copyOf(starts[0], n), Arrays.copyOf(counts[0], n), mean,
+                Arrays.copyOf(sums[1], n), Arrays.copyOf(sums[2], n));
+    }
+
+    /**
+     * @return Número total de muestras almacenadas.
+     */
+    public long points() {
+        long stamp = lock.readLock();
+        try {
+            long points = 0;
+            for (Series s : series.values()) {
+                points += s.points;
+            }
+            return points;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return Bytes ocupados por los datos comprimidos (sin contar la
+     * estructura de los objetos).
+     */
+    public long compressedBytes() {
+        long stamp = lock.readLock();
+        try {
+            long bytes = 0;
+            for (Series s : series.values()) {
+                for (Block block : s.blocks) {
+                    bytes += block.words.length * (long) Long.BYTES;
+                }
+            }
+            return bytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Clave de la serie: usuario y aparato normalizado como en el índice de ElectricConsumeActions
+    private static String key(String user, String electricAppliance) {
+        String appliance = electricAppliance == null ? "" : electricAppliance.trim().toLowerCase(Locale.ROOT);
+        return (user == null ? "" : user) + '\u0000' + appliance;
+    }
+
+    /**
+     * Serie de un usuario y aparato: bloques cerrados más el bloque abierto
+     * al final de la lista.
+     */
+    private static final class Series {
+
+        final List<Block> blocks = new ArrayList<>();
+        long points;
+
+        void append(long timestamp, double value) {
+            Block open = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+            if (open != null && timestamp <= open.last) {
+                throw new IllegalArgumentException("Las muestras deben llegar en orden creciente de tiempo");
+            }
+            if (open == null || open.count == BLOCK_POINTS) {
+                if (open != null) {
+                    open.seal();
+                }
+                open = new Block();
+                blocks.add(open);
+            }
+            open.append(timestamp, value);
+            points++;
+        }
+
+        long scan(long from, long to, SampleConsumer consumer) {
+            long delivered = 0;
+            // Los bloques están ordenados por tiempo: búsqueda binaria del primero que acaba en o después de from
+            int low = 0;
+            int high = blocks.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (blocks.get(middle).last < from) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            for (int b = low; b < blocks.size() && blocks.get(b).first < to; b++) {
+                delivered += blocks.get(b).scan(from, to, consumer);
+            }
+            return delivered;
+        }
+    }
+
+    /**
+     * Bloque de hasta {@value #BLOCK_POINTS} muestras codificadas en un flujo
+     * de bits (de más a menos significativo dentro de cada long).
+     */
+    private static final class Block {
+
+        long[] words = new long[64];
+        int bits;
+        int count;
+        long first;
+        long last;
+        // Estado del codificador
+        long previousDelta;
+        long previousValue;
+        int previousLeading = -1;
+        int previousTrailing;
+
+        void append(long timestamp, double value) {
+            long valueBits = Double.doubleToRawLongBits(value);
+            if (count == 0) {
+                first = timestamp;
+                write(timestamp, 64);
+                write(valueBits, 64);
+            } else {
+                long delta = timestamp - last;
+                writeDeltaOfDelta(delta - previousDelta);
+                previousDelta = delta;
+                writeXor(valueBits ^ previousValue);
+            }
+            last = timestamp;
+            previousValue = valueBits;
+            count++;
+        }
+
+        void seal() {
+            words = Arrays.copyOf(words, (bits + 63) >>> 6);
+        }
+
+        private void writeDeltaOfDelta(long dod) {
+            if (dod == 0) {
+                write(0, 1);
+            } else if (dod >= -63 && dod <= 64) {
+                write(0b10, 2);
+                write(dod + 63, 7);
+            } else if (dod >= -255 && dod <= 256) {
+                write(0b110, 3);
+                write(dod + 255, 9);
+            } else if (dod >= -2047 && dod <= 2048) {
+                write(0b1110, 4);
+                write(dod + 2047, 12);
+            } else {
+                write(0b1111, 4);
+                write(dod, 64);
+            }
+        }
+
+        private void writeXor(long xor) {
+            if (xor == 0) {
+                write(0, 1);
+                return;
+            }
+            int leading = Math.min(31, Long.numberOfLeadingZeros(xor));
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                // Cabe en la ventana de bits significativos del valor anterior
+                write(0b10, 2);
+                write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                int significant = 64 - leading - trailing;
+                write(0b11, 2);
+                write(leading, 5);
+                write(significant & 63, 6); // 64 se guarda como 0
+                write(xor >>> trailing, significant);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+
+        // Escribe los n bits bajos de value
+        private void write(long value, int n) {
+            if (n == 0) {
+                return;
+            }
+            if (bits + n > words.length * 64L) {
+                words = Arrays.copyOf(words, words.length * 2);
+            }
+            int word = bits >>> 6;
+            int used = bits & 63;
+            long masked = n == 64 ? value : value & ((1L << n) - 1);
+            int free = 64 - used;
+            if (n <= free) {
+                words[word] |= masked << (free - n);
+            } else {
+                words[word] |= masked >>> (n - free);
+                words[word + 1] |= masked << (64 - (n - free));
+            }
+            bits += n;
+        }
+
+        long scan(long from, long to, SampleConsumer consumer) {
+            Reader in = new Reader(words);
+            long timestamp = in.read(64);
+            long valueBits = in.read(64);
+            long delta = 0;
+            int leading = 0;
+            int trailing = 0;
+            long delivered = 0;
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    delta += in.readDeltaOfDelta();
+                    timestamp += delta;
+                    if (in.read(1) != 0) {
+                        if (in.read(1) != 0) {
+                            leading = (int) in.read(5);
+                            int significant = (int) in.read(6);
+                            if (significant == 0) {
+                                significant = 64;
+                            }
+                            trailing = 64 - leading - significant;
+                        }
+                        valueBits ^= in.read(64 - leading - trailing) << trailing;
+                    }
+                }
+                if (timestamp >= to) {
+                    break;
+                }
+                if (timestamp >= from) {
+                    consumer.accept(timestamp, Double.longBitsToDouble(valueBits));
+                    delivered++;
+                }
+            }
+            return delivered;
+        }
+    }
+
+    /**
+     * Lector secuencial del flujo de bits de un bloque.
+     */
+    private static final class Reader {
+
+        private final long[] words;
+        private int position;
+
+        Reader(long[] words) {
+            this.words = words;
+        }
+
+        long read(int n) {
+            int word = position >>> 6;
+            int used = position & 63;
+            int available = 64 - used;
+            long value;
+            if (n <= available) {
+                value = (words[word] << used) >>> (64 - n);
+            } else {
+                long high = (words[word] << used) >>> used; // Bits restantes de esta palabra
+                value = (high << (n - available)) | (words[word + 1] >>> (64 - (n - available)));
+            }
+            position += n;
+            return value;
+        }
+
+        long readDeltaOfDelta() {
+            if (read(1) == 0) {
+                return 0;
+            }
+            if (read(1) == 0) {
+                return read(7) - 63;
+            }
+            if (read(1) == 0) {
+                return read(9) - 255;
+            }
+            if (read(1) == 0) {
+                return read(12) - 2047;
+            }
+            return read(64);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package Models;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Propagación de incertidumbre por Monte Carlo para las fórmulas de los
+ * calculadores: cada entrada es un {@link Uncertain}, se evalúa la fórmula
+ * sobre muestras de todas las entradas y se resume la distribución del
+ * resultado en un {@link UncertaintyResult} sin guardar las muestras.
+ *
+ * Las muestras se reparten en bloques de {@value #CHUNK} que se procesan en
+ * paralelo con fork/join; cada bloque usa su propio {@link SplittableRandom},
+ * separado del generador raíz antes de repartir, así que con la misma semilla
+ * el resultado es el mismo sea cual sea el número de núcleos.
+ */
+public final class MonteCarlo {
+
+    private static final int CHUNK = 1 << 20;
+
+    // Fórmula evaluada sobre una muestra de las entradas (arreglo reutilizado por bloque)
+    private interface Formula {
+
+        double apply(double[] x);
+    }
+
+    private final Uncertain[] inputs;
+    private final Formula formula;
+    private final ForkJoinPool pool;
+
+    private MonteCarlo(Formula formula, Uncertain... inputs) {
+        this.formula = formula;
+        this.inputs = inputs;
+        this.pool = ForkJoinPool.commonPool();
+    }
+
+    /**
+     * @param campoE Campo eléctrico en N/C.
+     * @param cargaQ Carga en Coulombs.
+     * @param distanciaR Distancia entre cargas en metros.
+     * @param anguloA Ángulo en grados.
+     * @return Propagación de {@link Torque#calcularTorque}.
+     */
+    public static MonteCarlo torque(Uncertain campoE, Uncertain cargaQ, Uncertain distanciaR, Uncertain anguloA) {
+        return new MonteCarlo(x -> Torque.calcularTorque(x[0], x[1], x[2], x[3]), campoE, cargaQ, distanciaR, anguloA);
+    }
+
+    /**
+     * @param cargaQ Carga en Coulombs.
+     * @param distanciaR Distancia en metros.
+     * @return Propagación de {@link FieldE#calcularCampo}.
+     */
+    public static MonteCarlo fieldE(Uncertain cargaQ, Uncertain distanciaR) {
+        return new MonteCarlo(x -> FieldE.calcularCampo(x[0], x[1]), cargaQ, distanciaR);
+    }
+
+    /**
+     * @param campoE Campo eléctrico en N/C.
+     * @param cargaQ Carga en Coulombs.
+     * @return Propagación de {@link ForceE#calcularFuerza}.
+     */
+    public static MonteCarlo forceE(Uncertain campoE, Uncertain cargaQ) {
+        return new MonteCarlo(x -> ForceE.calcularFuerza(x[0], x[1]), campoE, cargaQ);
+    }
+
+    /**
+     * @param campoE Campo eléctrico en N/C.
+     * @param distanciaD Distancia en metros.
+     * @return Propagación de {@link PotencialE#calcularPotencial}.
+     */
+    public static MonteCarlo potencialE(Uncertain campoE, Uncertain distanciaD) {
+        return new MonteCarlo(x -> PotencialE.calcularPotencial(x[0], x[1]), campoE, distanciaD);
+    }
+
+    /**
+     * @param electricPower Potencia en W.
+     * @param deviceTime Tiempo de uso en horas.
+     * @param electricityTariff Tarifa por kWh.
+     * @return Propagación de {@link ElectricConsume#calculateResult}.
+     */
+    public static MonteCarlo electricConsume(Uncertain electricPower, Uncertain deviceTime, Uncertain electricityTariff) {
+        return new MonteCarlo(x -> ElectricConsume.calculateResult(x[0], x[1], x[2]), electricPower, deviceTime, electricityTariff);
+    }
+
+    /**
+     * Muestrea la fórmula y resume el resultado.
+     *
+     * @param samples Número de muestras.
+     * @param seed Semilla del generador raíz.
+     * @return Resumen de la distribución del resultado.
+     */
+    public UncertaintyResult run(long samples, long seed) {
+        if (samples < 1) {
+            throw new IllegalArgumentException("Se necesita al menos una muestra");
+        }
+        int chunks = (int) ((samples + CHUNK - 1) / CHUNK);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int i = 0; i < chunks; i++) {
+            randoms[i] = root.split();
+        }
+        return pool.invoke(new Sample(randoms, samples, 0, chunks));
+    }
+
+    // Muestrea los bloques [from, to) y combina sus resúmenes
+    private final class Sample extends RecursiveTask<UncertaintyResult> {
+
+        private final SplittableRandom[] randoms;
+        private final long samples;
+        private final int from;
+        private final int to;
+
+        Sample(SplittableRandom[] randoms, long samples, int from, int to) {
+            this.randoms = randoms;
+            this.samples = samples;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected UncertaintyResult compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                Sample right = new Sample(randoms, samples, middle, to);
+                right.fork();
+                UncertaintyResult result = new Sample(randoms, samples, from, middle).compute();
+                result.merge(right.join());
+                return result;
+            }
+            SplittableRandom random = randoms[from];
+            long count = Math.min(CHUNK, samples - (long) from * CHUNK);
+            double[] x = new double[inputs.length];
+            UncertaintyResult result = new UncertaintyResult();
+            for (long i = 0; i < count; i++) {
+                for (int k = 0; k < x.length; k++) {
+                    x[k] = inputs[k].sample(random);
+                }
+                result.add(formula.apply(x));
+            }
+            return result;
+        }
+    }
+}
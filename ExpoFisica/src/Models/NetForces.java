@@ -0,0 +1,103 @@
+package Models;
+
+/**
+ * Fuerza de Coulomb neta sobre cada carga de un {@link PointCharges},
+ * calculada por {@link CoulombForces}, en columnas paralelas a las de las
+ * cargas.
+ */
+public final class NetForces {
+
+    private final PointCharges charges;
+    private final double[] fx;
+    private final double[] fy;
+
+    NetForces(PointCharges charges, double[] fx, double[] fy) {
+        this.charges = charges;
+        this.fx = fx;
+        this.fy = fy;
+    }
+
+    /**
+     * @return Número de cargas.
+     */
+    public int size() {
+        return fx.length;
+    }
+
+    /**
+     * @param i Índice de la carga.
+     * @return ID del campo eléctrico que representa la carga.
+     */
+    public int idAt(int i) {
+        return charges.idAt(i);
+    }
+
+    /**
+     * @param i Índice de la carga.
+     * @return Componente x de la fuerza en N.
+     */
+    public double fx(int i) {
+        return fx[i];
+    }
+
+    /**
+     * @param i Índice de la carga.
+     * @return Componente y de la fuerza en N.
+     */
+    public double fy(int i) {
+        return fy[i];
+    }
+
+    /**
+     * @param i Índice de la carga.
+     * @return Módulo de la fuerza en N.
+     */
+    public double magnitude(int i) {
+        return Math.hypot(fx[i], fy[i]);
+    }
+
+    /**
+     * Módulo del campo que crean las demás cargas en la posición de la carga
+     * i: |F|/|q|.
+     *
+     * @param i Índice de la carga.
+     * @return Campo en N/C (0 si la carga es nula).
+     */
+    public double field(int i) {
+        double q = Math.abs(charges.q(i));
+        return q == 0 ? 0 : magnitude(i) / q;
+    }
+
+    /**
+     * @param i Índice de la carga.
+     * @return Dirección de la fuerza en grados desde el eje x, en (-180, 180].
+     */
+    public double direction(int i) {
+        return Math.toDegrees(Math.atan2(fy[i], fx[i]));
+    }
+
+    /**
+     * Guarda una fuerza derivada por carga en el almacén de fuerzas, con
+     * campoE = campo de las demás cargas, cargaQ = carga, el ID del campo
+     * eléctrico de origen y la dirección de la fuerza. Cada carga conserva su
+     * fila entre cálculos: repetirlo actualiza las fuerzas en lugar de
+     * añadir otras nuevas, y borra las de campos que ya no existen.
+     *
+     * @param actions Almacén de fuerzas.
+     * @return Número de fuerzas nuevas (las demás se actualizaron).
+     */
+    public int storeIn(ForceActions actions) {
+        int size = size();
+        int[] fuenteIds = new int[size];
+        double[] campoE = new double[size];
+        double[] cargaQ = new double[size];
+        double[] direccion = new double[size];
+        for (int i = 0; i < size; i++) {
+            fuenteIds[i] = idAt(i);
+            campoE[i] = field(i);
+            cargaQ[i] = charges.q(i);
+            direccion[i] = direction(i);
+        }
+        return actions.storeDerivedForces(fuenteIds, campoE, cargaQ, direccion);
+    }
+}
@@ -0,0 +1,282 @@
+package Models;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Barrido de un cálculo sobre el producto cartesiano de rangos de sus
+ * parámetros: torque sobre campo × carga × distancia × ángulo, o magnitud del
+ * campo sobre carga × distancia. El último parámetro es el que varía más
+ * rápido.
+ *
+ * Los puntos se reparten en bloques de {@value #BLOCK} que se calculan y
+ * codifican en paralelo con fork/join (los torques, por columnas con
+ * {@link TorqueKernel}); cada tanda de bloques se escribe en orden al archivo
+ * con una escritura agrupada de NIO, de modo que la memoria usada no depende
+ * del tamaño del barrido.
+ *
+ * Formato binario: cabecera de 16 bytes (magic "EXSW", número de columnas,
+ * número de puntos) y por punto los parámetros y el resultado como double
+ * big-endian. Formato CSV: una fila de encabezado y una fila por punto.
+ */
+public final class ParameterSweep {
+
+    /**
+     * Formato del archivo de resultados.
+     */
+    public enum Format {
+        BINARY, CSV
+    }
+
+    private static final int MAGIC = 0x45585357; // "EXSW"
+    private static final int BLOCK = 16384;
+    private static final int TORQUE = 0;
+    private static final int FIELD = 1;
+
+    private final int kind;
+    private final SweepRange[] ranges;
+    private final String[] names;
+    private final ForkJoinPool pool;
+
+    private ParameterSweep(int kind, SweepRange[] ranges, String[] names, ForkJoinPool pool) {
+        this.kind = kind;
+        this.ranges = ranges;
+        this.names = names;
+        this.pool = pool;
+    }
+
+    /**
+     * Barrido del torque (q·d)·E·sen(θ).
+     *
+     * @param campoE Campos eléctricos en N/C.
+     * @param cargaQ Cargas en Coulombs.
+     * @param distanciaR Distancias entre cargas en metros.
+     * @param anguloA Ángulos en grados.
+     * @return Barrido sobre el pool común de fork/join.
+     */
+    public static ParameterSweep torque(SweepRange campoE, SweepRange cargaQ, SweepRange distanciaR, SweepRange anguloA) {
+        return new ParameterSweep(TORQUE, new SweepRange[]{campoE, cargaQ, distanciaR, anguloA},
+                new String[]{"campoE", "cargaQ", "distanciaR", "anguloA", "resultado"}, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Barrido de la magnitud del campo k·|q|/r².
+     *
+     * @param cargaQ Cargas en Coulombs.
+     * @param distanciaR Distancias en metros.
+     * @return Barrido sobre el pool común de fork/join.
+     */
+    public static ParameterSweep field(SweepRange cargaQ, SweepRange distanciaR) {
+        return new ParameterSweep(FIELD, new SweepRange[]{cargaQ, distanciaR},
+                new String[]{"cargaQ", "distanciaR", "resultado"}, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @return Número de puntos del barrido.
+     */
+    public long size() {
+        long size = 1;
+        for (SweepRange range : ranges) {
+            size = Math.multiplyExact(size, range.count());
+        }
+        return size;
+    }
+
+    /**
+     * Calcula el barrido y lo escribe en un archivo, reemplazándolo si existe.
+     *
+     * @param file Archivo destino.
+     * @param format Formato de salida.
+     * @return Número de puntos escritos.
+     * @throws IOException Si la escritura falla.
+     */
+    public long writeTo(Path file, Format format) throws IOException {
+        long size = size();
+        int slots = Math.max(1, pool.getParallelism() * 2);
+        Block[] blocks = new Block[slots];
+        for (int i = 0; i < slots; i++) {
+            blocks[i] = new Block(format);
+        }
+        ByteBuffer[] wave = new ByteBuffer[slots + 1];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header;
+            if (format == Format.BINARY) {
+                header = ByteBuffer.allocate(16).putInt(MAGIC).putInt(names.length).putLong(size).flip();
+            } else {
+                header = ByteBuffer.wrap((String.join(",", names) + "\n").getBytes(StandardCharsets.US_ASCII));
+            }
+            writeFully(channel, new ByteBuffer[]{header}, 1);
+            for (long first = 0; first < size; first += (long) slots * BLOCK) {
+                int used = (int) Math.min(slots, (size - first + BLOCK - 1) / BLOCK);
+                for (int i = 0; i < used; i++) {
+                    long from = first + (long) i * BLOCK;
+                    blocks[i].from = from;
+                    blocks[i].to = Math.min(size, from + BLOCK);
+                }
+                pool.invoke(new Encode(blocks, 0, used));
+                for (int i = 0; i < used; i++) {
+                    wave[i] = blocks[i].out.flip();
+                }
+                writeFully(channel, wave, used);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Calcula un barrido de torques y lo añade a un almacén con una sola
+     * importación por lotes, en lugar de un alta por punto.
+     *
+     * @param actions Almacén de torques.
+     * @return ID del primer torque importado.
+     */
+    public int importTo(TorqueActions actions) {
+        if (kind != TORQUE) {
+            throw new IllegalStateException("Solo los barridos de torque se pueden importar");
+        }
+        long size = size();
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Barrido demasiado grande para importarlo: " + size);
+        }
+        double[][] columns = new double[4][(int) size];
+        int[] digits = new int[ranges.length];
+        for (int row = 0; row < size; row++) {
+            for (int p = 0; p < ranges.length; p++) {
+                columns[p][row] = ranges[p].value(digits[p]);
+            }
+            increment(digits);
+        }
+        return actions.importTorques(columns[0], columns[1], columns[2], columns[3]);
+    }
+
+    // Índices de los parámetros del punto número index
+    private void decompose(long index, int[] digits) {
+        for (int p = ranges.length - 1; p >= 0; p--) {
+            digits[p] = (int) (index % ranges[p].count());
+            index /= ranges[p].count();
+        }
+    }
+
+    // Pasa al punto siguiente, con el último parámetro como el más rápido
+    private void increment(int[] digits) {
+        for (int p = ranges.length - 1; p >= 0; p--) {
+            if (++digits[p] < ranges[p].count()) {
+                return;
+            }
+            digits[p] = 0;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer[] buffers, int count) throws IOException {
+        while (buffers[count - 1].hasRemaining()) {
+            channel.write(buffers, 0, count);
+        }
+    }
+
+    /**
+     * Bloque de puntos [from, to) con sus columnas y su salida codificada;
+     * cada tanda reutiliza los mismos bloques.
+     */
+    private final class Block {
+
+        final Format format;
+        final double[][] columns = new double[ranges.length + 1][BLOCK];
+        final int[] digits = new int[ranges.length];
+        ByteBuffer out;
+        long from;
+        long to;
+
+        Block(Format format) {
+            this.format = format;
+            int bytes = format == Format.BINARY ? BLOCK * columns.length * Double.BYTES : BLOCK * columns.length * 16;
+            out = ByteBuffer.allocate(bytes);
+        }
+
+        void compute() {
+            int count = (int) (to - from);
+            decompose(from, digits);
+            for (int row = 0; row < count; row++) {
+                for (int p = 0; p < ranges.length; p++) {
+                    columns[p][row] = ranges[p].value(digits[p]);
+                }
+                increment(digits);
+            }
+            double[] result = columns[ranges.length];
+            if (kind == TORQUE) {
+                TorqueKernel.compute(columns[0], columns[1], columns[2], columns[3], result, 0, count);
+            } else {
+                for (int row = 0; row < count; row++) {
+                    result[row] = FieldE.calcularCampo(columns[0][row], columns[1][row]);
+                }
+            }
+            out.clear();
+            if (format == Format.BINARY) {
+                for (int row = 0; row < count; row++) {
+                    for (double[] column : columns) {
+                        out.putDouble(column[row]);
+                    }
+                }
+            } else {
+                for (int row = 0; row < count; row++) {
+                    for (int c = 0; c < columns.length; c++) {
+                        put(Double.toString(columns[c][row]));
+                        put(c == columns.length - 1 ? '\n' : ',');
+                    }
+                }
+            }
+        }
+
+        void put(String text) {
+            if (out.remaining() < text.length()) {
+                grow(text.length());
+            }
+            for (int i = 0; i < text.length(); i++) {
+                out.put((byte) text.charAt(i)); // Double.toString solo produce ASCII
+            }
+        }
+
+        void put(char c) {
+            if (!out.hasRemaining()) {
+                grow(1);
+            }
+            out.put((byte) c);
+        }
+
+        void grow(int needed) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(out.capacity() * 2, out.position() + needed));
+            out.flip();
+            out = larger.put(out);
+        }
+    }
+
+    // Calcula y codifica los bloques [from, to) de la tanda
+    private static final class Encode extends RecursiveAction {
+
+        private final Block[] blocks;
+        private final int from;
+        private final int to;
+
+        Encode(Block[] blocks, int from, int to) {
+            this.blocks = blocks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Encode(blocks, from, middle), new Encode(blocks, middle, to));
+            } else {
+                blocks[from].compute();
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package Models;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Punto único de persistencia de los almacenes *Actions. Al abrirse carga la
+ * última instantánea (si existe) y reproduce encima el log de escritura
+ * anticipada sobre cada singleton (restaurando también sus contadores de IDs);
+ * a partir de ahí todas las altas, modificaciones y bajas quedan registradas
+ * en el log.
+ *
+ * El log se divide en generaciones ({@code expofisica.wal.<n>}). Cada
+ * instantánea abre la generación siguiente y cada almacén pasa a registrar en
+ * ella en el mismo paso (bajo su cerrojo) en que se copia, de modo que la
+ * instantánea más la generación nueva describen el estado completo aunque
+ * otros hilos sigan escribiendo; una vez escrita la instantánea, las
+ * generaciones anteriores se borran.
+ */
+public final class Persistence {
+
+    private static final String LOG_FILE = "expofisica.wal";
+    private static final String SNAPSHOT_FILE = "expofisica.snap";
+
+    // Instancia única de la clase (patrón Singleton)
+    private static Persistence instance;
+
+    private Path directory;
+    private int groupCommitSize;
+    private long groupCommitMillis;
+    private WriteAheadLog log;
+    private long generation;
+    private ScheduledExecutorService snapshotter;
+
+    // Serializa la escritura de instantáneas; la última escrita nunca retrocede
+    private final Object snapshotLock = new Object();
+    private long snapshotGeneration = -1;
+
+    private Persistence() {
+    }
+
+    public static synchronized Persistence getInstance() {
+        if (instance == null) {
+            instance = new Persistence();
+        }
+        return instance;
+    }
+
+    /**
+     * Abre la persistencia en el directorio indicado: carga la instantánea,
+     * reproduce las generaciones del log posteriores a ella y activa el
+     * registro en todos los almacenes.
+     *
+     * @param directory Directorio de datos (se crea si no existe).
+     * @param groupCommitSize Registros por lote antes de forzar un fsync.
+     * @param groupCommitMillis Espera máxima de un lote pendiente, en ms.
+     * @throws IOException Si la instantánea o el log no se pueden leer.
+     */
+    public synchronized void open(Path directory, int groupCommitSize, long groupCommitMillis) throws IOException {
+        if (log != null) {
+            throw new IllegalStateException("La persistencia ya está abierta");
+        }
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.groupCommitSize = groupCommitSize;
+        this.groupCommitMillis = groupCommitMillis;
+        // Log de una sola generación de versiones anteriores
+        Path legacyLog = directory.resolve(LOG_FILE);
+        if (Files.exists(legacyLog)) {
+            Files.move(legacyLog, logPath(0));
+        }
+        long first = 0;
+        Path snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshotPath)) {
+            SnapshotFile snapshot = SnapshotFile.read(snapshotPath);
+            for (SnapshotSection section : snapshot.sections) {
+                restore(section);
+            }
+            first = snapshot.walGeneration;
+            snapshotGeneration = first;
+        }
+        List<Long> generations = logGenerations();
+        generation = generations.isEmpty() ? first : Math.max(first, generations.get(generations.size() - 1));
+        for (long existing : generations) {
+            if (existing < first) {
+                Files.delete(logPath(existing)); // Ya incluida en la instantánea
+            } else if (existing < generation) {
+                WriteAheadLog.open(logPath(existing), 1, 0, this::replay).close();
+            }
+        }
+        log = WriteAheadLog.open(logPath(generation), groupCommitSize, groupCommitMillis, this::replay);
+        attachLog(log);
+    }
+
+    /**
+     * Toma una instantánea de todos los almacenes y la escribe en disco.
+     *
+     * @throws IOException Si la rotación del log o la escritura fallan.
+     */
+    public void snapshot() throws IOException {
+        write(capture());
+    }
+
+    /**
+     * Programa instantáneas periódicas en un hilo en segundo plano.
+     *
+     * @param period Periodo entre instantáneas.
+     * @param unit Unidad del periodo.
+     */
+    public synchronized void scheduleSnapshots(long period, TimeUnit unit) {
+        if (log == null) {
+            throw new IllegalStateException("La persistencia no está abierta");
+        }
+        if (snapshotter != null) {
+            snapshotter.shutdown();
+        }
+        snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotter.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (IOException | RuntimeException ex) {
+                Logger.getLogger(Persistence.class.getName()).log(Level.SEVERE, null, ex);
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Fuerza a disco las escrituras pendientes del lote actual.
+     *
+     * @throws IOException Si la escritura falla.
+     */
+    public synchronized void sync() throws IOException {
+        if (log != null) {
+            log.sync();
+        }
+    }
+
+    /**
+     * Detiene las instantáneas programadas, desactiva el registro y cierra el
+     * log tras escribir lo pendiente.
+     *
+     * @throws IOException Si el cierre falla.
+     */
+    public synchronized void close() throws IOException {
+        if (snapshotter != null) {
+            snapshotter.shutdown();
+            snapshotter = null;
+        }
+        if (log != null) {
+            attachLog(null);
+            try {
+                log.close();
+            } finally {
+                log = null;
+            }
+        }
+    }
+
+    /**
+     * Cierra el log registrando cualquier error en lugar de propagarlo; pensado
+     * para usarse como gancho de apagado de la JVM.
+     */
+    public void shutdown() {
+        try {
+            close();
+        } catch (IOException ex) {
+            Logger.getLogger(Persistence.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+
+    // Copia los almacenes y los pasa a la siguiente generación del log
+    private synchronized SnapshotFile capture() throws IOException {
+        if (log == null) {
+            throw new IllegalStateException("La persistencia no está abierta");
+        }
+        WriteAheadLog next = WriteAheadLog.open(logPath(generation + 1), groupCommitSize, groupCommitMillis, this::replay);
+        List<SnapshotSection> sections = List.of(
+                TorqueActions.getInstance().captureSnapshot(next),
+                FieldEActions.getInstance().captureSnapshot(next),
+                ForceActions.getInstance().captureSnapshot(next),
+                PotencialEActions.getInstance().captureSnapshot(next),
+                ElectricConsumeActions.getInstance().captureSnapshot(next),
+                UsersActions.getInstance().captureSnapshot(next));
+        WriteAheadLog previous = log;
+        log = next;
+        generation++;
+        previous.close(); // Ningún almacén lo usa ya
+        return new SnapshotFile(generation, sections);
+    }
+
+    // Escribe la instantánea y borra las generaciones del log que ya contiene
+    private void write(SnapshotFile snapshot) throws IOException {
+        Path logDirectory;
+        synchronized (this) {
+            logDirectory = directory;
+        }
+        synchronized (snapshotLock) {
+            if (snapshot.walGeneration <= snapshotGeneration) {
+                return; // Ya hay una instantánea más reciente en disco
+            }
+            snapshot.write(logDirectory.resolve(SNAPSHOT_FILE));
+            snapshotGeneration = snapshot.walGeneration;
+        }
+        for (long existing : logGenerations()) {
+            if (existing < snapshot.walGeneration) {
+                Files.deleteIfExists(logPath(existing));
+            }
+        }
+    }
+
+    private void restore(SnapshotSection section) {
+        switch (section.store) {
+            case TorqueActions.WAL_STORE ->
+                TorqueActions.getInstance().restoreSnapshot(section);
+            case FieldEActions.WAL_STORE ->
+                FieldEActions.getInstance().restoreSnapshot(section);
+            case ForceActions.WAL_STORE ->
+                ForceActions.getInstance().restoreSnapshot(section);
+            case PotencialEActions.WAL_STORE ->
+                PotencialEActions.getInstance().restoreSnapshot(section);
+            case ElectricConsumeActions.WAL_STORE ->
+                ElectricConsumeActions.getInstance().restoreSnapshot(section);
+            case UsersActions.WAL_STORE ->
+                UsersActions.getInstance().restoreSnapshot(section);
+            default ->
+                throw new IllegalStateException("Almacén desconocido en la instantánea: " + section.store);
+        }
+    }
+
+    private Path logPath(long logGeneration) {
+        return directory.resolve(LOG_FILE + "." + logGeneration);
+    }
+
+    // Generaciones del log presentes en el directorio, en orden ascendente
+    private List<Long> logGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, LOG_FILE + ".*")) {
+            for (Path file : files) {
+                String suffix = file.getFileName().toString().substring(LOG_FILE.length() + 1);
+                if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)) {
+                    generations.add(Long.parseLong(suffix));
+                }
+            }
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    private void attachLog(WriteAheadLog log) {
+        TorqueActions.getInstance().attachLog(log);
+        FieldEActions.getInstance().attachLog(log);
+        ForceActions.getInstance().attachLog(log);
+        PotencialEActions.getInstance().attachLog(log);
+        ElectricConsumeActions.getInstance().attachLog(log);
+        UsersActions.getInstance().attachLog(log);
+    }
+
+    private void replay(WalRecord record) {
+        switch (record.store()) {
+            case TorqueActions.WAL_STORE ->
+                TorqueActions.getInstance().replay(record);
+            case FieldEActions.WAL_STORE ->
+                FieldEActions.getInstance().replay(record);
+            case ForceActions.WAL_STORE ->
+                ForceActions.getInstance().replay(record);
+            case PotencialEActions.WAL_STORE ->
+                PotencialEActions.getInstance().replay(record);
+            case ElectricConsumeActions.WAL_STORE ->
+                ElectricConsumeActions.getInstance().replay(record);
+            case UsersActions.WAL_STORE ->
+                UsersActions.getInstance().replay(record);
+            default ->
+                throw new IllegalStateException("Almacén desconocido en el log: " + record.store());
+        }
+    }
+}
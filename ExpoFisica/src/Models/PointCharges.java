@@ -0,0 +1,146 @@
+package Models;
+
+/**
+ * Conjunto inmutable de cargas puntuales en el plano, en columnas x, y y q.
+ * Cada {@link FieldE} se interpreta como una carga situada a distanciaR metros
+ * del origen en la dirección anguloA (grados desde el eje x), de modo que el
+ * campo de una sola carga en el origen es el mismo k·|q|/r² que calcula
+ * {@link FieldE#calcularCampo}.
+ */
+public final class PointCharges {
+
+    private final int[] ids;
+    private final double[] x;
+    private final double[] y;
+    private final double[] q;
+    private final long version;
+
+    private PointCharges(int[] ids, double[] x, double[] y, double[] q, long version) {
+        this.ids = ids;
+        this.x = x;
+        this.y = y;
+        this.q = q;
+        this.version = version;
+    }
+
+    /**
+     * Construye las cargas a partir de una versión del almacén de campos.
+     *
+     * @param fieldsE Versión publicada del almacén.
+     * @return Cargas en el mismo orden que la vista.
+     */
+    public static PointCharges of(IntStoreSnapshot<FieldE> fieldsE) {
+        int size = fieldsE.size();
+        int[] ids = new int[size];
+        double[] x = new double[size];
+        double[] y = new double[size];
+        double[] q = new double[size];
+        int i = 0;
+        for (FieldE fieldE : fieldsE) {
+            ids[i] = fieldE.getId();
+            x[i] = positionX(fieldE.getDistanciaR(), fieldE.getAnguloA());
+            y[i] = positionY(fieldE.getDistanciaR(), fieldE.getAnguloA());
+            q[i] = fieldE.getCargaQ();
+            i++;
+        }
+        return new PointCharges(ids, x, y, q, fieldsE.version());
+    }
+
+    /**
+     * Crea un conjunto de cargas a partir de columnas ya calculadas (se
+     * copian).
+     *
+     * @param x Coordenadas x en metros.
+     * @param y Coordenadas y en metros.
+     * @param q Cargas en Coulombs.
+     * @return Cargas con IDs 0..n-1.
+     */
+    public static PointCharges of(double[] x, double[] y, double[] q) {
+        if (y.length != x.length || q.length != x.length) {
+            throw new IllegalArgumentException("Las columnas de cargas tienen longitudes distintas");
+        }
+        int[] ids = new int[x.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        return new PointCharges(ids, x.clone(), y.clone(), q.clone(), -1);
+    }
+
+    /**
+     * @param distanciaR Distancia al origen en metros.
+     * @param anguloA Ángulo en grados.
+     * @return Coordenada x de la carga.
+     */
+    public static double positionX(double distanciaR, double anguloA) {
+        return distanciaR * Math.cos(Math.toRadians(anguloA));
+    }
+
+    /**
+     * @param distanciaR Distancia al origen en metros.
+     * @param anguloA Ángulo en grados.
+     * @return Coordenada y de la carga.
+     */
+    public static double positionY(double distanciaR, double anguloA) {
+        return distanciaR * Math.sin(Math.toRadians(anguloA));
+    }
+
+    /**
+     * @return Número de cargas.
+     */
+    public int size() {
+        return q.length;
+    }
+
+    /**
+     * @param i Índice de la carga.
+     * @return ID del FieldE del que procede la carga.
+     */
+    public int idAt(int i) {
+        return ids[i];
+    }
+
+    /**
+     * @param i Índice de la carga.
+     * @return Coordenada x en metros.
+     */
+    public double x(int i) {
+        return x[i];
+    }
+
+    /**
+     * @param i Índice de la carga.
+     * @return Coordenada y en metros.
+     */
+    public double y(int i) {
+        return y[i];
+    }
+
+    /**
+     * @param i Índice de la carga.
+     * @return Carga en Coulombs.
+     */
+    public double q(int i) {
+        return q[i];
+    }
+
+    /**
+     * @return Versión del almacén de la que se construyeron las cargas, o -1 si
+     * no proceden del almacén.
+     */
+    public long version() {
+        return version;
+    }
+
+    // Acceso directo a las columnas para los bucles de evaluación del paquete
+    double[] xs() {
+        return x;
+    }
+
+    double[] ys() {
+        return y;
+    }
+
+    double[] qs() {
+        return q;
+    }
+}
@@ -60,7 +60,12 @@ public class PotencialE {
     // Método para calcular el potencial eléctrico (ejemplo de mejora)
     public void calcularPotencial() {
         // Suponiendo una fórmula para el cálculo del potencial eléctrico
-        this.resultado = this.campoE * this.distanciaD;
+        this.resultado = calcularPotencial(this.campoE, this.distanciaD);
+    }
+
+    // Fórmula del potencial eléctrico a partir del campo y la distancia: V = E·d
+    public static double calcularPotencial(double campoE, double distanciaD) {
+        return campoE * distanciaD;
     }
 
 }
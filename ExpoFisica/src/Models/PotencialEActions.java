@@ -1,12 +1,14 @@
 package Models;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * Clase singleton para gestionar acciones relacionadas con PotencialE.
+ * Clase singleton para gestionar acciones relacionadas con PotencialE. Es
+ * segura para varios hilos: las escrituras toman el cerrojo del almacén en
+ * exclusiva y las lecturas en modo compartido.
  */
 public class PotencialEActions {
 
@@ -21,11 +23,19 @@ public class PotencialEActions {
         return instance;
     }
 
-    // Mapa para almacenar los objetos PotencialE
-    private Map<Integer, PotencialE> potenciales = new HashMap<>();
+    // Almacén de los objetos PotencialE indexados por su ID primitivo
+    private final IntEntityStore<PotencialE> potenciales = new IntEntityStore<>();
 
     // Contador para asignar IDs únicos a los objetos PotencialE
-    private Integer potencialECount = 0;
+    private final AtomicInteger potencialECount = new AtomicInteger();
+
+    // Cerrojo del almacén: escrituras exclusivas, lecturas compartidas
+    private final StampedLock lock = new StampedLock();
+
+    // Código del almacén en el log de escritura anticipada
+    static final byte WAL_STORE = 4;
+    // Log de escritura anticipada; null mientras no haya persistencia activa
+    private WriteAheadLog log;
 
     // Expresión regular para validar si una cadena es un número decimal
     private static final String NUMERIC_REGEX = "^[0-9]+(\\.[0-9]+)?$";
@@ -61,20 +71,26 @@ public class PotencialEActions {
     }
 
     /**
-     * Añade un nuevo objeto PotencialE al mapa.
+     * Añade un nuevo objeto PotencialE al almacén.
      *
      * @param campoE Valor del campo eléctrico.
      * @param distanciaD Distancia.
      * @param resultado Resultado del cálculo.
      */
     public void addPotencialE(double campoE, double distanciaD, double resultado) {
-        PotencialE potencialE = createPotencial(potencialECount, campoE, distanciaD, resultado);
-        potenciales.put(potencialECount, potencialE);
-        potencialECount++;
+        int id = potencialECount.getAndIncrement();
+        PotencialE potencialE = createPotencial(id, campoE, distanciaD, resultado);
+        long stamp = lock.writeLock();
+        try {
+            journal(WalRecord.OP_ADD, id, campoE, distanciaD, resultado);
+            potenciales.put(id, potencialE);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
-     * Modifica un objeto PotencialE existente en el mapa.
+     * Modifica un objeto PotencialE existente en el almacén.
      *
      * @param id ID del objeto a modificar.
      * @param campoE Nuevo valor del campo eléctrico.
@@ -83,34 +99,159 @@ public class PotencialEActions {
      * @return true si el objeto fue modificado, false en caso contrario.
      */
     public boolean modifyPotencialE(Integer id, double campoE, double distanciaD, double resultado) {
-        if (potenciales.containsKey(id)) {
-            PotencialE potencialE = createPotencial(id, campoE, distanciaD, resultado);
-            potenciales.replace(id, potencialE);
-            return true;
+        long stamp = lock.writeLock();
+        try {
+            if (potenciales.containsKey(id)) {
+                journal(WalRecord.OP_MODIFY, id, campoE, distanciaD, resultado);
+                PotencialE potencialE = createPotencial(id, campoE, distanciaD, resultado);
+                potenciales.replace(id, potencialE);
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        return false;
     }
 
     /**
-     * Elimina un objeto PotencialE del mapa.
+     * Elimina un objeto PotencialE del almacén.
      *
      * @param id ID del objeto a eliminar.
      * @return true si el objeto fue eliminado, false en caso contrario.
      */
     public boolean deletePotencialE(Integer id) {
-        if (potenciales.containsKey(id)) {
-            potenciales.remove(id);
-            return true;
+        long stamp = lock.writeLock();
+        try {
+            if (potenciales.containsKey(id)) {
+                if (log != null) {
+                    log.append(WalRecord.of(WAL_STORE, WalRecord.OP_DELETE, id));
+                }
+                potenciales.remove(id);
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Lista todos los objetos PotencialE almacenados.
+     *
+     * @return Vista inmutable de la versión actual de los objetos PotencialE.
+     */
+    public IntStoreSnapshot<PotencialE> listPotenciales() {
+        long stamp = lock.readLock();
+        try {
+            return potenciales.snapshot();
+        } finally {
+            lock.unlockRead(stamp);
         }
-        return false;
     }
 
     /**
-     * Lista todos los objetos PotencialE almacenados en el mapa.
+     * Exporta los potenciales a almacenamiento columnar, donde las
+     * agregaciones y los recálculos masivos son recorridos lineales.
+     * Cada llamada recorre el almacén y copia sus filas (O(n)).
      *
-     * @return Mapa de objetos PotencialE.
+     * @return Copia columnar de los potenciales.
      */
-    public Map<Integer, PotencialE> listPotenciales() {
-        return potenciales;
+    public PotencialEColumns toColumns() {
+        long stamp = lock.readLock();
+        try {
+            return PotencialEColumns.of(potenciales, potenciales.size());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Activa el registro de las operaciones en el log de escritura anticipada.
+     *
+     * @param log Log a usar, o null para trabajar solo en memoria.
+     */
+    void attachLog(WriteAheadLog log) {
+        long stamp = lock.writeLock();
+        try {
+            this.log = log;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Aplica un registro del log sin volver a registrarlo, restaurando también
+     * el contador de IDs.
+     *
+     * @param record Registro a aplicar.
+     */
+    void replay(WalRecord record) {
+        int id = record.id();
+        long stamp = lock.writeLock();
+        try {
+            if (record.op() == WalRecord.OP_DELETE) {
+                potenciales.remove(id);
+            } else {
+                potenciales.put(id, createPotencial(id, record.nextNumber(), record.nextNumber(), record.nextNumber()));
+            }
+            potencialECount.accumulateAndGet(id + 1, Math::max);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Copia el contenido del almacén a una sección de instantánea y, en el
+     * mismo paso, empieza a registrar las operaciones en otro log; así cada
+     * operación queda en la instantánea o en el log nuevo, nunca en ninguno.
+     *
+     * @param next Log que recibe las operaciones posteriores a la copia.
+     * @return Sección con los potenciales y el contador de IDs.
+     */
+    SnapshotSection captureSnapshot(WriteAheadLog next) {
+        long stamp = lock.writeLock();
+        try {
+            SnapshotSection section = new SnapshotSection(WAL_STORE, potencialECount.get(), potenciales.size(), 3, 0);
+            double[][] columns = section.numbers;
+            int row = 0;
+            for (PotencialE potencial : potenciales) {
+                section.ids[row] = potencial.getId();
+                columns[0][row] = potencial.getCampoE();
+                columns[1][row] = potencial.getDistanciaD();
+                columns[2][row] = potencial.getResultado();
+                row++;
+            }
+            log = next;
+            return section;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Sustituye el contenido del almacén por el de una sección de instantánea.
+     *
+     * @param section Sección leída de la instantánea.
+     */
+    void restoreSnapshot(SnapshotSection section) {
+        double[][] columns = section.numbers;
+        long stamp = lock.writeLock();
+        try {
+            potenciales.clear();
+            potenciales.ensureCapacity(section.rows);
+            for (int row = 0; row < section.rows; row++) {
+                int id = section.ids[row];
+                potenciales.put(id, createPotencial(id, columns[0][row], columns[1][row], columns[2][row]));
+            }
+            potencialECount.set(section.nextId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void journal(byte op, int id, double campoE, double distanciaD, double resultado) {
+        if (log != null) {
+            log.append(WalRecord.of(WAL_STORE, op, id).number(campoE).number(distanciaD).number(resultado));
+        }
     }
 }
@@ -0,0 +1,172 @@
+package Models;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Almacenamiento columnar de potenciales eléctricos: campoE, distanciaD y
+ * resultado viven cada uno en su propio {@code double[]}. Las vistas
+ * {@link Row} que entrega son flyweights respaldados por las columnas, con
+ * los getters y setters de {@link PotencialE} salvo el del ID.
+ *
+ * No es el almacenamiento de los *Actions: estos guardan objetos del modelo
+ * porque sus vistas, oyentes, log y copias se basan en ellos; toColumns()
+ * construye una copia columnar puntual para agregaciones y recálculos
+ * masivos, que solo compensa cuando el recorrido amortiza la copia O(n).
+ */
+public class PotencialEColumns extends DoubleColumnStore implements Iterable<PotencialEColumns.Row> {
+
+    public static final int CAMPO_E = 0;
+    public static final int DISTANCIA_D = 1;
+    public static final int RESULTADO = 2;
+
+    /**
+     * Crea un almacén columnar vacío.
+     *
+     * @param expectedSize Número de potenciales esperado.
+     */
+    public PotencialEColumns(int expectedSize) {
+        super(3, expectedSize);
+    }
+
+    /**
+     * Construye el almacén columnar a partir de una colección de potenciales.
+     *
+     * @param potenciales Potenciales a copiar.
+     * @param expectedSize Número de potenciales esperado.
+     * @return Almacén columnar con los mismos datos.
+     */
+    public static PotencialEColumns of(Iterable<PotencialE> potenciales, int expectedSize) {
+        PotencialEColumns columns = new PotencialEColumns(expectedSize);
+        for (PotencialE potencialE : potenciales) {
+            columns.add(potencialE.getId(), potencialE.getCampoE(), potencialE.getDistanciaD(), potencialE.getResultado());
+        }
+        return columns;
+    }
+
+    /**
+     * Añade o sobrescribe un potencial eléctrico.
+     *
+     * @param id ID del potencial.
+     * @param campoE Campo eléctrico en N/C.
+     * @param distanciaD Distancia en metros.
+     * @param resultado Potencial calculado.
+     * @return Fila asignada.
+     */
+    public int add(int id, double campoE, double distanciaD, double resultado) {
+        int row = addRow(id);
+        set(row, CAMPO_E, campoE);
+        set(row, DISTANCIA_D, distanciaD);
+        set(row, RESULTADO, resultado);
+        return row;
+    }
+
+    /**
+     * Recalcula la columna de resultados con
+     * {@link PotencialE#calcularPotencial(double, double)} en un único
+     * recorrido lineal.
+     */
+    public void recalculate() {
+        double[] campoE = column(CAMPO_E);
+        double[] distanciaD = column(DISTANCIA_D);
+        double[] resultado = column(RESULTADO);
+        for (int i = 0, n = size(); i < n; i++) {
+            resultado[i] = PotencialE.calcularPotencial(campoE[i], distanciaD[i]);
+        }
+    }
+
+    /**
+     * Crea una vista flyweight de una fila.
+     *
+     * @param row Índice de fila.
+     * @return Potencial respaldado por las columnas.
+     */
+    public Row view(int row) {
+        Row view = new Row();
+        view.row = row;
+        return view;
+    }
+
+    /**
+     * Recorre las filas reutilizando una única vista flyweight: el objeto
+     * devuelto por next() cambia de fila en cada llamada y no debe guardarse.
+     *
+     * @return Iterador sobre las filas.
+     */
+    @Override
+    public Iterator<Row> iterator() {
+        Row view = new Row();
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size();
+            }
+
+            @Override
+            public Row next() {
+                if (next >= size()) {
+                    throw new NoSuchElementException();
+                }
+                view.row = next++;
+                return view;
+            }
+        };
+    }
+
+    /**
+     * Vista de una fila: no guarda datos propios, todo se delega a las
+     * columnas. El ID de la fila no se puede cambiar, por eso no es un
+     * {@link PotencialE} con su {@code setId}.
+     */
+    public final class Row {
+
+        private int row;
+
+        private Row() {
+        }
+
+        public int getId() {
+            return idAt(row);
+        }
+
+        /**
+         * Copia la fila a un {@link PotencialE} para el código que trabaja con el
+         * modelo; la copia no cambia si después se modifica la fila.
+         *
+         * @return Copia de la fila.
+         */
+        public PotencialE toPotencialE() {
+            return new PotencialE(getId(), getCampoE(), getDistanciaD(), getResultado());
+        }
+
+        public double getCampoE() {
+            return get(row, CAMPO_E);
+        }
+
+        public void setCampoE(double campoE) {
+            set(row, CAMPO_E, campoE);
+        }
+
+        public double getDistanciaD() {
+            return get(row, DISTANCIA_D);
+        }
+
+        public void setDistanciaD(double distanciaD) {
+            set(row, DISTANCIA_D, distanciaD);
+        }
+
+        public double getResultado() {
+            return get(row, RESULTADO);
+        }
+
+        public void setResultado(double resultado) {
+            set(row, RESULTADO, resultado);
+        }
+
+        public void calcularPotencial() {
+            setResultado(PotencialE.calcularPotencial(getCampoE(), getDistanciaD()));
+        }
+    }
+}
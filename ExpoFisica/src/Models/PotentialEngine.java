@@ -0,0 +1,267 @@
+package Models;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Potencial eléctrico V = Σ k·q/r de las cargas almacenadas en un conjunto de
+ * puntos de consulta fijos (sondas), mantenido al día de forma incremental.
+ *
+ * Cada punto guarda su suma parcial; al añadir o quitar una carga se suma o
+ * resta su contribución k·q/r en todos los puntos, O(puntos) en lugar de
+ * recalcular O(puntos × cargas). Como las altas y bajas se acumulan durante
+ * toda la sesión, cada suma es compensada (Neumaier): el término de
+ * corrección recoge el redondeo de cada operación, de modo que quitar una
+ * carga grande devuelve los puntos cercanos a su valor sin deriva.
+ *
+ * En la posición exacta de una carga su propio potencial no está definido, así
+ * que esa carga no contribuye en ese punto (igual que en {@link FieldEngine}).
+ */
+public final class PotentialEngine implements StoreListener<FieldE> {
+
+    private static final int LEAF_POINTS = 1 << 14; // Puntos por tarea hoja en las actualizaciones
+    private static final long LEAF_WORK = 1L << 16; // Pares punto-carga por tarea hoja al recalcular
+
+    private final ForkJoinPool pool;
+    private final IntEntityStore<FieldE> charges = new IntEntityStore<>();
+    private double[] x = new double[0];
+    private double[] y = new double[0];
+    private double[] sum = new double[0];
+    private double[] compensation = new double[0];
+
+    /**
+     * Crea un motor sin cargas ni puntos sobre el pool común de fork/join.
+     */
+    public PotentialEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea un motor sin cargas ni puntos.
+     *
+     * @param pool Pool de fork/join para las actualizaciones grandes.
+     */
+    public PotentialEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Crea un motor con las cargas almacenadas y lo registra como observador
+     * del almacén.
+     *
+     * @param actions Almacén de campos eléctricos.
+     * @param x Coordenadas x de los puntos de consulta en metros.
+     * @param y Coordenadas y de los puntos de consulta en metros.
+     * @return Motor sincronizado con el almacén.
+     */
+    public static PotentialEngine follow(FieldEActions actions, double[] x, double[] y) {
+        PotentialEngine engine = new PotentialEngine();
+        engine.setPoints(x, y);
+        actions.addListener(engine); // Recibe las cargas actuales como altas
+        return engine;
+    }
+
+    /**
+     * Sustituye los puntos de consulta y recalcula su potencial con todas las
+     * cargas conocidas, en paralelo.
+     *
+     * @param x Coordenadas x en metros (se copian).
+     * @param y Coordenadas y en metros (se copian).
+     */
+    public synchronized void setPoints(double[] x, double[] y) {
+        if (y.length != x.length) {
+            throw new IllegalArgumentException("Las coordenadas tienen longitudes distintas");
+        }
+        this.x = x.clone();
+        this.y = y.clone();
+        sum = new double[x.length];
+        compensation = new double[x.length];
+        PointCharges current = PointCharges.of(charges.snapshot());
+        if (x.length > 0 && current.size() > 0) {
+            pool.invoke(new Rebuild(current, 0, x.length));
+        }
+    }
+
+    /**
+     * @return Número de puntos de consulta.
+     */
+    public synchronized int size() {
+        return x.length;
+    }
+
+    /**
+     * @param i Índice del punto de consulta.
+     * @return Potencial en el punto, en V.
+     */
+    public synchronized double potentialAt(int i) {
+        return sum[i] + compensation[i];
+    }
+
+    /**
+     * @return Copia del potencial de todos los puntos de consulta, en V.
+     */
+    public synchronized double[] potentials() {
+        double[] values = new double[sum.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = sum[i] + compensation[i];
+        }
+        return values;
+    }
+
+    @Override
+    public synchronized void added(FieldE fieldE) {
+        charges.put(fieldE.getId(), fieldE);
+        update(fieldE, 1, null);
+    }
+
+    @Override
+    public synchronized void removed(FieldE fieldE) {
+        charges.remove(fieldE.getId());
+        update(fieldE, -1, null);
+    }
+
+    @Override
+    public synchronized void modified(FieldE previous, FieldE current) {
+        charges.put(current.getId(), current);
+        update(previous, -1, current); // Una sola pasada por los puntos
+    }
+
+    @Override
+    public synchronized void cleared() {
+        charges.clear();
+        Arrays.fill(sum, 0);
+        Arrays.fill(compensation, 0);
+    }
+
+    // Suma sign·k·q/r de una carga (y opcionalmente +k·q/r de otra) en todos los puntos
+    private void update(FieldE fieldE, int sign, FieldE also) {
+        Term first = Term.of(fieldE, sign);
+        Term second = also == null ? null : Term.of(also, 1);
+        if (first == null && second == null) {
+            return;
+        }
+        if (x.length <= LEAF_POINTS) {
+            apply(first, second, 0, x.length);
+        } else {
+            pool.invoke(new Update(first, second, 0, x.length));
+        }
+    }
+
+    private void apply(Term first, Term second, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (first != null) {
+                add(i, first.contribution(x[i], y[i]));
+            }
+            if (second != null) {
+                add(i, second.contribution(x[i], y[i]));
+            }
+        }
+    }
+
+    // Suma compensada de Neumaier
+    private void add(int i, double value) {
+        double s = sum[i];
+        double t = s + value;
+        if (Math.abs(s) >= Math.abs(value)) {
+            compensation[i] += (s - t) + value;
+        } else {
+            compensation[i] += (value - t) + s;
+        }
+        sum[i] = t;
+    }
+
+    /**
+     * Contribución de una carga con signo: k·q/r.
+     */
+    private static final class Term {
+
+        final double cx;
+        final double cy;
+        final double kq;
+
+        Term(double cx, double cy, double kq) {
+            this.cx = cx;
+            this.cy = cy;
+            this.kq = kq;
+        }
+
+        static Term of(FieldE fieldE, int sign) {
+            double cx = PointCharges.positionX(fieldE.getDistanciaR(), fieldE.getAnguloA());
+            double cy = PointCharges.positionY(fieldE.getDistanciaR(), fieldE.getAnguloA());
+            double kq = sign * FieldE.K * fieldE.getCargaQ();
+            if (!Double.isFinite(cx) || !Double.isFinite(cy) || kq == 0 || !Double.isFinite(kq)) {
+                return null;
+            }
+            return new Term(cx, cy, kq);
+        }
+
+        double contribution(double px, double py) {
+            double dx = px - cx;
+            double dy = py - cy;
+            double r2 = dx * dx + dy * dy;
+            return r2 > 0 ? kq / Math.sqrt(r2) : 0;
+        }
+    }
+
+    // Aplica una actualización a los puntos [from, to)
+    private final class Update extends RecursiveAction {
+
+        private final Term first;
+        private final Term second;
+        private final int from;
+        private final int to;
+
+        Update(Term first, Term second, int from, int to) {
+            this.first = first;
+            this.second = second;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_POINTS) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Update(first, second, from, middle), new Update(first, second, middle, to));
+            } else {
+                apply(first, second, from, to);
+            }
+        }
+    }
+
+    // Recalcula desde cero los puntos [from, to) con todas las cargas
+    private final class Rebuild extends RecursiveAction {
+
+        private final PointCharges current;
+        private final int from;
+        private final int to;
+
+        Rebuild(PointCharges current, int from, int to) {
+            this.current = current;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1 && (long) (to - from) * current.size() > LEAF_WORK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Rebuild(current, from, middle), new Rebuild(current, middle, to));
+                return;
+            }
+            for (int c = 0; c < current.size(); c++) {
+                double cx = current.x(c);
+                double cy = current.y(c);
+                double kq = FieldE.K * current.q(c);
+                if (!Double.isFinite(cx) || !Double.isFinite(cy) || kq == 0 || !Double.isFinite(kq)) {
+                    continue;
+                }
+                Term term = new Term(cx, cy, kq);
+                for (int i = from; i < to; i++) {
+                    add(i, term.contribution(x[i], y[i]));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,579 @@
+package Models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Potencial eléctrico V = Σ k·q/r de las cargas puntuales sobre una malla
+ * regular de nodos, con extracción de equipotenciales por marching squares.
+ *
+ * Como observador de {@link FieldEActions}, cada alta o baja suma o resta la
+ * contribución de una sola carga en todos los nodos (O(nodos), sin volver a
+ * recorrer las demás cargas). Las celdas se agrupan en franjas de
+ * {@value #BAND_ROWS} filas que guardan sus segmentos; un cambio solo
+ * invalida las franjas donde la cota k·|q|/r de la variación de V supera una
+ * milésima de la separación entre niveles, y {@link #contours()} vuelve a
+ * extraer en paralelo solo esas franjas antes de unir los segmentos en
+ * polilíneas.
+ *
+ * {@link #contours()} solo retiene el monitor de la malla para copiar las
+ * filas de nodos de las franjas invalidadas y, al final, para guardar sus
+ * segmentos; la extracción y la unión se hacen sobre esas copias sin él, de
+ * modo que las altas y bajas que llegan desde el almacén (con su cerrojo de
+ * escritura tomado) no esperan a la extracción.
+ *
+ * Para que V sea finito en los nodos que coinciden con una carga, la
+ * distancia se limita por debajo a media separación de la malla.
+ */
+public final class PotentialGrid implements StoreListener<FieldE> {
+
+    private static final int BAND_ROWS = 16;
+    private static final double LEVEL_TOLERANCE = 1e-3;
+
+    private final ForkJoinPool pool;
+    private final int columns;
+    private final int rows;
+    private final double minX;
+    private final double minY;
+    private final double stepX;
+    private final double stepY;
+    private final double minDistance;
+    private final double[] potential;
+    private final Band[] bands;
+    private double[] levels = new double[0];
+    private double tolerance;
+
+    /**
+     * Crea una malla con potencial nulo.
+     *
+     * @param minX Borde izquierdo en metros.
+     * @param minY Borde inferior en metros.
+     * @param maxX Borde derecho en metros.
+     * @param maxY Borde superior en metros.
+     * @param columns Nodos por fila (al menos 2).
+     * @param rows Nodos por columna (al menos 2).
+     * @param pool Pool de fork/join para la construcción y la extracción.
+     */
+    public PotentialGrid(double minX, double minY, double maxX, double maxY, int columns, int rows, ForkJoinPool pool) {
+        if (columns < 2 || rows < 2 || !(minX < maxX && minY < maxY)) {
+            throw new IllegalArgumentException("Malla no válida");
+        }
+        this.pool = pool;
+        this.columns = columns;
+        this.rows = rows;
+        this.minX = minX;
+        this.minY = minY;
+        stepX = (maxX - minX) / (columns - 1);
+        stepY = (maxY - minY) / (rows - 1);
+        minDistance = Math.min(stepX, stepY) / 2;
+        potential = new double[columns * rows];
+        bands = new Band[(rows - 1 + BAND_ROWS - 1) / BAND_ROWS];
+        for (int b = 0; b < bands.length; b++) {
+            bands[b] = new Band(b * BAND_ROWS, Math.min(rows - 1, (b + 1) * BAND_ROWS));
+        }
+    }
+
+    /**
+     * Crea una malla con las cargas almacenadas y la registra como
+     * observador del almacén.
+     *
+     * @param actions Almacén de campos eléctricos.
+     * @param minX Borde izquierdo en metros.
+     * @param minY Borde inferior en metros.
+     * @param maxX Borde derecho en metros.
+     * @param maxY Borde superior en metros.
+     * @param columns Nodos por fila.
+     * @param rows Nodos por columna.
+     * @return Malla sincronizada con el almacén.
+     */
+    public static PotentialGrid follow(FieldEActions actions, double minX, double minY, double maxX, double maxY,
+            int columns, int rows) {
+        PotentialGrid grid = new PotentialGrid(minX, minY, maxX, maxY, columns, rows, ForkJoinPool.commonPool());
+        actions.addListener(grid); // Recibe las cargas actuales como altas
+        return grid;
+    }
+
+    /**
+     * Recalcula toda la malla a partir de un conjunto de cargas, repartiendo
+     * las filas entre los núcleos.
+     *
+     * @param charges Cargas puntuales.
+     */
+    public synchronized void build(PointCharges charges) {
+        pool.invoke(new Build(charges, 0, rows));
+        invalidateAll();
+    }
+
+    /**
+     * Fija los valores de las curvas de nivel; invalida todas las franjas.
+     *
+     * @param levels Valores de potencial en V.
+     */
+    public synchronized void setLevels(double... levels) {
+        double[] sorted = levels.clone();
+        Arrays.sort(sorted);
+        double gap = Double.POSITIVE_INFINITY;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] > sorted[i - 1]) {
+                gap = Math.min(gap, sorted[i] - sorted[i - 1]);
+            }
+        }
+        if (Double.isInfinite(gap)) {
+            gap = sorted.length > 0 && sorted[0] != 0 ? Math.abs(sorted[0]) : 1;
+        }
+        this.levels = sorted;
+        tolerance = LEVEL_TOLERANCE * gap;
+        invalidateAll();
+    }
+
+    /**
+     * Elige los niveles como cuantiles del potencial actual de la malla, de
+     * modo que las curvas se reparten por toda la región.
+     *
+     * @param count Número de niveles.
+     * @return Niveles elegidos.
+     */
+    public synchronized double[] setLevelsFromQuantiles(int count) {
+        double[] sorted = potential.clone();
+        Arrays.sort(sorted);
+        double[] chosen = new double[count];
+        for (int i = 0; i < count; i++) {
+            chosen[i] = sorted[(int) ((i + 0.5) / count * sorted.length)];
+        }
+        setLevels(chosen);
+        return levels.clone();
+    }
+
+    /**
+     * @param column Índice de columna del nodo.
+     * @param row Índice de fila del nodo.
+     * @return Potencial en el nodo, en V.
+     */
+    public synchronized double valueAt(int column, int row) {
+        return potential[row * columns + column];
+    }
+
+    /**
+     * @return Número de franjas que se volverán a extraer en la próxima
+     * llamada a {@link #contours()}.
+     */
+    public synchronized int dirtyBands() {
+        int dirty = 0;
+        for (Band band : bands) {
+            if (band.dirty || !band.current) {
+                dirty++;
+            }
+        }
+        return dirty;
+    }
+
+    /**
+     * Extrae en paralelo las franjas invalidadas y une los segmentos de todas
+     * las franjas en polilíneas.
+     *
+     * @return Equipotenciales, agrupadas por nivel en orden creciente.
+     */
+    public List<Contour> contours() {
+        double[] currentLevels;
+        Segments[][] segments = new Segments[bands.length][];
+        List<Job> jobs = new ArrayList<>();
+        synchronized (this) {
+            currentLevels = levels;
+            for (int b = 0; b < bands.length; b++) {
+                Band band = bands[b];
+                if (band.dirty || !band.current) {
+                    // Reclama la franja: los cambios desde aquí se acumulan para la siguiente extracción
+                    band.dirty = false;
+                    band.pending = 0;
+                    band.current = false;
+                    band.epoch++;
+                    jobs.add(new Job(b, band.epoch, Arrays.copyOfRange(potential,
+                            band.firstRow * columns, (band.endRow + 1) * columns)));
+                } else {
+                    segments[b] = band.segments;
+                }
+            }
+        }
+        if (!jobs.isEmpty()) {
+            Job[] work = jobs.toArray(Job[]::new);
+            pool.invoke(new Extract(work, currentLevels, 0, work.length));
+            synchronized (this) {
+                for (Job job : work) {
+                    Band band = bands[job.band];
+                    if (band.epoch == job.epoch) { // Nadie la reclamó ni la invalidó entera después
+                        band.segments = job.segments;
+                        band.current = true;
+                    }
+                }
+            }
+            for (Job job : work) {
+                segments[job.band] = job.segments;
+            }
+        }
+        List<Contour> contours = new ArrayList<>();
+        for (int level = 0; level < currentLevels.length; level++) {
+            stitch(segments, currentLevels, level, contours);
+        }
+        return contours;
+    }
+
+    @Override
+    public void added(FieldE fieldE) {
+        apply(fieldE, 1);
+    }
+
+    @Override
+    public void removed(FieldE fieldE) {
+        apply(fieldE, -1);
+    }
+
+    @Override
+    public synchronized void cleared() {
+        Arrays.fill(potential, 0);
+        invalidateAll();
+    }
+
+    // Suma (sign = 1) o resta (sign = -1) la contribución de una carga y marca las franjas afectadas
+    private synchronized void apply(FieldE fieldE, int sign) {
+        double x = PointCharges.positionX(fieldE.getDistanciaR(), fieldE.getAnguloA());
+        double y = PointCharges.positionY(fieldE.getDistanciaR(), fieldE.getAnguloA());
+        double q = sign * fieldE.getCargaQ();
+        if (!Double.isFinite(x) || !Double.isFinite(y) || q == 0) {
+            return;
+        }
+        addCharge(x, y, q, 0, rows);
+        double strength = FieldE.K * Math.abs(q);
+        double left = minX;
+        double right = minX + stepX * (columns - 1);
+        double dx = Math.max(0, Math.max(left - x, x - right));
+        for (Band band : bands) {
+            if (band.dirty) {
+                continue;
+            }
+            double bottom = minY + band.firstRow * stepY;
+            double top = minY + band.endRow * stepY;
+            double dy = Math.max(0, Math.max(bottom - y, y - top));
+            band.pending += strength / Math.max(minDistance, Math.sqrt(dx * dx + dy * dy));
+            if (band.pending > tolerance) {
+                band.dirty = true;
+            }
+        }
+    }
+
+    // Suma la contribución k·q/r de una carga en las filas [fromRow, toRow)
+    private void addCharge(double x, double y, double q, int fromRow, int toRow) {
+        double kq = FieldE.K * q;
+        for (int row = fromRow; row < toRow; row++) {
+            double dy = minY + row * stepY - y;
+            double dy2 = dy * dy;
+            int offset = row * columns;
+            for (int column = 0; column < columns; column++) {
+                double dx = minX + column * stepX - x;
+                potential[offset + column] += kq / Math.max(minDistance, Math.sqrt(dx * dx + dy2));
+            }
+        }
+    }
+
+    // Invalida todas las franjas y descarta las extracciones en curso, que pueden usar otros niveles
+    private void invalidateAll() {
+        for (Band band : bands) {
+            band.dirty = true;
+            band.epoch++;
+        }
+    }
+
+    // Une los segmentos de un nivel compartiendo aristas: cada arista cortada pertenece como mucho a dos celdas
+    private static void stitch(Segments[][] bandSegments, double[] levels, int level, List<Contour> out) {
+        int total = 0;
+        for (Segments[] segments : bandSegments) {
+            total += segments[level].count;
+        }
+        if (total == 0) {
+            return;
+        }
+        float[] coords = new float[total * 4];
+        int[] edges = new int[total * 2];
+        int offset = 0;
+        for (Segments[] perLevel : bandSegments) {
+            Segments segments = perLevel[level];
+            System.arraycopy(segments.coords, 0, coords, offset * 4, segments.count * 4);
+            System.arraycopy(segments.edges, 0, edges, offset * 2, segments.count * 2);
+            offset += segments.count;
+        }
+        // link[extremo] = extremo de otro segmento en la misma arista, o -1
+        int[] link = new int[total * 2];
+        Arrays.fill(link, -1);
+        Map<Integer, Integer> firstEnd = new HashMap<>(total * 2);
+        for (int end = 0; end < total * 2; end++) {
+            Integer other = firstEnd.putIfAbsent(edges[end], end);
+            if (other != null) {
+                link[end] = other;
+                link[other] = end;
+            }
+        }
+        boolean[] used = new boolean[total];
+        float[] buffer = new float[64];
+        for (int start = 0; start < total; start++) {
+            if (used[start]) {
+                continue;
+            }
+            // Retrocede hasta un extremo libre (curva abierta) o hasta volver al inicio (cerrada)
+            int end = start * 2;
+            boolean closed = false;
+            while (link[end] >= 0) {
+                int previous = link[end] ^ 1; // El otro extremo del segmento vecino
+                if (previous >> 1 == start) {
+                    closed = true;
+                    break;
+                }
+                end = previous;
+            }
+            int length = 0;
+            int current = end;
+            while (true) {
+                int segment = current >> 1;
+                used[segment] = true;
+                if (length + 4 > buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                if (length == 0) {
+                    buffer[length++] = coords[current * 2];
+                    buffer[length++] = coords[current * 2 + 1];
+                }
+                int exit = current ^ 1;
+                buffer[length++] = coords[exit * 2];
+                buffer[length++] = coords[exit * 2 + 1];
+                int next = link[exit];
+                if (next < 0 || used[next >> 1]) {
+                    break;
+                }
+                current = next;
+            }
+            if (closed) {
+                length -= 2; // El último punto repite el primero
+            }
+            out.add(new Contour(levels[level], Arrays.copyOf(buffer, length), closed));
+        }
+    }
+
+    /**
+     * Segmentos de un nivel dentro de una franja: por segmento, dos puntos
+     * (x, y) y la arista de la malla en la que está cada uno.
+     */
+    private static final class Segments {
+
+        float[] coords = new float[32];
+        int[] edges = new int[16];
+        int count;
+
+        void add(float x1, float y1, int edge1, float x2, float y2, int edge2) {
+            if (count * 4 + 4 > coords.length) {
+                coords = Arrays.copyOf(coords, coords.length * 2);
+                edges = Arrays.copyOf(edges, edges.length * 2);
+            }
+            coords[count * 4] = x1;
+            coords[count * 4 + 1] = y1;
+            coords[count * 4 + 2] = x2;
+            coords[count * 4 + 3] = y2;
+            edges[count * 2] = edge1;
+            edges[count * 2 + 1] = edge2;
+            count++;
+        }
+    }
+
+    /**
+     * Franja de filas de celdas [firstRow, endRow) con sus segmentos en caché.
+     * Los segmentos guardados no se modifican, así que se pueden unir fuera
+     * del monitor.
+     */
+    private static final class Band {
+
+        final int firstRow;
+        final int endRow;
+        Segments[] segments = new Segments[0];
+        boolean dirty = true;
+        boolean current;  // Los segmentos corresponden a la última extracción reclamada
+        int epoch;        // Cambia con cada reclamación o invalidación total
+        double pending;
+
+        Band(int firstRow, int endRow) {
+            this.firstRow = firstRow;
+            this.endRow = endRow;
+        }
+    }
+
+    /**
+     * Extracción pendiente de una franja: copia de sus filas de nodos
+     * [firstRow, endRow] y segmentos resultantes.
+     */
+    private static final class Job {
+
+        final int band;
+        final int epoch;
+        final double[] nodes;
+        Segments[] segments;
+
+        Job(int band, int epoch, double[] nodes) {
+            this.band = band;
+            this.epoch = epoch;
+            this.nodes = nodes;
+        }
+    }
+
+    // Calcula la malla por bloques de filas
+    private final class Build extends RecursiveAction {
+
+        private final PointCharges charges;
+        private final int fromRow;
+        private final int toRow;
+
+        Build(PointCharges charges, int fromRow, int toRow) {
+            this.charges = charges;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (toRow - fromRow > BAND_ROWS) {
+                int middle = (fromRow + toRow) >>> 1;
+                invokeAll(new Build(charges, fromRow, middle), new Build(charges, middle, toRow));
+                return;
+            }
+            Arrays.fill(potential, fromRow * columns, toRow * columns, 0);
+            for (int i = 0; i < charges.size(); i++) {
+                double x = charges.x(i);
+                double y = charges.y(i);
+                if (Double.isFinite(x) && Double.isFinite(y)) {
+                    addCharge(x, y, charges.q(i), fromRow, toRow);
+                }
+            }
+        }
+    }
+
+    // Marching squares sobre un rango de franjas, leyendo las copias de sus nodos
+    private final class Extract extends RecursiveAction {
+
+        private final Job[] work;
+        private final double[] levels;
+        private final int from;
+        private final int to;
+
+        Extract(Job[] work, double[] levels, int from, int to) {
+            this.work = work;
+            this.levels = levels;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Extract(work, levels, from, middle), new Extract(work, levels, middle, to));
+                return;
+            }
+            Job job = work[from];
+            Band band = bands[job.band];
+            Segments[] segments = new Segments[levels.length];
+            for (int level = 0; level < levels.length; level++) {
+                segments[level] = new Segments();
+                for (int row = band.firstRow; row < band.endRow; row++) {
+                    for (int column = 0; column < columns - 1; column++) {
+                        cell(job.nodes, band.firstRow, column, row, levels[level], segments[level]);
+                    }
+                }
+            }
+            job.segments = segments;
+        }
+
+        // Esquinas v0 (abajo izq.), v1 (abajo der.), v2 (arriba der.), v3 (arriba izq.);
+        // aristas e0 abajo, e1 derecha, e2 arriba, e3 izquierda
+        private void cell(double[] nodes, int firstRow, int column, int row, double level, Segments out) {
+            int base = (row - firstRow) * columns + column;
+            double v0 = nodes[base];
+            double v1 = nodes[base + 1];
+            double v2 = nodes[base + columns + 1];
+            double v3 = nodes[base + columns];
+            boolean a0 = v0 > level;
+            boolean a1 = v1 > level;
+            boolean a2 = v2 > level;
+            boolean a3 = v3 > level;
+            int crossings = (a0 != a1 ? 1 : 0) + (a1 != a2 ? 1 : 0) + (a2 != a3 ? 1 : 0) + (a3 != a0 ? 1 : 0);
+            if (crossings == 0) {
+                return;
+            }
+            if (crossings == 4) {
+                // Punto de silla: decide con el valor medio del centro de la celda
+                boolean center = (v0 + v1 + v2 + v3) / 4 > level;
+                if (center == a0) {
+                    segment(column, row, level, 0, 1, v0, v1, v2, v3, out);
+                    segment(column, row, level, 2, 3, v0, v1, v2, v3, out);
+                } else {
+                    segment(column, row, level, 3, 0, v0, v1, v2, v3, out);
+                    segment(column, row, level, 1, 2, v0, v1, v2, v3, out);
+                }
+                return;
+            }
+            int first = -1;
+            int second = -1;
+            boolean[] crossed = {a0 != a1, a1 != a2, a2 != a3, a3 != a0};
+            for (int edge = 0; edge < 4; edge++) {
+                if (crossed[edge]) {
+                    if (first < 0) {
+                        first = edge;
+                    } else {
+                        second = edge;
+                    }
+                }
+            }
+            segment(column, row, level, first, second, v0, v1, v2, v3, out);
+        }
+
+        private void segment(int column, int row, double level, int edgeA, int edgeB,
+                double v0, double v1, double v2, double v3, Segments out) {
+            float[] a = crossing(column, row, level, edgeA, v0, v1, v2, v3);
+            float[] b = crossing(column, row, level, edgeB, v0, v1, v2, v3);
+            out.add(a[0], a[1], edgeId(column, row, edgeA), b[0], b[1], edgeId(column, row, edgeB));
+        }
+
+        // Punto donde la arista corta el nivel, por interpolación lineal
+        private float[] crossing(int column, int row, double level, int edge, double v0, double v1, double v2, double v3) {
+            double x0 = minX + column * stepX;
+            double y0 = minY + row * stepY;
+            switch (edge) {
+                case 0 -> {
+                    return new float[]{(float) (x0 + fraction(v0, v1, level) * stepX), (float) y0};
+                }
+                case 1 -> {
+                    return new float[]{(float) (x0 + stepX), (float) (y0 + fraction(v1, v2, level) * stepY)};
+                }
+                case 2 -> {
+                    return new float[]{(float) (x0 + fraction(v3, v2, level) * stepX), (float) (y0 + stepY)};
+                }
+                default -> {
+                    return new float[]{(float) x0, (float) (y0 + fraction(v0, v3, level) * stepY)};
+                }
+            }
+        }
+
+        private double fraction(double from, double to, double level) {
+            return (level - from) / (to - from);
+        }
+
+        // Identificador global de arista: horizontales pares, verticales impares
+        private int edgeId(int column, int row, int edge) {
+            return switch (edge) {
+                case 0 -> 2 * (row * columns + column);
+                case 1 -> 2 * (row * columns + column + 1) + 1;
+                case 2 -> 2 * ((row + 1) * columns + column);
+                default -> 2 * (row * columns + column) + 1;
+            };
+        }
+    }
+}
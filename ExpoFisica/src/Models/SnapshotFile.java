@@ -0,0 +1,249 @@
+package Models;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Instantánea binaria de todos los almacenes con disposición fija:
+ *
+ * <pre>
+ * cabecera (32 bytes): magic, versión, nº de secciones, CRC32C del cuerpo,
+ *                      generación del log, longitud del cuerpo
+ * sección:  almacén, siguiente ID, filas, columnas numéricas, columnas de texto
+ *           IDs (int[filas]), cada columna numérica (double[filas]),
+ *           cada columna de texto (int[filas] longitudes, -1 = null, y bytes UTF-8)
+ * </pre>
+ *
+ * Cada bloque se alinea a 8 bytes, de modo que al leer el archivo mapeado con
+ * {@link FileChannel#map} las columnas se copian en bloque a los arreglos sin
+ * decodificar campo a campo. La instantánea se escribe en un archivo temporal
+ * que se renombra de forma atómica, así que el archivo final siempre está
+ * completo; la suma de verificación detecta cualquier otra corrupción.
+ */
+final class SnapshotFile {
+
+    private static final int MAGIC = 0x45584653; // "EXFS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int SECTION_HEADER_SIZE = 24;
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    final long walGeneration;
+    final List<SnapshotSection> sections;
+
+    /**
+     * @param walGeneration Generación del log que continúa tras la instantánea.
+     * @param sections Secciones de los almacenes.
+     */
+    SnapshotFile(long walGeneration, List<SnapshotSection> sections) {
+        this.walGeneration = walGeneration;
+        this.sections = sections;
+    }
+
+    /**
+     * Escribe la instantánea en un archivo temporal junto al destino, la
+     * fuerza a disco y la renombra sobre el destino de forma atómica.
+     *
+     * @param target Archivo de la instantánea.
+     * @throws IOException Si la escritura o el renombrado fallan.
+     */
+    void write(Path target) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.position(HEADER_SIZE);
+            ChunkWriter body = new ChunkWriter(channel);
+            for (SnapshotSection section : sections) {
+                writeSection(body, section);
+            }
+            body.flush();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(sections.size()).putInt((int) body.crc.getValue())
+                    .putLong(walGeneration).putLong(body.length).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temp);
+            throw ex;
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Lee una instantánea mapeando el archivo en memoria y verificando su suma
+     * de verificación antes de decodificarla. El mapeo pertenece a un
+     * {@link Arena} confinado que se cierra al terminar, así que el archivo se
+     * desmapea enseguida en lugar de esperar al recolector de basura (en
+     * Windows un archivo mapeado no se puede reemplazar con
+     * {@link Files#move}).
+     *
+     * @param path Archivo de la instantánea.
+     * @return La instantánea leída.
+     * @throws IOException Si el archivo no se puede leer o está corrupto.
+     */
+    static SnapshotFile read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+                Arena arena = Arena.ofConfined()) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Tamaño de instantánea no válido: " + size);
+            }
+            // La vista deja de ser accesible al cerrar el arena; todo lo leído se copia antes
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena).asByteBuffer();
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("El archivo no es una instantánea de ExpoFisica compatible");
+            }
+            int sectionCount = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            long walGeneration = buffer.getLong();
+            long bodyLength = buffer.getLong();
+            if (bodyLength != size - HEADER_SIZE) {
+                throw new IOException("Instantánea truncada");
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice());
+            if ((int) crc.getValue() != expectedCrc) {
+                throw new IOException("Suma de verificación de la instantánea incorrecta");
+            }
+            List<SnapshotSection> sections = new ArrayList<>(sectionCount);
+            for (int i = 0; i < sectionCount; i++) {
+                sections.add(readSection(buffer));
+            }
+            return new SnapshotFile(walGeneration, sections);
+        }
+    }
+
+    private static void writeSection(ChunkWriter out, SnapshotSection section) throws IOException {
+        ByteBuffer header = out.reserve(SECTION_HEADER_SIZE);
+        header.put(section.store).put((byte) 0).putShort((short) 0).putInt(section.nextId).putInt(section.rows)
+                .putInt(section.numbers.length).putInt(section.texts.length).putInt(0);
+        for (int row = 0; row < section.rows; row++) {
+            out.reserve(Integer.BYTES).putInt(section.ids[row]);
+        }
+        out.align();
+        for (double[] column : section.numbers) {
+            for (int row = 0; row < section.rows; row++) {
+                out.reserve(Double.BYTES).putDouble(column[row]);
+            }
+        }
+        for (String[] column : section.texts) {
+            byte[][] encoded = new byte[section.rows][];
+            for (int row = 0; row < section.rows; row++) {
+                encoded[row] = column[row] == null ? null : column[row].getBytes(StandardCharsets.UTF_8);
+                out.reserve(Integer.BYTES).putInt(encoded[row] == null ? -1 : encoded[row].length);
+            }
+            for (byte[] bytes : encoded) {
+                if (bytes != null) {
+                    out.put(bytes);
+                }
+            }
+            out.align();
+        }
+    }
+
+    private static SnapshotSection readSection(ByteBuffer in) throws IOException {
+        byte store = in.get();
+        in.position(in.position() + 3);
+        int nextId = in.getInt();
+        int rows = in.getInt();
+        int numberColumns = in.getInt();
+        int textColumns = in.getInt();
+        in.getInt();
+        if (rows < 0 || numberColumns < 0 || textColumns < 0
+                || (long) rows * (Integer.BYTES + (long) numberColumns * Double.BYTES) > in.remaining()) {
+            throw new IOException("Sección de instantánea no válida");
+        }
+        SnapshotSection section = new SnapshotSection(store, nextId, rows, numberColumns, textColumns);
+        in.asIntBuffer().get(section.ids);
+        in.position(in.position() + rows * Integer.BYTES);
+        align(in);
+        for (double[] column : section.numbers) {
+            in.asDoubleBuffer().get(column);
+            in.position(in.position() + rows * Double.BYTES);
+        }
+        int[] lengths = new int[rows];
+        for (String[] column : section.texts) {
+            in.asIntBuffer().get(lengths);
+            in.position(in.position() + rows * Integer.BYTES);
+            for (int row = 0; row < rows; row++) {
+                if (lengths[row] >= 0) {
+                    column[row] = decode(in, lengths[row]);
+                }
+            }
+            align(in);
+        }
+        return section;
+    }
+
+    private static String decode(ByteBuffer in, int length) {
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Las posiciones absolutas coinciden con las del cuerpo porque la cabecera mide 32 bytes
+    private static void align(ByteBuffer in) {
+        in.position((in.position() + 7) & ~7);
+    }
+
+    /**
+     * Acumula el cuerpo en bloques, calculando la suma de verificación y la
+     * longitud a medida que se escriben.
+     */
+    private static final class ChunkWriter {
+
+        private final FileChannel channel;
+        private final ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+        private final CRC32C crc = new CRC32C();
+        private long length;
+
+        ChunkWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        ByteBuffer reserve(int bytes) throws IOException {
+            if (chunk.remaining() < bytes) {
+                flush();
+            }
+            return chunk;
+        }
+
+        void put(byte[] bytes) throws IOException {
+            for (int offset = 0; offset < bytes.length; ) {
+                int count = Math.min(reserve(1).remaining(), bytes.length - offset);
+                chunk.put(bytes, offset, count);
+                offset += count;
+            }
+        }
+
+        void align() throws IOException {
+            int padding = (int) (-(length + chunk.position()) & 7);
+            ByteBuffer out = reserve(padding);
+            for (int i = 0; i < padding; i++) {
+                out.put((byte) 0);
+            }
+        }
+
+        void flush() throws IOException {
+            chunk.flip();
+            crc.update(chunk.array(), 0, chunk.limit());
+            length += chunk.limit();
+            while (chunk.hasRemaining()) {
+                channel.write(chunk);
+            }
+            chunk.clear();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package Models;
+
+/**
+ * Contenido de un almacén dentro de una instantánea, organizado por columnas:
+ * un arreglo de IDs y un arreglo por cada campo numérico o de texto, todos
+ * indexados por fila.
+ */
+final class SnapshotSection {
+
+    final byte store;
+    final int nextId;
+    final int rows;
+    final int[] ids;
+    final double[][] numbers;
+    final String[][] texts;
+
+    /**
+     * Crea una sección vacía con las columnas indicadas.
+     *
+     * @param store Código del almacén (el mismo que usa el log).
+     * @param nextId Siguiente ID que asignará el almacén.
+     * @param rows Número de filas.
+     * @param numberColumns Número de columnas numéricas.
+     * @param textColumns Número de columnas de texto.
+     */
+    SnapshotSection(byte store, int nextId, int rows, int numberColumns, int textColumns) {
+        this.store = store;
+        this.nextId = nextId;
+        this.rows = rows;
+        this.ids = new int[rows];
+        this.numbers = new double[numberColumns][rows];
+        this.texts = new String[textColumns][rows];
+    }
+}
@@ -0,0 +1,45 @@
+package Models;
+
+/**
+ * Recibe los cambios de un almacén *Actions para mantener al día estructuras
+ * derivadas (árboles, mallas, cachés) sin reconstruirlas. Los métodos se
+ * invocan con el cerrojo de escritura del almacén tomado, en el mismo orden en
+ * que se aplican los cambios, así que deben ser rápidos y no volver a llamar
+ * al almacén.
+ *
+ * @param <T> Tipo de entidad del almacén.
+ */
+public interface StoreListener<T> {
+
+    /**
+     * Se añadió una entidad.
+     *
+     * @param entity Entidad añadida.
+     */
+    void added(T entity);
+
+    /**
+     * Se eliminó una entidad.
+     *
+     * @param entity Entidad eliminada.
+     */
+    void removed(T entity);
+
+    /**
+     * Se reemplazó una entidad por otra con el mismo ID. Por defecto equivale
+     * a eliminar la anterior y añadir la nueva.
+     *
+     * @param previous Entidad anterior.
+     * @param current Entidad nueva.
+     */
+    default void modified(T previous, T current) {
+        removed(previous);
+        added(current);
+    }
+
+    /**
+     * Se vació el almacén (por ejemplo, antes de restaurar una instantánea).
+     * Las entidades restauradas llegan después con {@link #added}.
+     */
+    void cleared();
+}
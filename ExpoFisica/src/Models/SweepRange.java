@@ -0,0 +1,52 @@
+package Models;
+
+/**
+ * Rango de valores equiespaciados de un parámetro para
+ * {@link ParameterSweep}: {@code count} valores de {@code start} a
+ * {@code end}, ambos incluidos.
+ */
+public final class SweepRange {
+
+    private final double start;
+    private final double end;
+    private final int count;
+
+    /**
+     * @param start Primer valor.
+     * @param end Último valor (ignorado si count es 1).
+     * @param count Número de valores (al menos 1).
+     */
+    public SweepRange(double start, double end, int count) {
+        if (count < 1 || !Double.isFinite(start) || !Double.isFinite(end)) {
+            throw new IllegalArgumentException("Rango no válido");
+        }
+        this.start = start;
+        this.end = end;
+        this.count = count;
+    }
+
+    /**
+     * Rango de un solo valor, para fijar un parámetro.
+     *
+     * @param value Valor fijo.
+     * @return Rango con ese único valor.
+     */
+    public static SweepRange of(double value) {
+        return new SweepRange(value, value, 1);
+    }
+
+    /**
+     * @return Número de valores.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @param i Índice del valor, de 0 a count - 1.
+     * @return Valor i-ésimo del rango.
+     */
+    public double value(int i) {
+        return count == 1 ? start : i == count - 1 ? end : start + (end - start) * i / (count - 1);
+    }
+}
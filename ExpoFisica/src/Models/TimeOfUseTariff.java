@@ -0,0 +1,302 @@
+package Models;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Tarifa eléctrica por franjas horarias, con horario propio para cada día de
+ * la semana y cargos adicionales por bloques de consumo acumulado. Sustituye
+ * a la tarifa plana de {@link ElectricConsume#calculateResult} cuando el
+ * precio depende de la hora.
+ *
+ * Al construirse, las franjas de la semana se compilan en una tabla de
+ * intervalos (inicio en horas desde el lunes 00:00, precio por kWh) con la
+ * suma acumulada precio·horas al inicio de cada intervalo. El coste de una
+ * ventana de uso a potencia constante es P·(F(fin) − F(inicio)), donde F se
+ * obtiene con una búsqueda binaria y una lectura de la suma acumulada, sin
+ * recorrer la ventana hora a hora. Los bloques se compilan igual sobre los kWh
+ * acumulados del periodo de facturación ({@link Account}).
+ *
+ * Las horas se interpretan en hora local del reloj (sin cambios de horario).
+ */
+public final class TimeOfUseTariff {
+
+    private static final double WEEK_HOURS = 7 * 24;
+    private static final int DAY_MINUTES = 24 * 60;
+    // 1970-01-01 fue jueves: el lunes anterior está 3 días antes de la época
+    private static final long MONDAY_EPOCH_SECOND = -3L * 24 * 3600;
+
+    private final double[] bandStart;   // Horas desde el lunes 00:00
+    private final double[] bandRate;    // Precio por kWh
+    private final double[] bandPrefix;  // Σ precio·horas antes de cada franja
+    private final double weekTotal;
+    private final double[] tierStart;   // kWh acumulados
+    private final double[] tierRate;    // Cargo adicional por kWh
+    private final double[] tierPrefix;
+
+    private TimeOfUseTariff(double[] bandStart, double[] bandRate, double[] tierStart, double[] tierRate) {
+        this.bandStart = bandStart;
+        this.bandRate = bandRate;
+        this.bandPrefix = prefix(bandStart, bandRate, WEEK_HOURS);
+        this.weekTotal = bandPrefix[bandStart.length];
+        this.tierStart = tierStart;
+        this.tierRate = tierRate;
+        this.tierPrefix = prefix(tierStart, tierRate, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Tarifa con un único precio a todas horas y sin bloques; equivale a
+     * {@link ElectricConsume#calculateResult}.
+     *
+     * @param rate Precio por kWh.
+     * @return Tarifa plana.
+     */
+    public static TimeOfUseTariff flat(double rate) {
+        return new Builder().everyDay(new int[]{0}, new double[]{rate}).build();
+    }
+
+    /**
+     * Coste de usar un aparato a potencia constante durante una ventana, sin
+     * cargos por bloques.
+     *
+     * @param electricPower Potencia en vatios.
+     * @param start Inicio de la ventana (hora local).
+     * @param deviceTime Duración en horas.
+     * @return Coste en moneda local.
+     */
+    public double cost(double electricPower, LocalDateTime start, double deviceTime) {
+        return cost(electricPower, start.toEpochSecond(ZoneOffset.UTC), deviceTime);
+    }
+
+    /**
+     * Variante de {@link #cost(double, LocalDateTime, double)} con el inicio
+     * en segundos de hora local desde 1970-01-01 00:00, para facturar lotes
+     * sin crear objetos de fecha.
+     *
+     * @param electricPower Potencia en vatios.
+     * @param startSecond Inicio en segundos de hora local desde la época.
+     * @param deviceTime Duración en horas.
+     * @return Coste en moneda local.
+     */
+    public double cost(double electricPower, long startSecond, double deviceTime) {
+        // Se descuentan las semanas completas antes de evaluar F para no perder precisión
+        double start = hoursSinceMonday(startSecond);
+        start -= Math.floor(start / WEEK_HOURS) * WEEK_HOURS;
+        return electricPower / 1000 * (rateHours(start + deviceTime) - rateHours(start));
+    }
+
+    /**
+     * Factura un lote de ventanas de uso sin cargos por bloques.
+     *
+     * @param electricPower Potencias en vatios.
+     * @param startSecond Inicios en segundos de hora local desde la época.
+     * @param deviceTime Duraciones en horas.
+     * @param result Destino de los costes.
+     */
+    public void costAll(double[] electricPower, long[] startSecond, double[] deviceTime, double[] result) {
+        int count = electricPower.length;
+        if (startSecond.length != count || deviceTime.length != count || result.length != count) {
+            throw new IllegalArgumentException("Las columnas del lote tienen longitudes distintas");
+        }
+        for (int i = 0; i < count; i++) {
+            result[i] = cost(electricPower[i], startSecond[i], deviceTime[i]);
+        }
+    }
+
+    /**
+     * @return Nueva cuenta con el consumo acumulado a cero.
+     */
+    public Account newAccount() {
+        return new Account();
+    }
+
+    /**
+     * @param hour Horas desde el lunes 00:00 (se reduce a la semana).
+     * @return Precio por kWh vigente.
+     */
+    double rateAt(double hour) {
+        double inWeek = hour - Math.floor(hour / WEEK_HOURS) * WEEK_HOURS;
+        return bandRate[floorIndex(bandStart, inWeek)];
+    }
+
+    // F(t): Σ precio·horas desde el lunes de la época hasta t
+    private double rateHours(double hours) {
+        double weeks = Math.floor(hours / WEEK_HOURS);
+        double inWeek = hours - weeks * WEEK_HOURS;
+        int band = floorIndex(bandStart, inWeek);
+        return weeks * weekTotal + bandPrefix[band] + bandRate[band] * (inWeek - bandStart[band]);
+    }
+
+    // G(e): Σ cargos de bloque para los primeros e kWh
+    private double tierCharge(double energy) {
+        int tier = floorIndex(tierStart, energy);
+        return tierPrefix[tier] + tierRate[tier] * (energy - tierStart[tier]);
+    }
+
+    private static double hoursSinceMonday(long epochSecond) {
+        return (epochSecond - MONDAY_EPOCH_SECOND) / 3600.0;
+    }
+
+    // Último intervalo cuyo inicio es <= value (el primero empieza en 0)
+    private static int floorIndex(double[] starts, double value) {
+        int index = Arrays.binarySearch(starts, value);
+        return index >= 0 ? index : Math.max(0, -index - 2);
+    }
+
+    // Suma acumulada de precio·longitud al inicio de cada intervalo; el último acaba en end
+    private static double[] prefix(double[] starts, double[] rates, double end) {
+        double[] prefix = new double[starts.length + 1];
+        for (int i = 0; i < starts.length; i++) {
+            double next = i + 1 < starts.length ? starts[i + 1] : end;
+            prefix[i + 1] = Double.isInfinite(next) ? Double.NaN : prefix[i] + rates[i] * (next - starts[i]);
+        }
+        return prefix;
+    }
+
+    /**
+     * Consumo acumulado de un periodo de facturación, para aplicar los cargos
+     * por bloques. No es segura para varios hilos; se usa una por cliente y
+     * periodo.
+     */
+    public final class Account {
+
+        private double energy; // kWh acumulados en el periodo
+
+        private Account() {
+        }
+
+        /**
+         * Factura una ventana de uso y suma su energía al periodo.
+         *
+         * @param electricPower Potencia en vatios.
+         * @param startSecond Inicio en segundos de hora local desde la época.
+         * @param deviceTime Duración en horas.
+         * @return Coste por franjas más los cargos de bloque de esta ventana.
+         */
+        public double charge(double electricPower, long startSecond, double deviceTime) {
+            double added = electricPower / 1000 * deviceTime;
+            double blocks = tierCharge(energy + added) - tierCharge(energy);
+            energy += added;
+            return cost(electricPower, startSecond, deviceTime) + blocks;
+        }
+
+        /**
+         * @return kWh acumulados en el periodo.
+         */
+        public double getEnergy() {
+            return energy;
+        }
+
+        /**
+         * Empieza un periodo de facturación nuevo.
+         */
+        public void reset() {
+            energy = 0;
+        }
+    }
+
+    /**
+     * Define las franjas de cada día y los bloques antes de compilar la
+     * tarifa.
+     */
+    public static final class Builder {
+
+        private final int[][] dayStarts = new int[7][];
+        private final double[][] dayRates = new double[7][];
+        private double[] tierStart = {0};
+        private double[] tierRate = {0};
+
+        /**
+         * Fija las franjas de un día.
+         *
+         * @param day Día de la semana.
+         * @param startMinutes Minuto del día en que empieza cada franja,
+         * creciente y empezando en 0.
+         * @param rates Precio por kWh de cada franja.
+         * @return Este constructor.
+         */
+        public Builder day(DayOfWeek day, int[] startMinutes, double[] rates) {
+            if (startMinutes.length == 0 || startMinutes.length != rates.length || startMinutes[0] != 0) {
+                throw new IllegalArgumentException("Las franjas deben empezar en el minuto 0");
+            }
+            for (int i = 0; i < startMinutes.length; i++) {
+                if ((i > 0 && startMinutes[i] <= startMinutes[i - 1]) || startMinutes[i] >= DAY_MINUTES
+                        || !Double.isFinite(rates[i])) {
+                    throw new IllegalArgumentException("Franjas no válidas");
+                }
+            }
+            dayStarts[day.ordinal()] = startMinutes.clone();
+            dayRates[day.ordinal()] = rates.clone();
+            return this;
+        }
+
+        /**
+         * Fija las mismas franjas para todos los días.
+         *
+         * @param startMinutes Minuto del día en que empieza cada franja.
+         * @param rates Precio por kWh de cada franja.
+         * @return Este constructor.
+         */
+        public Builder everyDay(int[] startMinutes, double[] rates) {
+            for (DayOfWeek day : DayOfWeek.values()) {
+                day(day, startMinutes, rates);
+            }
+            return this;
+        }
+
+        /**
+         * Fija los bloques de consumo del periodo de facturación.
+         *
+         * @param startEnergy kWh acumulados en que empieza cada bloque,
+         * creciente y empezando en 0.
+         * @param extraRates Cargo adicional por kWh dentro de cada bloque.
+         * @return Este constructor.
+         */
+        public Builder tiers(double[] startEnergy, double[] extraRates) {
+            if (startEnergy.length == 0 || startEnergy.length != extraRates.length || startEnergy[0] != 0) {
+                throw new IllegalArgumentException("Los bloques deben empezar en 0 kWh");
+            }
+            for (int i = 1; i < startEnergy.length; i++) {
+                if (!(startEnergy[i] > startEnergy[i - 1]) || Double.isInfinite(startEnergy[i])) {
+                    throw new IllegalArgumentException("Bloques no válidos");
+                }
+            }
+            tierStart = startEnergy.clone();
+            tierRate = extraRates.clone();
+            return this;
+        }
+
+        /**
+         * Compila la tabla semanal; las franjas contiguas con el mismo precio
+         * se funden en una.
+         *
+         * @return Tarifa compilada.
+         */
+        public TimeOfUseTariff build() {
+            double[] starts = new double[0];
+            double[] rates = new double[0];
+            int count = 0;
+            for (int day = 0; day < 7; day++) {
+                if (dayStarts[day] == null) {
+                    throw new IllegalStateException("Falta el horario del " + DayOfWeek.of(day + 1));
+                }
+                if (count + dayStarts[day].length > starts.length) {
+                    starts = Arrays.copyOf(starts, (count + dayStarts[day].length) * 2);
+                    rates = Arrays.copyOf(rates, starts.length);
+                }
+                for (int i = 0; i < dayStarts[day].length; i++) {
+                    double rate = dayRates[day][i];
+                    if (count > 0 && rates[count - 1] == rate) {
+                        continue;
+                    }
+                    starts[count] = day * 24 + dayStarts[day][i] / 60.0;
+                    rates[count] = rate;
+                    count++;
+                }
+            }
+            return new TimeOfUseTariff(Arrays.copyOf(starts, count), Arrays.copyOf(rates, count), tierStart, tierRate);
+        }
+    }
+}
@@ -147,4 +147,18 @@ public class Torque {
     public void setAnguloA(double anguloA) {
         this.anguloA = anguloA;
     }
+
+    /**
+     * Calcula el torque sobre un dipolo: τ = (q·d)·E·sen(θ).
+     *
+     * @param campoE Campo eléctrico en N/C.
+     * @param cargaQ Carga eléctrica en Coulombs.
+     * @param distanciaR Distancia entre cargas en metros.
+     * @param anguloA Ángulo en grados.
+     * @return Torque en N·m.
+     */
+    public static double calcularTorque(double campoE, double cargaQ, double distanciaR, double anguloA) {
+        double momentoDipolar = cargaQ * distanciaR;
+        return momentoDipolar * campoE * Math.sin(Math.toRadians(anguloA));
+    }
 }
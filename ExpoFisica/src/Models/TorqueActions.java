@@ -1,13 +1,14 @@
 package Models;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
 import java.util.regex.Pattern;
 
 /**
  * La clase TorqueActions gestiona las operaciones CRUD sobre los objetos
  * Torque, implementando un patrón Singleton para garantizar una única
- * instancia.
+ * instancia. Es seguro usarla desde varios hilos: las escrituras toman el
+ * cerrojo del almacén en exclusiva y las lecturas en modo compartido.
  */
 public class TorqueActions {
 
@@ -21,9 +22,16 @@ public class TorqueActions {
         return SingletonHelper.INSTANCE;
     }
 
-    // Mapa que almacena los torques, donde la clave es el ID
-    private final Map<Integer, Torque> torques = new HashMap<>();
-    private int torqueCount = 0; // Contador de los torques creados
+    // Almacén que guarda los torques, indexados por su ID primitivo
+    private final IntEntityStore<Torque> torques = new IntEntityStore<>();
+    private final AtomicInteger torqueCount = new AtomicInteger(); // Contador de los torques creados
+    // Cerrojo del almacén: escrituras exclusivas, lecturas compartidas
+    private final StampedLock lock = new StampedLock();
+
+    // Código del almacén en el log de escritura anticipada
+    static final byte WAL_STORE = 1;
+    // Log de escritura anticipada; null mientras no haya persistencia activa
+    private WriteAheadLog log;
 
     // Expresión regular precompilada para validar si una cadena es un número decimal
     private static final Pattern DOUBLE_PATTERN = Pattern.compile("^[0-9]+(\\.[0-9]+)?$");
@@ -39,7 +47,7 @@ public class TorqueActions {
     }
 
     /**
-     * Agrega un nuevo torque al mapa.
+     * Agrega un nuevo torque al almacén.
      *
      * @param campoE Campo eléctrico en N/C.
      * @param cargaQ Carga eléctrica en Coulombs.
@@ -48,9 +56,15 @@ public class TorqueActions {
      * @param resultado Resultado del torque calculado.
      */
     public void addTorque(double campoE, double cargaQ, double distanciaR, double anguloA, double resultado) {
-        Torque torque = new Torque(torqueCount, campoE, cargaQ, distanciaR, anguloA, resultado);
-        torques.put(torqueCount, torque);
-        torqueCount++;
+        int id = torqueCount.getAndIncrement();
+        Torque torque = new Torque(id, campoE, cargaQ, distanciaR, anguloA, resultado);
+        long stamp = lock.writeLock();
+        try {
+            journal(WalRecord.OP_ADD, id, campoE, cargaQ, distanciaR, anguloA, resultado);
+            torques.put(id, torque);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
@@ -65,28 +79,239 @@ public class TorqueActions {
      * @param resultado Nuevo resultado del torque.
      */
     public void modifyTorque(int id, double campoE, double cargaQ, double distanciaR, double anguloA, double resultado) {
-        if (torques.containsKey(id)) {
-            Torque torque = new Torque(id, campoE, cargaQ, distanciaR, anguloA, resultado);
-            torques.put(id, torque);  // put sobrescribe si la clave ya existe
+        long stamp = lock.writeLock();
+        try {
+            if (torques.containsKey(id)) {
+                journal(WalRecord.OP_MODIFY, id, campoE, cargaQ, distanciaR, anguloA, resultado);
+                Torque torque = new Torque(id, campoE, cargaQ, distanciaR, anguloA, resultado);
+                torques.put(id, torque);  // put sobrescribe si la clave ya existe
+            }
+        } finally {
+            lock.unlockWrite(stamp);
         }
     }
 
     /**
-     * Elimina un torque del mapa.
+     * Elimina un torque del almacén.
      *
      * @param id ID del torque a eliminar.
      * @return true si el torque fue eliminado, false si no se encontró el ID.
      */
     public boolean deleteTorque(int id) {
-        return torques.remove(id) != null;
+        long stamp = lock.writeLock();
+        try {
+            if (log != null && torques.containsKey(id)) {
+                log.append(WalRecord.of(WAL_STORE, WalRecord.OP_DELETE, id));
+            }
+            return torques.remove(id) != null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Importa un lote de torques calculando sus resultados con
+     * {@link TorqueKernel}. El lote entero se añade bajo un único cerrojo y
+     * recibe IDs consecutivos.
+     *
+     * @param campoE Campos eléctricos en N/C.
+     * @param cargaQ Cargas eléctricas en Coulombs.
+     * @param distanciaR Distancias en metros.
+     * @param anguloA Ángulos en grados.
+     * @return ID del primer torque importado.
+     */
+    public int importTorques(double[] campoE, double[] cargaQ, double[] distanciaR, double[] anguloA) {
+        int count = campoE.length;
+        if (cargaQ.length != count || distanciaR.length != count || anguloA.length != count) {
+            throw new IllegalArgumentException("Las columnas del lote tienen longitudes distintas");
+        }
+        double[] resultado = TorqueKernel.compute(campoE, cargaQ, distanciaR, anguloA);
+        long stamp = lock.writeLock();
+        try {
+            int first = torqueCount.getAndAdd(count);
+            torques.ensureCapacity(torques.size() + count);
+            for (int i = 0; i < count; i++) {
+                int id = first + i;
+                journal(WalRecord.OP_ADD, id, campoE[i], cargaQ[i], distanciaR[i], anguloA[i], resultado[i]);
+                torques.put(id, new Torque(id, campoE[i], cargaQ[i], distanciaR[i], anguloA[i], resultado[i]));
+            }
+            return first;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Recalcula el resultado de todos los torques almacenados con
+     * {@link TorqueKernel} y reemplaza solo los que cambian. Las entradas se
+     * leen de una vista del almacén y el lote se calcula fuera del cerrojo;
+     * solo la escritura de las filas que cambian toma el cerrojo en exclusiva,
+     * y se omite la fila que otro hilo haya modificado o borrado mientras tanto.
+     *
+     * @return Número de torques cuyo resultado cambió.
+     */
+    public int recalculateTorques() {
+        IntStoreSnapshot<Torque> snapshot = listTorques();
+        int size = snapshot.size();
+        Torque[] rows = new Torque[size];
+        double[] campoE = new double[size];
+        double[] cargaQ = new double[size];
+        double[] distanciaR = new double[size];
+        double[] anguloA = new double[size];
+        int[] count = {0};
+        snapshot.forEach(torque -> {
+            int row = count[0]++;
+            rows[row] = torque;
+            campoE[row] = torque.getCampoE();
+            cargaQ[row] = torque.getCargaQ();
+            distanciaR[row] = torque.getDistanciaR();
+            anguloA[row] = torque.getAnguloA();
+        });
+        double[] resultado = TorqueKernel.compute(campoE, cargaQ, distanciaR, anguloA);
+
+        int changed = 0;
+        long stamp = lock.writeLock();
+        try {
+            for (int row = 0; row < size; row++) {
+                Torque current = rows[row];
+                if (TorqueKernel.sameResult(current.getResultado(), resultado[row])) { // El lote vectorial puede diferir en unos ulp
+                    continue;
+                }
+                int id = current.getId();
+                if (torques.get(id) != current) {
+                    continue; // Modificado o borrado después de tomar la vista
+                }
+                journal(WalRecord.OP_MODIFY, id, campoE[row], cargaQ[row], distanciaR[row], anguloA[row], resultado[row]);
+                torques.put(id, new Torque(id, campoE[row], cargaQ[row], distanciaR[row], anguloA[row], resultado[row]));
+                changed++;
+            }
+            return changed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
      * Lista todos los torques almacenados.
      *
-     * @return Un mapa que contiene todos los torques.
+     * @return Vista inmutable de la versión actual de los torques.
      */
-    public Map<Integer, Torque> listTorques() {
-        return new HashMap<>(torques);  // Retorna una copia del mapa para evitar modificaciones externas
+    public IntStoreSnapshot<Torque> listTorques() {
+        long stamp = lock.readLock();
+        try {
+            return torques.snapshot();  // Vista sin copia; el almacén copia sus arreglos si se modifica después
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Exporta los torques a almacenamiento columnar, donde las agregaciones y
+     * los recálculos masivos son recorridos lineales sobre arreglos.
+     * Cada llamada recorre el almacén y copia sus filas (O(n)).
+     *
+     * @return Copia columnar de los torques.
+     */
+    public TorqueColumns toColumns() {
+        long stamp = lock.readLock();
+        try {
+            return TorqueColumns.of(torques, torques.size());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Activa el registro de las operaciones en el log de escritura anticipada.
+     *
+     * @param log Log a usar, o null para trabajar solo en memoria.
+     */
+    void attachLog(WriteAheadLog log) {
+        long stamp = lock.writeLock();
+        try {
+            this.log = log;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Aplica un registro del log sin volver a registrarlo, restaurando también
+     * el contador de IDs.
+     *
+     * @param record Registro a aplicar.
+     */
+    void replay(WalRecord record) {
+        int id = record.id();
+        long stamp = lock.writeLock();
+        try {
+            if (record.op() == WalRecord.OP_DELETE) {
+                torques.remove(id);
+            } else {
+                torques.put(id, new Torque(id, record.nextNumber(), record.nextNumber(),
+                        record.nextNumber(), record.nextNumber(), record.nextNumber()));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        torqueCount.accumulateAndGet(id + 1, Math::max);
+    }
+
+    /**
+     * Copia el contenido del almacén a una sección de instantánea y, en el
+     * mismo paso, empieza a registrar las operaciones en otro log; así cada
+     * operación queda en la instantánea o en el log nuevo, nunca en ninguno.
+     *
+     * @param next Log que recibe las operaciones posteriores a la copia.
+     * @return Sección con los torques y el contador de IDs.
+     */
+    SnapshotSection captureSnapshot(WriteAheadLog next) {
+        long stamp = lock.writeLock();
+        try {
+            SnapshotSection section = new SnapshotSection(WAL_STORE, torqueCount.get(), torques.size(), 5, 0);
+            double[][] columns = section.numbers;
+            int row = 0;
+            for (Torque torque : torques) {
+                section.ids[row] = torque.getId();
+                columns[0][row] = torque.getCampoE();
+                columns[1][row] = torque.getCargaQ();
+                columns[2][row] = torque.getDistanciaR();
+                columns[3][row] = torque.getAnguloA();
+                columns[4][row] = torque.getResultado();
+                row++;
+            }
+            log = next;
+            return section;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Sustituye el contenido del almacén por el de una sección de instantánea.
+     *
+     * @param section Sección leída de la instantánea.
+     */
+    void restoreSnapshot(SnapshotSection section) {
+        double[][] columns = section.numbers;
+        long stamp = lock.writeLock();
+        try {
+            torques.clear();
+            torques.ensureCapacity(section.rows);
+            for (int row = 0; row < section.rows; row++) {
+                int id = section.ids[row];
+                torques.put(id, new Torque(id, columns[0][row], columns[1][row], columns[2][row], columns[3][row], columns[4][row]));
+            }
+            torqueCount.set(section.nextId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void journal(byte op, int id, double campoE, double cargaQ, double distanciaR, double anguloA, double resultado) {
+        if (log != null) {
+            log.append(WalRecord.of(WAL_STORE, op, id)
+                    .number(campoE).number(cargaQ).number(distanciaR).number(anguloA).number(resultado));
+        }
     }
 }
@@ -0,0 +1,187 @@
+package Models;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Almacenamiento columnar de torques: campoE, cargaQ, distanciaR, anguloA y
+ * resultado viven cada uno en su propio {@code double[]}. Las vistas
+ * {@link Row} que entrega son flyweights que leen y escriben directamente
+ * sobre las columnas, con los mismos getters y setters que {@link Torque}
+ * salvo el del ID, sin materializar un objeto por fila.
+ *
+ * No es el almacenamiento de los *Actions: estos guardan objetos del modelo
+ * porque sus vistas, oyentes, log y copias se basan en ellos; toColumns()
+ * construye una copia columnar puntual para agregaciones y recálculos
+ * masivos, que solo compensa cuando el recorrido amortiza la copia O(n).
+ */
+public class TorqueColumns extends DoubleColumnStore implements Iterable<TorqueColumns.Row> {
+
+    public static final int CAMPO_E = 0;
+    public static final int CARGA_Q = 1;
+    public static final int DISTANCIA_R = 2;
+    public static final int ANGULO_A = 3;
+    public static final int RESULTADO = 4;
+
+    /**
+     * Crea un almacén columnar vacío.
+     *
+     * @param expectedSize Número de torques esperado.
+     */
+    public TorqueColumns(int expectedSize) {
+        super(5, expectedSize);
+    }
+
+    /**
+     * Construye el almacén columnar a partir de una colección de torques.
+     *
+     * @param torques Torques a copiar.
+     * @param expectedSize Número de torques esperado.
+     * @return Almacén columnar con los mismos datos.
+     */
+    public static TorqueColumns of(Iterable<Torque> torques, int expectedSize) {
+        TorqueColumns columns = new TorqueColumns(expectedSize);
+        for (Torque torque : torques) {
+            columns.add(torque.getId(), torque.getCampoE(), torque.getCargaQ(),
+                    torque.getDistanciaR(), torque.getAnguloA(), torque.getResultado());
+        }
+        return columns;
+    }
+
+    /**
+     * Añade o sobrescribe un torque.
+     *
+     * @param id ID del torque.
+     * @param campoE Campo eléctrico en N/C.
+     * @param cargaQ Carga eléctrica en Coulombs.
+     * @param distanciaR Distancia en metros.
+     * @param anguloA Ángulo en grados.
+     * @param resultado Torque calculado.
+     * @return Fila asignada.
+     */
+    public int add(int id, double campoE, double cargaQ, double distanciaR, double anguloA, double resultado) {
+        int row = addRow(id);
+        set(row, CAMPO_E, campoE);
+        set(row, CARGA_Q, cargaQ);
+        set(row, DISTANCIA_R, distanciaR);
+        set(row, ANGULO_A, anguloA);
+        set(row, RESULTADO, resultado);
+        return row;
+    }
+
+    /**
+     * Recalcula la columna de resultados en un único recorrido lineal con
+     * {@link TorqueKernel}.
+     */
+    public void recalculate() {
+        TorqueKernel.compute(column(CAMPO_E), column(CARGA_Q), column(DISTANCIA_R), column(ANGULO_A),
+                column(RESULTADO), 0, size());
+    }
+
+    /**
+     * Crea una vista flyweight de una fila.
+     *
+     * @param row Índice de fila.
+     * @return Torque respaldado por las columnas.
+     */
+    public Row view(int row) {
+        Row view = new Row();
+        view.row = row;
+        return view;
+    }
+
+    /**
+     * Recorre las filas reutilizando una única vista flyweight: el objeto
+     * devuelto por next() cambia de fila en cada llamada y no debe guardarse.
+     *
+     * @return Iterador sobre las filas.
+     */
+    @Override
+    public Iterator<Row> iterator() {
+        Row view = new Row();
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size();
+            }
+
+            @Override
+            public Row next() {
+                if (next >= size()) {
+                    throw new NoSuchElementException();
+                }
+                view.row = next++;
+                return view;
+            }
+        };
+    }
+
+    /**
+     * Vista de una fila: no guarda datos propios, todo se delega a las
+     * columnas. El ID de la fila no se puede cambiar, por eso no es un
+     * {@link Torque} con su {@code setId}.
+     */
+    public final class Row {
+
+        private int row;
+
+        private Row() {
+        }
+
+        public int getId() {
+            return idAt(row);
+        }
+
+        /**
+         * Copia la fila a un {@link Torque} para el código que trabaja con el
+         * modelo; la copia no cambia si después se modifica la fila.
+         *
+         * @return Copia de la fila.
+         */
+        public Torque toTorque() {
+            return new Torque(getId(), getCampoE(), getCargaQ(), getDistanciaR(), getAnguloA(), getResultado());
+        }
+
+        public double getCampoE() {
+            return get(row, CAMPO_E);
+        }
+
+        public void setCampoE(double campoE) {
+            set(row, CAMPO_E, campoE);
+        }
+
+        public double getCargaQ() {
+            return get(row, CARGA_Q);
+        }
+
+        public void setCargaQ(double cargaQ) {
+            set(row, CARGA_Q, cargaQ);
+        }
+
+        public double getDistanciaR() {
+            return get(row, DISTANCIA_R);
+        }
+
+        public void setDistanciaR(double distanciaR) {
+            set(row, DISTANCIA_R, distanciaR);
+        }
+
+        public double getAnguloA() {
+            return get(row, ANGULO_A);
+        }
+
+        public void setAnguloA(double anguloA) {
+            set(row, ANGULO_A, anguloA);
+        }
+
+        public double getResultado() {
+            return get(row, RESULTADO);
+        }
+
+        public void setResultado(double resultado) {
+            set(row, RESULTADO, resultado);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package Models;
+
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cálculo por lotes de τ = (q·d)·E·sen(θ) sobre columnas de primitivos, para
+ * recalcular o importar conjuntos grandes de torques sin crear un objeto por
+ * fila.
+ *
+ * Si la JVM se inicia con {@code --add-modules jdk.incubator.vector} y el
+ * procesador ofrece registros de más de un double, el lote se calcula con la
+ * Vector API ({@link TorqueVectorKernel}); en otro caso se usa un bucle escalar
+ * con {@link Torque#calcularTorque}. La propiedad
+ * {@code -Dexpofisica.vector=false} fuerza la versión escalar. El seno
+ * vectorial no es exactamente {@link Math#sin}, así que los resultados de ambas
+ * versiones pueden diferir en unos pocos ulp; {@link #sameResult} los compara
+ * con esa tolerancia.
+ */
+public final class TorqueKernel {
+
+    /**
+     * Implementación vectorial; se carga por reflexión para que esta clase no
+     * dependa del módulo incubador cuando no está disponible.
+     */
+    interface Batch {
+
+        /**
+         * @return true si un registro aloja más de un double; si no, el bucle
+         * escalar es igual de rápido.
+         */
+        boolean isUseful();
+
+        void compute(double[] campoE, double[] cargaQ, double[] distanciaR, double[] anguloA,
+                double[] resultado, int from, int to);
+    }
+
+    private static final Batch VECTOR = loadVectorKernel();
+    private static final int TOLERANCE_ULPS = 8; // Holgura sobre la diferencia máxima observada entre versiones
+
+    private TorqueKernel() {
+    }
+
+    /**
+     * @return true si los lotes se calculan con la Vector API.
+     */
+    public static boolean isVectorized() {
+        return VECTOR != null;
+    }
+
+    /**
+     * Calcula los torques de las filas [from, to) y los escribe en resultado.
+     * resultado puede ser cualquiera de los arreglos de entrada.
+     *
+     * @param campoE Campos eléctricos en N/C.
+     * @param cargaQ Cargas en Coulombs.
+     * @param distanciaR Distancias entre cargas en metros.
+     * @param anguloA Ángulos en grados.
+     * @param resultado Arreglo destino de los torques en N·m.
+     * @param from Primera fila (incluida).
+     * @param to Última fila (excluida).
+     */
+    public static void compute(double[] campoE, double[] cargaQ, double[] distanciaR, double[] anguloA,
+            double[] resultado, int from, int to) {
+        checkRange(campoE, cargaQ, distanciaR, anguloA, resultado, from, to);
+        if (VECTOR != null) {
+            VECTOR.compute(campoE, cargaQ, distanciaR, anguloA, resultado, from, to);
+        } else {
+            scalar(campoE, cargaQ, distanciaR, anguloA, resultado, from, to);
+        }
+    }
+
+    /**
+     * Calcula los torques de todas las filas de las entradas.
+     *
+     * @param campoE Campos eléctricos en N/C.
+     * @param cargaQ Cargas en Coulombs.
+     * @param distanciaR Distancias entre cargas en metros.
+     * @param anguloA Ángulos en grados.
+     * @return Torques en N·m, uno por fila.
+     */
+    public static double[] compute(double[] campoE, double[] cargaQ, double[] distanciaR, double[] anguloA) {
+        double[] resultado = new double[campoE.length];
+        compute(campoE, cargaQ, distanciaR, anguloA, resultado, 0, resultado.length);
+        return resultado;
+    }
+
+    /**
+     * Versión escalar del lote, la misma que se usa cuando la Vector API no
+     * está disponible.
+     *
+     * @param campoE Campos eléctricos en N/C.
+     * @param cargaQ Cargas en Coulombs.
+     * @param distanciaR Distancias entre cargas en metros.
+     * @param anguloA Ángulos en grados.
+     * @param resultado Arreglo destino de los torques en N·m.
+     * @param from Primera fila (incluida).
+     * @param to Última fila (excluida).
+     */
+    public static void computeScalar(double[] campoE, double[] cargaQ, double[] distanciaR, double[] anguloA,
+            double[] resultado, int from, int to) {
+        checkRange(campoE, cargaQ, distanciaR, anguloA, resultado, from, to);
+        scalar(campoE, cargaQ, distanciaR, anguloA, resultado, from, to);
+    }
+
+    /**
+     * Compara dos torques admitiendo la diferencia entre la versión vectorial
+     * y la escalar: son iguales si difieren en como mucho unos pocos ulp del
+     * mayor de los dos.
+     *
+     * @param a Primer torque en N·m.
+     * @param b Segundo torque en N·m.
+     * @return true si ambos valen lo mismo dentro de la tolerancia.
+     */
+    public static boolean sameResult(double a, double b) {
+        if (Double.compare(a, b) == 0) {
+            return true; // Incluye NaN con NaN e infinitos iguales
+        }
+        return Math.abs(a - b) <= TOLERANCE_ULPS * Math.ulp(Math.max(Math.abs(a), Math.abs(b)));
+    }
+
+    private static void scalar(double[] campoE, double[] cargaQ, double[] distanciaR, double[] anguloA,
+            double[] resultado, int from, int to) {
+        for (int i = from; i < to; i++) {
+            resultado[i] = Torque.calcularTorque(campoE[i], cargaQ[i], distanciaR[i], anguloA[i]);
+        }
+    }
+
+    // Comprueba el rango una sola vez para que los bucles no lancen a mitad de lote
+    private static void checkRange(double[] campoE, double[] cargaQ, double[] distanciaR, double[] anguloA,
+            double[] resultado, int from, int to) {
+        int length = Math.min(Math.min(campoE.length, cargaQ.length),
+                Math.min(Math.min(distanciaR.length, anguloA.length), resultado.length));
+        Objects.checkFromToIndex(from, to, length);
+    }
+
+    private static Batch loadVectorKernel() {
+        if (!Boolean.parseBoolean(System.getProperty("expofisica.vector", "true"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            Batch kernel = (Batch) Class.forName("Models.TorqueVectorKernel").getDeclaredConstructor().newInstance();
+            return kernel.isUseful() ? kernel : null;
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            Logger.getLogger(TorqueKernel.class.getName()).log(Level.SEVERE, null, ex);
+            return null;
+        }
+    }
+}
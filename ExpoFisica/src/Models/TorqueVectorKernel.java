@@ -0,0 +1,39 @@
+package Models;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Lote de torques con la Vector API: cada iteración procesa tantas filas como
+ * doubles caben en un registro del procesador y el resto se completa con el
+ * bucle escalar. Solo debe cargarse a través de {@link TorqueKernel}, que
+ * comprueba antes que el módulo {@code jdk.incubator.vector} esté presente.
+ */
+final class TorqueVectorKernel implements TorqueKernel.Batch {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double DEGREES_TO_RADIANS = Math.PI / 180.0; // El mismo factor que Math.toRadians
+
+    @Override
+    public boolean isUseful() {
+        return SPECIES.length() > 1;
+    }
+
+    @Override
+    public void compute(double[] campoE, double[] cargaQ, double[] distanciaR, double[] anguloA,
+            double[] resultado, int from, int to) {
+        int i = from;
+        for (int upper = from + SPECIES.loopBound(to - from); i < upper; i += SPECIES.length()) {
+            DoubleVector momento = DoubleVector.fromArray(SPECIES, cargaQ, i)
+                    .mul(DoubleVector.fromArray(SPECIES, distanciaR, i));
+            DoubleVector seno = DoubleVector.fromArray(SPECIES, anguloA, i)
+                    .mul(DEGREES_TO_RADIANS)
+                    .lanewise(VectorOperators.SIN);
+            momento.mul(DoubleVector.fromArray(SPECIES, campoE, i)).mul(seno).intoArray(resultado, i);
+        }
+        for (; i < to; i++) {
+            resultado[i] = Torque.calcularTorque(campoE[i], cargaQ[i], distanciaR[i], anguloA[i]);
+        }
+    }
+}
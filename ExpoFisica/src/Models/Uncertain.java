@@ -0,0 +1,101 @@
+package Models;
+
+import java.util.SplittableRandom;
+
+/**
+ * Valor de entrada con incertidumbre, descrito por una distribución de la
+ * que {@link MonteCarlo} extrae muestras.
+ */
+public final class Uncertain {
+
+    private static final int FIXED = 0;
+    private static final int NORMAL = 1;
+    private static final int UNIFORM = 2;
+    private static final int TRIANGULAR = 3;
+
+    private final int kind;
+    private final double a;
+    private final double b;
+    private final double c;
+
+    private Uncertain(int kind, double a, double b, double c) {
+        if (!Double.isFinite(a) || !Double.isFinite(b) || !Double.isFinite(c)) {
+            throw new IllegalArgumentException("Parámetros de la distribución no válidos");
+        }
+        this.kind = kind;
+        this.a = a;
+        this.b = b;
+        this.c = c;
+    }
+
+    /**
+     * @param value Valor exacto.
+     * @return Entrada sin incertidumbre.
+     */
+    public static Uncertain fixed(double value) {
+        return new Uncertain(FIXED, value, 0, 0);
+    }
+
+    /**
+     * @param mean Media.
+     * @param standardDeviation Desviación típica (cero o mayor).
+     * @return Entrada con distribución normal.
+     */
+    public static Uncertain normal(double mean, double standardDeviation) {
+        if (!(standardDeviation >= 0)) {
+            throw new IllegalArgumentException("La desviación típica no puede ser negativa");
+        }
+        return new Uncertain(NORMAL, mean, standardDeviation, 0);
+    }
+
+    /**
+     * @param min Extremo inferior.
+     * @param max Extremo superior.
+     * @return Entrada con distribución uniforme en [min, max).
+     */
+    public static Uncertain uniform(double min, double max) {
+        if (!(min <= max)) {
+            throw new IllegalArgumentException("Intervalo no válido");
+        }
+        return new Uncertain(UNIFORM, min, max, 0);
+    }
+
+    /**
+     * @param min Extremo inferior.
+     * @param mode Valor más probable.
+     * @param max Extremo superior.
+     * @return Entrada con distribución triangular.
+     */
+    public static Uncertain triangular(double min, double mode, double max) {
+        if (!(min <= mode && mode <= max)) {
+            throw new IllegalArgumentException("Intervalo no válido");
+        }
+        return new Uncertain(TRIANGULAR, min, mode, max);
+    }
+
+    /**
+     * Extrae una muestra de la distribución.
+     *
+     * @param random Generador del hilo que muestrea.
+     * @return Valor muestreado.
+     */
+    double sample(SplittableRandom random) {
+        switch (kind) {
+            case NORMAL -> {
+                return a + b * random.nextGaussian();
+            }
+            case UNIFORM -> {
+                return a + (b - a) * random.nextDouble();
+            }
+            case TRIANGULAR -> {
+                // Inversa de la función de distribución
+                double u = random.nextDouble();
+                double split = c > a ? (b - a) / (c - a) : 0;
+                return u < split ? a + Math.sqrt(u * (c - a) * (b - a)) : c - Math.sqrt((1 - u) * (c - a) * (c - b));
+            }
+            default -> {
+                return a;
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package Models;
+
+/**
+ * Resumen de una propagación de incertidumbre por Monte Carlo: media,
+ * desviación típica, extremos y percentiles, obtenidos sin guardar las
+ * muestras.
+ *
+ * Los percentiles salen de un histograma logarítmico: cada cubeta abarca los
+ * doubles con el mismo signo, exponente y 7 bits altos de mantisa (una
+ * anchura relativa de 1/128), y dentro de la cubeta se interpola linealmente.
+ * Las páginas del histograma (una por signo y exponente) se crean solo cuando
+ * alguna muestra cae en ellas.
+ */
+public final class UncertaintyResult {
+
+    static final int MANTISSA_BITS = 7;
+    private static final int SLOTS = 1 << MANTISSA_BITS;
+    private static final int PAGES = 1 << 12; // Signo y exponente
+    private static final int SLOT_SHIFT = 52 - MANTISSA_BITS;
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private long invalid;
+    private final long[][] pages = new long[PAGES][];
+
+    UncertaintyResult() {
+    }
+
+    /**
+     * Añade una muestra (algoritmo de Welford para media y varianza).
+     *
+     * @param value Valor de la muestra.
+     */
+    void add(double value) {
+        if (!Double.isFinite(value)) {
+            invalid++;
+            return;
+        }
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        long bits = Double.doubleToRawLongBits(value == 0 ? 0.0 : value); // −0 cuenta como 0
+        int page = (int) (bits >>> 52);
+        long[] slots = pages[page];
+        if (slots == null) {
+            slots = pages[page] = new long[SLOTS];
+        }
+        slots[(int) (bits >>> SLOT_SHIFT) & (SLOTS - 1)]++;
+    }
+
+    /**
+     * Combina otro resumen en este (fórmula de Chan para la varianza).
+     *
+     * @param other Resumen de otro bloque de muestras.
+     */
+    void merge(UncertaintyResult other) {
+        invalid += other.invalid;
+        if (other.count == 0) {
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        for (int page = 0; page < PAGES; page++) {
+            long[] theirs = other.pages[page];
+            if (theirs == null) {
+                continue;
+            }
+            if (pages[page] == null) {
+                pages[page] = theirs.clone();
+            } else {
+                for (int slot = 0; slot < SLOTS; slot++) {
+                    pages[page][slot] += theirs[slot];
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Número de muestras válidas.
+     */
+    public long samples() {
+        return count;
+    }
+
+    /**
+     * @return Muestras descartadas por dar un resultado no finito (por
+     * ejemplo, distancia cero).
+     */
+    public long invalid() {
+        return invalid;
+    }
+
+    /**
+     * @return Media de las muestras.
+     */
+    public double mean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * @return Desviación típica muestral.
+     */
+    public double standardDeviation() {
+        return count < 2 ? Double.NaN : Math.sqrt(m2 / (count - 1));
+    }
+
+    /**
+     * @return Menor muestra.
+     */
+    public double min() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * @return Mayor muestra.
+     */
+    public double max() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Estima un percentil con una precisión relativa de 1/128 del valor.
+     *
+     * @param fraction Fracción entre 0 y 1 (0.5 = mediana).
+     * @return Valor del percentil.
+     */
+    public double percentile(double fraction) {
+        if (!(fraction >= 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("La fracción debe estar entre 0 y 1");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double rank = fraction * count;
+        long seen = 0;
+        // Negativos de mayor a menor magnitud y después positivos de menor a mayor
+        for (int step = 0; step < PAGES; step++) {
+            int page = step < PAGES / 2 ? PAGES - 1 - step : step - PAGES / 2;
+            long[] slots = pages[page];
+            if (slots == null) {
+                continue;
+            }
+            boolean negative = page >= PAGES / 2;
+            for (int k = 0; k < SLOTS; k++) {
+                int slot = negative ? SLOTS - 1 - k : k;
+                long inSlot = slots[slot];
+                if (inSlot == 0) {
+                    continue;
+                }
+                if (seen + inSlot >= rank) {
+                    long low = ((long) page << 52) | ((long) slot << SLOT_SHIFT);
+                    double near = Double.longBitsToDouble(low);
+                    double far = Double.longBitsToDouble(low + (1L << SLOT_SHIFT) - 1);
+                    double from = negative ? far : near;
+                    double to = negative ? near : far;
+                    double value = from + (to - from) * ((rank - seen) / inSlot);
+                    return Math.max(min, Math.min(max, value));
+                }
+                seen += inSlot;
+            }
+        }
+        return max;
+    }
+}
@@ -1,23 +1,39 @@
 package Models;
 
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+// Thread-safe: writes take the store lock exclusively and reads take it in shared mode
 public class UsersActions {
 
     // Singleton instance of UsersActions
     private static UsersActions instance;
 
-    // Map to store employees with their ID as the key
-    private Map<Integer, Users> employees = new HashMap<>();
+    // Store of employees indexed by their primitive ID
+    private final IntEntityStore<Users> employees = new IntEntityStore<>();
+
+    // Unique indexes: username -> employee and lower-cased email -> employee
+    private final Map<String, Users> employeesByUser = new HashMap<>();
+    private final Map<String, Users> employeesByEmail = new HashMap<>();
 
     // Variable to store the current logged in employee
-    private Users currentEmployee;
+    private volatile Users currentEmployee;
 
     // Counter to keep track of the total number of users
-    private Integer userCount = 0;
+    private final AtomicInteger userCount = new AtomicInteger();
+
+    // Store lock: exclusive writes, shared reads
+    private final StampedLock lock = new StampedLock();
+
+    // Store code in the write-ahead log
+    static final byte WAL_STORE = 6;
+    // Write-ahead log; null while persistence is not active
+    private WriteAheadLog log;
 
     // Private constructor to prevent instantiation
     private UsersActions() {
@@ -38,7 +54,7 @@ public class UsersActions {
 
     // Get the total number of users
     public Integer getUserCount() {
-        return userCount;
+        return userCount.get();
     }
 
     // Create a new Users object
@@ -57,18 +73,23 @@ public class UsersActions {
         }
     }
 
-    // List employees, optionally filtering by name
-    public Map<Integer, Users> listEmployees(String employeeName) {
-        if (employeeName.isBlank()) {
-            return employees; // Return all employees if no name is provided
-        } else {
-            Map<Integer, Users> filteredEmployees = new HashMap<>();
-            for (Users employee : employees.values()) {
-                if (employee.getEmployeeName().equalsIgnoreCase(employeeName)) {
-                    filteredEmployees.put(employee.getEmployeeID(), employee);
+    // List employees as an immutable view, optionally filtering by name
+    public IntStoreSnapshot<Users> listEmployees(String employeeName) {
+        long stamp = lock.readLock();
+        try {
+            if (employeeName.isBlank()) {
+                return employees.snapshot(); // Return all employees if no name is provided
+            } else {
+                IntEntityStore<Users> filteredEmployees = new IntEntityStore<>();
+                for (Users employee : employees) {
+                    if (employee.getEmployeeName().equalsIgnoreCase(employeeName)) {
+                        filteredEmployees.put(employee.getEmployeeID(), employee);
+                    }
                 }
+                return (filteredEmployees.isEmpty() ? employees : filteredEmployees).snapshot();
             }
-            return filteredEmployees.isEmpty() ? employees : filteredEmployees;
+        } finally {
+            lock.unlockRead(stamp);
         }
     }
 
@@ -80,63 +101,250 @@ public class UsersActions {
         return matcher.matches();
     }
 
-    // Check if email is unique
+    // Check if email is unique (case-insensitive)
     public boolean isEmailUnique(String employeeEmail) {
-        return employees.values().stream()
-                .noneMatch(employee -> employee.getEmployeeEmail().equals(employeeEmail));
+        long stamp = lock.readLock();
+        try {
+            return !employeesByEmail.containsKey(emailKey(employeeEmail));
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     // Check if username is unique
     public boolean userValidation(String employeeUser) {
-        return employees.values().stream()
-                .noneMatch(employee -> employee.getEmployeeUser().equals(employeeUser));
+        long stamp = lock.readLock();
+        try {
+            return !employeesByUser.containsKey(employeeUser);
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
-    // Add a new employee
-    public void addEmployee(String employeeUser, String employeePassword, String employeeName,
+    // Add a new employee; returns false if the username or the email is already in use
+    public boolean addEmployee(String employeeUser, String employeePassword, String employeeName,
             String employeeAddress, String employeeEmail, String employeeRole) {
-        Users employee = createEmployee(userCount, employeeUser, employeePassword,
-                employeeName, employeeAddress, employeeEmail, employeeRole);
-        employees.put(userCount, employee);
-        userCount++;
+        long stamp = lock.writeLock();
+        try {
+            // Checked again under the lock, as another thread may have registered them meanwhile
+            if (employeesByUser.containsKey(employeeUser) || employeesByEmail.containsKey(emailKey(employeeEmail))) {
+                return false;
+            }
+            int id = userCount.getAndIncrement();
+            Users employee = createEmployee(id, employeeUser, employeePassword,
+                    employeeName, employeeAddress, employeeEmail, employeeRole);
+            journal(WalRecord.OP_ADD, employee);
+            storeEmployee(employee);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     // Modify an existing employee
     public boolean modifyEmployee(Integer employeeID, String employeeUser, String employeePassword,
             String employeeName, String employeeAddress, String employeeEmail, String employeeRole) {
-        if (employees.containsKey(employeeID) && (userValidation(employeeUser) || employees.get(employeeID).getEmployeeUser().equals(employeeUser))) {
-            Users employee = createEmployee(employeeID, employeeUser, employeePassword,
-                    employeeName, employeeAddress, employeeEmail, employeeRole);
-            employees.replace(employeeID, employee);
-            return true;
+        long stamp = lock.writeLock();
+        try {
+            if (employees.containsKey(employeeID) && isOwnedBy(employeesByUser.get(employeeUser), employeeID)
+                    && isOwnedBy(employeesByEmail.get(emailKey(employeeEmail)), employeeID)) {
+                Users employee = createEmployee(employeeID, employeeUser, employeePassword,
+                        employeeName, employeeAddress, employeeEmail, employeeRole);
+                journal(WalRecord.OP_MODIFY, employee);
+                storeEmployee(employee);
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        return false;
     }
 
     // Modify an existing employee's password
     public boolean modifyPassword(Integer employeeID, String newPassword) {
-        if (employees.containsKey(employeeID)) {
-            Users employee = employees.get(employeeID);
-            employee.setEmployeePassword(newPassword);
-            employees.replace(employeeID, employee);
-            return true;
+        long stamp = lock.writeLock();
+        try {
+            Users current = employees.get(employeeID);
+            if (current != null) {
+                // Replace instead of mutating, so published views keep the previous version
+                Users employee = createEmployee(employeeID, current.getEmployeeUser(), newPassword,
+                        current.getEmployeeName(), current.getEmployeeAddress(), current.getEmployeeEmail(), current.getEmployeeRol());
+                journal(WalRecord.OP_MODIFY, employee);
+                storeEmployee(employee);
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Modify an existing employee's personal data (name, email and address)
+    public boolean modifyPersonalData(Integer employeeID, String employeeName, String employeeEmail, String employeeAddress) {
+        long stamp = lock.writeLock();
+        try {
+            Users current = employees.get(employeeID);
+            if (current != null && isOwnedBy(employeesByEmail.get(emailKey(employeeEmail)), employeeID)) {
+                Users employee = createEmployee(employeeID, current.getEmployeeUser(), current.getEmployeePassword(),
+                        employeeName, employeeAddress, employeeEmail, current.getEmployeeRol());
+                journal(WalRecord.OP_MODIFY, employee);
+                storeEmployee(employee);
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        return false;
     }
 
     // Delete an existing employee
     public boolean deleteEmployee(Integer employeeID) {
-        return employees.remove(employeeID) != null;
+        long stamp = lock.writeLock();
+        try {
+            if (log != null && employees.containsKey(employeeID)) {
+                log.append(WalRecord.of(WAL_STORE, WalRecord.OP_DELETE, employeeID));
+            }
+            return discardEmployee(employeeID);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     // Users login
     public boolean employeeLogin(String employeeUser, String employeePassword) {
-        for (Users employee : employees.values()) {
-            if (employee.getEmployeeUser().equals(employeeUser) && employee.getEmployeePassword().equals(employeePassword)) {
+        long stamp = lock.readLock();
+        try {
+            Users employee = employeesByUser.get(employeeUser);
+            if (employee != null && employee.getEmployeePassword().equals(employeePassword)) {
                 currentEmployee = employee; // Set the current employee if login is successful
                 return true;
             }
+            return false;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Store a new or updated employee, keeping the unique indexes and the logged in employee in sync
+    // (the lock must be held)
+    private void storeEmployee(Users employee) {
+        Users previous = employees.put(employee.getEmployeeID(), employee);
+        if (previous != null) {
+            unindexEmployee(previous);
+            Users logged = currentEmployee;
+            if (logged != null && logged.getEmployeeID().equals(employee.getEmployeeID())) {
+                currentEmployee = employee;
+            }
+        }
+        employeesByUser.put(employee.getEmployeeUser(), employee);
+        employeesByEmail.put(emailKey(employee.getEmployeeEmail()), employee);
+    }
+
+    // Remove an employee from the store and the unique indexes (the lock must be held)
+    private boolean discardEmployee(int employeeID) {
+        Users previous = employees.remove(employeeID);
+        if (previous == null) {
+            return false;
+        }
+        unindexEmployee(previous);
+        return true;
+    }
+
+    // Only remove index entries that still point to this employee
+    private void unindexEmployee(Users employee) {
+        employeesByUser.remove(employee.getEmployeeUser(), employee);
+        employeesByEmail.remove(emailKey(employee.getEmployeeEmail()), employee);
+    }
+
+    // A unique key is free for an employee if nobody uses it or the employee already does
+    private static boolean isOwnedBy(Users owner, Integer employeeID) {
+        return owner == null || owner.getEmployeeID().equals(employeeID);
+    }
+
+    // Emails are unique regardless of case
+    private static String emailKey(String employeeEmail) {
+        return employeeEmail == null ? null : employeeEmail.toLowerCase(Locale.ROOT);
+    }
+
+    // Enable logging of every change to the write-ahead log (null = memory only)
+    void attachLog(WriteAheadLog log) {
+        long stamp = lock.writeLock();
+        try {
+            this.log = log;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Apply a log record without logging it again, restoring the ID counter as well
+    void replay(WalRecord record) {
+        int id = record.id();
+        long stamp = lock.writeLock();
+        try {
+            if (record.op() == WalRecord.OP_DELETE) {
+                discardEmployee(id);
+            } else {
+                storeEmployee(createEmployee(id, record.nextText(), record.nextText(), record.nextText(),
+                        record.nextText(), record.nextText(), record.nextText()));
+            }
+            userCount.accumulateAndGet(id + 1, Math::max);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Copy the employees and the ID counter into a snapshot section and switch to the new log in the
+    // same step, so every change ends up in exactly one of them
+    SnapshotSection captureSnapshot(WriteAheadLog next) {
+        long stamp = lock.writeLock();
+        try {
+            SnapshotSection section = new SnapshotSection(WAL_STORE, userCount.get(), employees.size(), 0, 6);
+            String[][] columns = section.texts;
+            int row = 0;
+            for (Users employee : employees) {
+                section.ids[row] = employee.getEmployeeID();
+                columns[0][row] = employee.getEmployeeUser();
+                columns[1][row] = employee.getEmployeePassword();
+                columns[2][row] = employee.getEmployeeName();
+                columns[3][row] = employee.getEmployeeAddress();
+                columns[4][row] = employee.getEmployeeEmail();
+                columns[5][row] = employee.getEmployeeRol();
+                row++;
+            }
+            log = next;
+            return section;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Replace the store contents with those of a snapshot section
+    void restoreSnapshot(SnapshotSection section) {
+        String[][] columns = section.texts;
+        long stamp = lock.writeLock();
+        try {
+            employees.clear();
+            employeesByUser.clear();
+            employeesByEmail.clear();
+            employees.ensureCapacity(section.rows);
+            for (int row = 0; row < section.rows; row++) {
+                int id = section.ids[row];
+                storeEmployee(createEmployee(id, columns[0][row], columns[1][row], columns[2][row],
+                        columns[3][row], columns[4][row], columns[5][row]));
+            }
+            userCount.set(section.nextId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Log the full state of an employee
+    private void journal(byte op, Users employee) {
+        if (log != null) {
+            log.append(WalRecord.of(WAL_STORE, op, employee.getEmployeeID())
+                    .text(employee.getEmployeeUser()).text(employee.getEmployeePassword())
+                    .text(employee.getEmployeeName()).text(employee.getEmployeeAddress())
+                    .text(employee.getEmployeeEmail()).text(employee.getEmployeeRol()));
         }
-        return false;
     }
 }
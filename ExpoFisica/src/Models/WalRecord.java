@@ -0,0 +1,171 @@
+package Models;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Registro binario del log de escritura anticipada. Identifica el almacén, la
+ * operación y el ID afectado, seguido de una carga útil de números y textos
+ * que cada clase *Actions escribe y lee en el mismo orden.
+ */
+public final class WalRecord {
+
+    // Operaciones registradas
+    public static final byte OP_ADD = 1;
+    public static final byte OP_MODIFY = 2;
+    public static final byte OP_DELETE = 3;
+
+    private final byte store;
+    private final byte op;
+    private final int id;
+    private byte[] payload;
+    private int length;
+    private int readPosition;
+
+    private WalRecord(byte store, byte op, int id, byte[] payload, int length) {
+        this.store = store;
+        this.op = op;
+        this.id = id;
+        this.payload = payload;
+        this.length = length;
+    }
+
+    /**
+     * Crea un registro vacío listo para escribir su carga útil.
+     *
+     * @param store Código del almacén.
+     * @param op Operación (OP_ADD, OP_MODIFY u OP_DELETE).
+     * @param id ID de la entidad afectada.
+     * @return Nuevo registro.
+     */
+    public static WalRecord of(byte store, byte op, int id) {
+        return new WalRecord(store, op, id, new byte[64], 0);
+    }
+
+    /**
+     * Reconstruye un registro leído del log.
+     *
+     * @param store Código del almacén.
+     * @param op Operación.
+     * @param id ID de la entidad afectada.
+     * @param payload Carga útil (se usa sin copiar).
+     * @return Registro listo para leer.
+     */
+    static WalRecord decode(byte store, byte op, int id, byte[] payload) {
+        return new WalRecord(store, op, id, payload, payload.length);
+    }
+
+    public byte store() {
+        return store;
+    }
+
+    public byte op() {
+        return op;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    /**
+     * Añade un número a la carga útil.
+     *
+     * @param value Valor a escribir.
+     * @return Este registro, para encadenar llamadas.
+     */
+    public WalRecord number(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        ensure(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            payload[length++] = (byte) (bits >>> shift);
+        }
+        return this;
+    }
+
+    /**
+     * Añade un texto UTF-8 (puede ser null) a la carga útil.
+     *
+     * @param value Texto a escribir.
+     * @return Este registro, para encadenar llamadas.
+     */
+    public WalRecord text(String value) {
+        if (value == null) {
+            writeInt(-1);
+            return this;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeInt(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, payload, length, bytes.length);
+        length += bytes.length;
+        return this;
+    }
+
+    /**
+     * Lee el siguiente número de la carga útil.
+     *
+     * @return Valor leído.
+     */
+    public double nextNumber() {
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | (payload[readPosition++] & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * Indica si quedan campos por leer; permite que un almacén añada campos
+     * al final de sus registros sin dejar de leer los escritos antes.
+     *
+     * @return true si la carga útil tiene más datos.
+     */
+    public boolean hasMore() {
+        return readPosition < length;
+    }
+
+    /**
+     * Lee el siguiente texto de la carga útil.
+     *
+     * @return Texto leído (puede ser null).
+     */
+    public String nextText() {
+        int size = readInt();
+        if (size < 0) {
+            return null;
+        }
+        String value = new String(payload, readPosition, size, StandardCharsets.UTF_8);
+        readPosition += size;
+        return value;
+    }
+
+    byte[] payload() {
+        return payload;
+    }
+
+    int payloadLength() {
+        return length;
+    }
+
+    private void writeInt(int value) {
+        ensure(4);
+        payload[length++] = (byte) (value >>> 24);
+        payload[length++] = (byte) (value >>> 16);
+        payload[length++] = (byte) (value >>> 8);
+        payload[length++] = (byte) value;
+    }
+
+    private int readInt() {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | (payload[readPosition++] & 0xFF);
+        }
+        return value;
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > payload.length) {
+            payload = Arrays.copyOf(payload, Math.max(payload.length * 2, length + extra));
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package Models;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * Log binario de escritura anticipada, de solo anexado. Cada registro se
+ * enmarca como [longitud][CRC32C][almacén][operación][id][carga útil].
+ *
+ * Las escrituras se agrupan (group commit): los registros se acumulan en
+ * memoria y se escriben con un único fsync cuando el lote alcanza
+ * {@code groupCommitSize} registros o, como máximo, cada
+ * {@code groupCommitMillis} milisegundos desde un hilo en segundo plano. Así
+ * el coste del fsync se reparte entre ráfagas de inserciones; a cambio, una
+ * caída puede perder las escrituras de la última ventana de espera. Con
+ * {@code groupCommitSize = 1} cada escritura es durable al volver.
+ *
+ * Si escribir un lote falla, el lote sigue en memoria y el siguiente intento
+ * lo vuelve a escribir entero en la misma posición del archivo; el registro
+ * cuyo anexado provocó el fallo se descarta, ya que quien lo anexó recibe la
+ * excepción y no aplica la operación.
+ */
+public final class WriteAheadLog implements Closeable {
+
+    private static final int MAGIC = 0x45584657; // "EXFW"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    private static final int FRAME_HEADER_SIZE = 8;  // longitud + CRC
+    private static final int RECORD_HEADER_SIZE = 6; // almacén + operación + id
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final int groupCommitSize;
+    private final ScheduledExecutorService flusher;
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    private int pendingRecords;
+    private long end;          // Fin de los registros ya forzados a disco
+    private long writtenEnd;   // Hasta dónde llegó el último intento de escritura
+    private boolean closed;
+
+    private WriteAheadLog(FileChannel channel, long end, int groupCommitSize, long groupCommitMillis) {
+        this.channel = channel;
+        this.end = end;
+        this.writtenEnd = end;
+        this.groupCommitSize = Math.max(1, groupCommitSize);
+        if (groupCommitMillis > 0 && this.groupCommitSize > 1) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "wal-group-commit");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly, groupCommitMillis, groupCommitMillis, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    /**
+     * Abre (o crea) el log, reproduce todos los registros válidos y deja el
+     * canal listo para anexar. Si el final del archivo contiene un registro
+     * incompleto o corrupto (escritura interrumpida), se trunca ahí.
+     *
+     * @param path Archivo del log.
+     * @param groupCommitSize Registros por lote antes de forzar un fsync.
+     * @param groupCommitMillis Espera máxima de un lote pendiente, en ms.
+     * @param replayer Recibe cada registro en el orden en que se escribió.
+     * @return El log abierto.
+     * @throws IOException Si el archivo no se puede leer o no es un log.
+     */
+    public static WriteAheadLog open(Path path, int groupCommitSize, long groupCommitMillis, Consumer<WalRecord> replayer) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long end;
+        try {
+            end = channel.size() < FILE_HEADER_SIZE ? writeFileHeader(channel) : replay(channel, replayer);
+            channel.truncate(end);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+        return new WriteAheadLog(channel, end, groupCommitSize, groupCommitMillis);
+    }
+
+    /**
+     * Anexa un registro al lote actual. Si el lote se completa, se escribe y
+     * se fuerza a disco antes de volver; si eso falla, el registro no queda en
+     * el log y los anteriores del lote se reintentan en la siguiente
+     * escritura.
+     *
+     * @param record Registro a anexar.
+     */
+    public synchronized void append(WalRecord record) {
+        if (closed) {
+            throw new IllegalStateException("El log está cerrado");
+        }
+        int bodySize = RECORD_HEADER_SIZE + record.payloadLength();
+        ensurePending(FRAME_HEADER_SIZE + bodySize);
+        int frameStart = pending.position();
+        pending.putInt(bodySize);
+        pending.putInt(0); // CRC, se rellena tras escribir el cuerpo
+        pending.put(record.store());
+        pending.put(record.op());
+        pending.putInt(record.id());
+        pending.put(record.payload(), 0, record.payloadLength());
+        crc.reset();
+        crc.update(pending.array(), frameStart + FRAME_HEADER_SIZE, bodySize);
+        pending.putInt(frameStart + 4, (int) crc.getValue());
+        if (++pendingRecords >= groupCommitSize) {
+            try {
+                flushLocked();
+            } catch (IOException ex) {
+                pending.position(frameStart); // Quien anexa recibe la excepción y no aplica la operación
+                pendingRecords--;
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * Escribe y fuerza a disco el lote pendiente.
+     *
+     * @throws IOException Si la escritura falla.
+     */
+    public synchronized void sync() throws IOException {
+        if (!closed) {
+            flushLocked();
+        }
+    }
+
+    /**
+     * Cierra el log tras escribir el lote pendiente.
+     *
+     * @throws IOException Si la escritura o el cierre fallan.
+     */
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            try {
+                flushLocked();
+            } finally {
+                closed = true;
+                channel.close();
+            }
+        }
+    }
+
+    // Escribe el lote desde una copia de los índices del búfer, de modo que si falla el lote queda intacto
+    // y el reintento reescribe los mismos bytes en la misma posición
+    private void flushLocked() throws IOException {
+        if (pendingRecords == 0) {
+            return;
+        }
+        ByteBuffer batch = pending.duplicate().flip();
+        long position = end;
+        writtenEnd = Math.max(writtenEnd, end + batch.limit()); // Lo más lejos que puede llegar este intento
+        while (batch.hasRemaining()) {
+            position += channel.write(batch, position);
+        }
+        if (writtenEnd > position) {
+            channel.truncate(position); // Restos de un intento fallido con más registros
+        }
+        channel.force(false);
+        end = position;
+        writtenEnd = position;
+        pending.clear();
+        pendingRecords = 0;
+    }
+
+    private synchronized void flushQuietly() {
+        try {
+            sync();
+        } catch (IOException ex) {
+            Logger.getLogger(WriteAheadLog.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+
+    private void ensurePending(int extra) {
+        if (pending.remaining() < extra) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + extra));
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+    }
+
+    private static long writeFileHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        channel.truncate(0);
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(true);
+        return FILE_HEADER_SIZE;
+    }
+
+    // Devuelve la posición donde termina el último registro válido
+    private static long replay(FileChannel channel, Consumer<WalRecord> replayer) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        readFully(channel, header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("El archivo no es un log de ExpoFisica compatible");
+        }
+        long size = channel.size();
+        long position = FILE_HEADER_SIZE;
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+        CRC32C crc = new CRC32C();
+        while (position + FRAME_HEADER_SIZE <= size) {
+            frame.clear();
+            readFully(channel, frame, position);
+            frame.flip();
+            int bodySize = frame.getInt();
+            int expectedCrc = frame.getInt();
+            if (bodySize < RECORD_HEADER_SIZE || bodySize > MAX_RECORD_SIZE
+                    || position + FRAME_HEADER_SIZE + bodySize > size) {
+                break; // Registro incompleto al final del archivo
+            }
+            ByteBuffer body = ByteBuffer.allocate(bodySize);
+            readFully(channel, body, position + FRAME_HEADER_SIZE);
+            crc.reset();
+            crc.update(body.array(), 0, bodySize);
+            if ((int) crc.getValue() != expectedCrc) {
+                break; // Registro corrupto: se descarta junto con lo que le sigue
+            }
+            body.flip();
+            byte store = body.get();
+            byte op = body.get();
+            int id = body.getInt();
+            byte[] payload = new byte[body.remaining()];
+            body.get(payload);
+            replayer.accept(WalRecord.decode(store, op, id, payload));
+            position += FRAME_HEADER_SIZE + bodySize;
+        }
+        return position;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Fin de archivo inesperado en el log");
+            }
+        }
+    }
+}
@@ -26,6 +26,9 @@ public class Administration extends javax.swing.JFrame implements GraphicalConfi
     private final ForceActions forceActions = ForceActions.getInstance();
     private final TorqueActions torqueActions = TorqueActions.getInstance();
     private final PotencialEActions potencialEActions = PotencialEActions.getInstance();
+    public FieldHeatmapPanel fieldHeatmapPanel;
+    public ConsumeSummaryPanel consumeSummaryPanel;
+    public final ConsumeTableModel consumeTableModel = new ConsumeTableModel();
 
     /**
      * Creates new form Administración
@@ -44,11 +47,13 @@ public class Administration extends javax.swing.JFrame implements GraphicalConfi
         UserController employeeController = new UserController(this, employeeActions);
         employeeController.loadEmployees(); // Load employees into the system
 
+        addConsumeSummary(); // Consumption totals next to the consumption table, refreshed on each load
         ElectricConsumeController electricConsumeController = new ElectricConsumeController(this, electricConsumeActions, employeeActions);
         electricConsumeController.loadConsume();
 
         FieldEController fieldEController = new FieldEController(this, fieldEActions, employeeActions);
         fieldEController.loadFieldsE();
+        addFieldHeatmap(); // Heatmap of |E| next to the electric field table
 
         ForceEController forceEController = new ForceEController(this, forceActions);
         forceEController.loadForcesE();
@@ -62,6 +67,41 @@ public class Administration extends javax.swing.JFrame implements GraphicalConfi
         this.repaint(); // Refresh the frame to reflect any changes
     }
 
+    /**
+     * Places the |E| heatmap to the right of the electric field table, sharing
+     * its slot in the panel layout through a split pane.
+     */
+    private void addFieldHeatmap() {
+        fieldHeatmapPanel = new FieldHeatmapPanel(fieldEActions);
+        javax.swing.JSplitPane split = new javax.swing.JSplitPane(javax.swing.JSplitPane.HORIZONTAL_SPLIT);
+        ((javax.swing.GroupLayout) jPanel13.getLayout()).replace(jScrollPane2, split);
+        split.setLeftComponent(jScrollPane2);
+        split.setRightComponent(fieldHeatmapPanel);
+        split.setResizeWeight(0.6);
+        // The heatmap listens to the field store; stop it when this window goes away
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                fieldHeatmapPanel.dispose();
+            }
+        });
+    }
+
+    /**
+     * Places the consumption summary to the right of the consumption table,
+     * the same way as the heatmap in the electric field panel, and backs the
+     * table with a model over the store snapshot.
+     */
+    private void addConsumeSummary() {
+        ConsumeTable.setModel(consumeTableModel); // Reads rows from the store snapshot instead of copying them
+        consumeSummaryPanel = new ConsumeSummaryPanel(electricConsumeActions);
+        javax.swing.JSplitPane split = new javax.swing.JSplitPane(javax.swing.JSplitPane.HORIZONTAL_SPLIT);
+        ((javax.swing.GroupLayout) jPanel4.getLayout()).replace(jScrollPane1, split);
+        split.setLeftComponent(jScrollPane1);
+        split.setRightComponent(consumeSummaryPanel);
+        split.setResizeWeight(0.6);
+    }
+
     /**
      * This method is called from within the constructor to initialize the form.
      * WARNING: Do NOT modify this code. The content of this method is always
@@ -0,0 +1,108 @@
+package Views;
+
+import Models.ConsumeAggregate;
+import Models.ElectricConsume;
+import Models.ElectricConsumeActions;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.util.Map;
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTabbedPane;
+import javax.swing.JTable;
+import javax.swing.border.TitledBorder;
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * Panel de resumen del consumo eléctrico: totales de todos los consumos y de
+ * cada usuario o aparato, y los {@value #TOP} consumos más caros. Lee los
+ * totales y el ranking que mantiene {@link ElectricConsumeActions}, así que
+ * refrescarlo no recorre los consumos. Incluye también el botón de
+ * importación masiva desde CSV, que atiende {@code ElectricConsumeController}.
+ */
+public class ConsumeSummaryPanel extends JPanel {
+
+    private static final String BY_USER = "Por usuario";
+    private static final String BY_APPLIANCE = "Por aparato";
+    private static final int TOP = 50;
+
+    public final JButton btnConsumeImport = new JButton("Importar CSV");
+    private final ElectricConsumeActions electricConsumeActions;
+    private final JComboBox<String> grouping = new JComboBox<>(new String[]{BY_USER, BY_APPLIANCE});
+    private final DefaultTableModel model = new DefaultTableModel(
+            new Object[]{"Grupo", "Consumos", "kWh", "Coste", "Mín.", "Máx."}, 0) {
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
+        }
+    };
+    private final DefaultTableModel topModel = new DefaultTableModel(
+            new Object[]{"ID", "Aparato", "Usuario", "Coste"}, 0) {
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
+        }
+    };
+
+    /**
+     * Crea el panel con los totales actuales.
+     *
+     * @param electricConsumeActions Almacén de consumos.
+     */
+    public ConsumeSummaryPanel(ElectricConsumeActions electricConsumeActions) {
+        super(new BorderLayout());
+        this.electricConsumeActions = electricConsumeActions;
+        setPreferredSize(new Dimension(360, 235));
+        setBorder(BorderFactory.createTitledBorder(BorderFactory.createLineBorder(Color.BLACK), "Resumen de consumo",
+                TitledBorder.CENTER, TitledBorder.DEFAULT_POSITION, new Font("Microsoft YaHei", Font.BOLD, 12), Color.BLACK));
+        grouping.addActionListener(e -> refresh());
+        JPanel controls = new JPanel(new BorderLayout());
+        controls.add(grouping, BorderLayout.CENTER);
+        controls.add(btnConsumeImport, BorderLayout.EAST);
+        add(controls, BorderLayout.NORTH);
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Totales", new JScrollPane(new JTable(model)));
+        tabs.addTab("Más caros", new JScrollPane(new JTable(topModel)));
+        add(tabs, BorderLayout.CENTER);
+        refresh();
+    }
+
+    /**
+     * Vuelve a leer los totales y el ranking. Debe llamarse desde el hilo de
+     * eventos.
+     */
+    public void refresh() {
+        model.setRowCount(0);
+        addRow("Total", electricConsumeActions.totals());
+        Map<String, ConsumeAggregate> groups = BY_USER.equals(grouping.getSelectedItem())
+                ? electricConsumeActions.totalsPerUser() : electricConsumeActions.totalsPerAppliance();
+        for (Map.Entry<String, ConsumeAggregate> group : groups.entrySet()) {
+            addRow(group.getKey() == null ? "(sin nombre)" : group.getKey(), group.getValue());
+        }
+        topModel.setRowCount(0);
+        for (ElectricConsume consume : electricConsumeActions.topElectricConsumes(TOP)) {
+            topModel.addRow(new Object[]{
+                consume.getId(),
+                consume.getElectricAppliance(),
+                consume.getUser(),
+                String.format("%.2f", consume.getResult())
+            });
+        }
+    }
+
+    private void addRow(String name, ConsumeAggregate aggregate) {
+        model.addRow(new Object[]{
+            name,
+            aggregate.getCount(),
+            String.format("%.3f", aggregate.getEnergy()),
+            String.format("%.2f", aggregate.getCost()),
+            aggregate.getCount() == 0 ? "" : String.format("%.2f", aggregate.getMinCost()),
+            aggregate.getCount() == 0 ? "" : String.format("%.2f", aggregate.getMaxCost())
+        });
+    }
+}
@@ -0,0 +1,76 @@
+package Views;
+
+import Models.ElectricConsume;
+import Models.IntStoreSnapshot;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Modelo de la tabla de consumos eléctricos que lee las filas directamente de
+ * una vista inmutable del almacén. Solo guarda los IDs en orden, así que
+ * mostrar millones de consumos no copia ninguna fila ni notifica una inserción
+ * por fila; cada celda visible se busca en la vista al pintarla.
+ */
+public class ConsumeTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMNS = {"ID", "Aparato", "Potencia", "Tiempo", "Tarifa eléctrica", "Resultado"};
+
+    private IntStoreSnapshot<ElectricConsume> consumes;
+    private int[] ids = new int[0];
+
+    /**
+     * Muestra los consumos de una vista del almacén, en su orden de inserción.
+     *
+     * @param consumes Vista con los consumos a mostrar.
+     */
+    public void setConsumes(IntStoreSnapshot<ElectricConsume> consumes) {
+        int[] rows = new int[consumes.size()];
+        int[] count = {0};
+        consumes.forEach(consume -> rows[count[0]++] = consume.getId());
+        this.consumes = consumes;
+        this.ids = rows;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Vacía la tabla.
+     */
+    public void clear() {
+        consumes = null;
+        ids = new int[0];
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return ids.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        ElectricConsume consume = consumes.get(ids[row]);
+        return switch (column) {
+            case 0 ->
+                consume.getId();
+            case 1 ->
+                consume.getElectricAppliance();
+            case 2 ->
+                consume.getElectricPower();
+            case 3 ->
+                consume.getDeviceTime();
+            case 4 ->
+                consume.getElectricityTariff();
+            default ->
+                consume.getResult();
+        };
+    }
+}
@@ -0,0 +1,179 @@
+package Views;
+
+import Models.FieldEActions;
+import Models.FieldHeatmap;
+import Models.FieldLineTracer;
+import Models.FieldLines;
+import Models.PointCharges;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Insets;
+import java.awt.RenderingHints;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.BorderFactory;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.border.TitledBorder;
+
+/**
+ * Panel que muestra el mapa de calor de |E| de los campos eléctricos
+ * almacenados, con las cargas y sus líneas de campo encima. El cálculo se
+ * hace fuera del hilo de eventos con un {@link SwingWorker}; si llegan cambios
+ * mientras se calcula, se encadena un único render más al terminar.
+ */
+public class FieldHeatmapPanel extends JPanel {
+
+    // Con más cargas las líneas de campo saturan el panel y su trazado se vuelve caro
+    private static final int MAX_TRACED_CHARGES = 256;
+    private static final int LINES_PER_CHARGE = 12;
+
+    private final FieldEActions fieldEActions;
+    private final FieldHeatmap heatmap;
+    private BufferedImage frame;
+    private PointCharges charges;
+    private Path2D.Float lines;
+    private boolean rendering;
+    private boolean renderAgain;
+
+    /**
+     * Crea el panel y lo sincroniza con el almacén de campos eléctricos.
+     *
+     * @param fieldEActions Almacén de campos eléctricos.
+     */
+    public FieldHeatmapPanel(FieldEActions fieldEActions) {
+        this.fieldEActions = fieldEActions;
+        setBackground(Color.BLACK);
+        setPreferredSize(new Dimension(320, 245));
+        setBorder(BorderFactory.createTitledBorder(BorderFactory.createLineBorder(Color.BLACK), "|E| (N/C)",
+                TitledBorder.CENTER, TitledBorder.DEFAULT_POSITION, new Font("Microsoft YaHei", Font.BOLD, 12), Color.BLACK));
+        heatmap = FieldHeatmap.follow(fieldEActions, 320, 245);
+        heatmap.setOnChange(() -> SwingUtilities.invokeLater(this::requestRender));
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                requestRender();
+            }
+
+            @Override
+            public void componentShown(ComponentEvent e) {
+                requestRender();
+            }
+        });
+    }
+
+    /**
+     * Desconecta el panel del almacén de campos eléctricos. Debe llamarse al
+     * cerrar la ventana que lo contiene; después el panel deja de
+     * actualizarse.
+     */
+    public void dispose() {
+        heatmap.unfollow();
+    }
+
+    /**
+     * Pide un nuevo render de las baldosas invalidadas. Debe llamarse desde el
+     * hilo de eventos.
+     */
+    public void requestRender() {
+        if (rendering) {
+            renderAgain = true;
+            return;
+        }
+        Insets insets = getInsets();
+        int width = getWidth() - insets.left - insets.right;
+        int height = getHeight() - insets.top - insets.bottom;
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        rendering = true;
+        PointCharges current = fieldEActions.pointCharges();
+        heatmap.resize(width, height);
+        heatmap.fitViewport(current);
+        new SwingWorker<BufferedImage, Void>() {
+            private Path2D.Float traced;
+
+            @Override
+            protected BufferedImage doInBackground() {
+                BufferedImage image = heatmap.render();
+                if (current.size() <= MAX_TRACED_CHARGES) {
+                    double[] viewport = heatmap.getViewport();
+                    traced = toPath(new FieldLineTracer(current, viewport[0], viewport[1], viewport[2], viewport[3])
+                            .trace(LINES_PER_CHARGE));
+                }
+                return image;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    frame = get();
+                    charges = current;
+                    lines = traced;
+                } catch (InterruptedException | ExecutionException ex) {
+                    Logger.getLogger(FieldHeatmapPanel.class.getName()).log(Level.SEVERE, null, ex);
+                }
+                rendering = false;
+                repaint();
+                if (renderAgain) {
+                    renderAgain = false;
+                    requestRender();
+                }
+            }
+        }.execute();
+    }
+
+    // Convierte las líneas de campo a coordenadas de píxel
+    private Path2D.Float toPath(FieldLines fieldLines) {
+        Path2D.Float path = new Path2D.Float(Path2D.WIND_NON_ZERO, fieldLines.pointCount());
+        for (int line = 0; line < fieldLines.lineCount(); line++) {
+            int start = fieldLines.start(line);
+            path.moveTo(heatmap.toPixelX(fieldLines.x(start)), heatmap.toPixelY(fieldLines.y(start)));
+            for (int point = start + 1; point < start + fieldLines.size(line); point++) {
+                path.lineTo(heatmap.toPixelX(fieldLines.x(point)), heatmap.toPixelY(fieldLines.y(point)));
+            }
+        }
+        return path;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (frame == null) {
+            return;
+        }
+        Insets insets = getInsets();
+        Graphics2D g2 = (Graphics2D) g.create(insets.left, insets.top, frame.getWidth(), frame.getHeight());
+        try {
+            g2.drawImage(frame, 0, 0, null);
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            if (lines != null) {
+                g2.setColor(new Color(255, 255, 255, 110));
+                g2.draw(lines);
+            }
+            g2.setColor(Color.CYAN);
+            for (int i = 0; i < charges.size(); i++) {
+                int x = (int) Math.round(heatmap.toPixelX(charges.x(i)));
+                int y = (int) Math.round(heatmap.toPixelY(charges.y(i)));
+                g2.drawOval(x - 3, y - 3, 6, 6);
+            }
+            double logMax = heatmap.getLogMax();
+            if (!Double.isNaN(logMax)) {
+                g2.setColor(Color.WHITE);
+                g2.setFont(getFont().deriveFont(10f));
+                g2.drawString(String.format("1e%.0f – 1e%.0f", logMax - heatmap.getDecades(), logMax), 4, frame.getHeight() - 4);
+            }
+        } finally {
+            g2.dispose();
+        }
+    }
+}